@@ -0,0 +1,47 @@
+// Writes a .gz and a .br copy next to every compressible file in build/,
+// so Spring can serve the pre-compressed copy to browsers that accept it
+// instead of compressing the same bundle on every request.
+//
+// Run after `npm run build`; the maven production profile does this.
+
+const fs = require("fs");
+const path = require("path");
+const zlib = require("zlib");
+
+const buildDir = path.join(__dirname, "..", "build");
+const extensions = [".js", ".css", ".html", ".json", ".svg", ".txt", ".map", ".ico"];
+const minimumBytes = 1024;
+
+function* filesUnder(dir) {
+  for (const entry of fs.readdirSync(dir, { withFileTypes: true })) {
+    const fullPath = path.join(dir, entry.name);
+    if (entry.isDirectory()) {
+      yield* filesUnder(fullPath);
+    } else {
+      yield fullPath;
+    }
+  }
+}
+
+let count = 0;
+for (const file of filesUnder(buildDir)) {
+  if (!extensions.includes(path.extname(file))) {
+    continue;
+  }
+  const contents = fs.readFileSync(file);
+  if (contents.length < minimumBytes) {
+    continue;
+  }
+  fs.writeFileSync(`${file}.gz`, zlib.gzipSync(contents, { level: zlib.constants.Z_BEST_COMPRESSION }));
+  fs.writeFileSync(
+    `${file}.br`,
+    zlib.brotliCompressSync(contents, {
+      params: {
+        [zlib.constants.BROTLI_PARAM_QUALITY]: zlib.constants.BROTLI_MAX_QUALITY,
+        [zlib.constants.BROTLI_PARAM_SIZE_HINT]: contents.length,
+      },
+    })
+  );
+  count++;
+}
+console.log(`compress-build: wrote .gz and .br copies of ${count} files`);
@@ -0,0 +1,78 @@
+package edu.ucsb.cs156.example.benchmarks;
+
+import java.util.Map;
+
+import edu.ucsb.cs156.example.config.HikariPoolConfig;
+import edu.ucsb.cs156.example.entities.User;
+import edu.ucsb.cs156.example.repositories.UserRepository;
+import edu.ucsb.cs156.example.services.AdminRoleService;
+import edu.ucsb.cs156.example.services.CurrentUserServiceImpl;
+import edu.ucsb.cs156.example.services.DiningCommonsLocationService;
+import edu.ucsb.cs156.example.services.GrantedAuthoritiesService;
+import edu.ucsb.cs156.example.services.SearchService;
+import edu.ucsb.cs156.example.services.TableVersionService;
+
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.context.PropertyPlaceholderAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.jpa.JpaRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+/**
+ * A Spring context with no web layer over an in-memory H2 database, with
+ * the same Hibernate batching settings as application.properties. It maps
+ * the app's entities and repositories plus the benchmark-only entities in
+ * this package, and starts just the services the benchmarks and the
+ * entity listeners call, with the app's connection pool sizing.
+ */
+@SpringBootConfiguration
+@ImportAutoConfiguration({
+    DataSourceAutoConfiguration.class,
+    DataSourceTransactionManagerAutoConfiguration.class,
+    HibernateJpaAutoConfiguration.class,
+    JpaRepositoriesAutoConfiguration.class,
+    PropertyPlaceholderAutoConfiguration.class,
+    TransactionAutoConfiguration.class })
+@EntityScan(basePackageClasses = { BenchmarkApplication.class, User.class })
+@EnableJpaRepositories(basePackageClasses = { BenchmarkApplication.class, UserRepository.class })
+@Import({
+    AdminRoleService.class,
+    CurrentUserServiceImpl.class,
+    DiningCommonsLocationService.class,
+    GrantedAuthoritiesService.class,
+    HikariPoolConfig.class,
+    SearchService.class,
+    TableVersionService.class })
+public class BenchmarkApplication {
+
+  public static final String BENCHMARK_ADMIN = "admin@ucsb.edu";
+
+  public static ConfigurableApplicationContext start(String databaseName, Map<String, Object> extraProperties,
+      Class<?>... extraSources) {
+    return new SpringApplicationBuilder(BenchmarkApplication.class)
+        .sources(extraSources)
+        .web(WebApplicationType.NONE)
+        .properties(Map.of(
+            // keep application.properties, and the profiles it activates, out of the benchmark
+            "spring.config.location", "optional:classpath:/benchmark.properties",
+            "spring.datasource.url", "jdbc:h2:mem:" + databaseName + ";DB_CLOSE_DELAY=-1",
+            "spring.jpa.hibernate.ddl-auto", "create-drop",
+            "spring.jpa.properties.hibernate.jdbc.batch_size", "50",
+            "spring.jpa.properties.hibernate.order_inserts", "true",
+            "spring.jpa.properties.hibernate.order_updates", "true",
+            "app.admin.emails", BENCHMARK_ADMIN,
+            // the services log at info on every call, which would swamp what is being measured
+            "logging.level.edu.ucsb.cs156", "warn"))
+        .properties(extraProperties)
+        .run();
+  }
+}
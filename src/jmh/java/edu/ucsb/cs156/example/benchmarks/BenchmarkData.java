@@ -0,0 +1,80 @@
+package edu.ucsb.cs156.example.benchmarks;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import edu.ucsb.cs156.example.entities.MenuItemReview;
+import edu.ucsb.cs156.example.entities.RecommendationRequest;
+import edu.ucsb.cs156.example.entities.Restaurant;
+import edu.ucsb.cs156.example.entities.UCSBDate;
+import edu.ucsb.cs156.example.entities.UCSBDiningCommons;
+import edu.ucsb.cs156.example.entities.UCSBDiningCommonsMenuItem;
+import edu.ucsb.cs156.example.entities.UCSBOrganization;
+import edu.ucsb.cs156.example.entities.User;
+
+/**
+ * Representative rows of each entity, shared by the benchmarks.
+ */
+public final class BenchmarkData {
+
+  private BenchmarkData() {
+  }
+
+  // menuItemReview spreads its reviews over this many item ids
+  public static final int MENU_ITEMS = 50;
+
+  static final LocalDateTime NOON = LocalDateTime.parse("2023-04-03T12:00:00");
+
+  public static UCSBDate ucsbDate(int i) {
+    return UCSBDate.builder().quarterYYYYQ("20232").name("day " + i).localDateTime(NOON.plusDays(i)).build();
+  }
+
+  public static Restaurant restaurant(int i) {
+    return Restaurant.builder().name("Restaurant " + i).description("Burritos and bowls near campus").build();
+  }
+
+  public static MenuItemReview menuItemReview(int i) {
+    return MenuItemReview.builder().itemId(i % MENU_ITEMS).reviewerEmail("student" + i + "@ucsb.edu")
+        .stars(1 + i % 5).dateReviewed(NOON).comments("Would order again").build();
+  }
+
+  public static RecommendationRequest recommendationRequest(int i) {
+    return RecommendationRequest.builder().requesterEmail("student" + i + "@ucsb.edu")
+        .professorEmail("phtcon@ucsb.edu").explanation("Graduate school applications")
+        .dateRequested(NOON).dateNeeded(NOON.plusWeeks(3)).done(false).build();
+  }
+
+  public static UCSBDiningCommons diningCommons(int i) {
+    return UCSBDiningCommons.builder().code("commons" + i).name("Commons " + i).hasSackMeal(true)
+        .hasTakeOutMeal(true).hasDiningCam(false).latitude(34.409953).longitude(-119.85277).build();
+  }
+
+  public static UCSBDiningCommonsMenuItem menuItem(int i) {
+    return UCSBDiningCommonsMenuItem.builder().diningCommonsCode("ortega").name("Item " + i)
+        .station("Entrees").build();
+  }
+
+  public static UCSBOrganization organization(int i) {
+    return UCSBOrganization.builder().orgCode("ORG" + i).orgTranslationShort("CLUB " + i)
+        .orgTranslation("Student Club " + i).inactive(false).build();
+  }
+
+  public static User user(String email) {
+    return User.builder().email(email).googleSub("sub-" + email).fullName("Chris Gaucho")
+        .givenName("Chris").familyName("Gaucho").emailVerified(true).locale("en").hostedDomain("ucsb.edu").build();
+  }
+
+  /** Google's userinfo attributes for a user, as CurrentUserServiceImpl reads them. */
+  public static Map<String, Object> oauthAttributes(String email) {
+    return Map.of(
+        "sub", "sub-" + email,
+        "email", email,
+        "name", "Chris Gaucho",
+        "given_name", "Chris",
+        "family_name", "Gaucho",
+        "email_verified", true,
+        "locale", "en",
+        "hd", "ucsb.edu",
+        "picture", "https://example.org/chris.png");
+  }
+}
@@ -0,0 +1,135 @@
+package edu.ucsb.cs156.example.benchmarks;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import edu.ucsb.cs156.example.entities.MenuItemReview;
+import edu.ucsb.cs156.example.repositories.MenuItemReviewRepository;
+
+/**
+ * A load test of the connection pool: 32 threads, each running a
+ * transaction that reads one review and then a page of the reviews for
+ * the same item, the way a request to /api/menuitemreview/byItem does.
+ * Compares a pool smaller than the thread count, Hikari's default of 10
+ * connections, and one connection per thread, each with and without leak
+ * detection. Sample time gives the p99 wait for a connection as well as
+ * the mean.
+ *
+ * By default the database is embedded H2 in PostgreSQL mode, which shares
+ * this JVM's cores and ignores the Postgres driver settings, so only the
+ * pool sizes and leak detection are compared. The sizes that win there say
+ * little about the right pool for a separate Postgres server; size that
+ * from the server's cores with DB_CORES (see HikariPoolConfig).
+ *
+ * Set BENCHMARK_JDBC_URL (and BENCHMARK_JDBC_USERNAME and
+ * BENCHMARK_JDBC_PASSWORD) to a scratch Postgres database to run against
+ * it instead, with the driver settings from
+ * application-production.properties; the tables are created and dropped.
+ * Of those settings, prepareThreshold and preparedStatementCacheQueries
+ * apply to these reads. reWriteBatchedInserts only changes batched inserts,
+ * so it has no effect here.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(32)
+@Fork(1)
+public class ConnectionPoolBenchmark {
+
+  static final int REVIEWS = 5000;
+
+  @Param({ "4", "10", "32" })
+  int poolSize;
+
+  @Param({ "0", "30000" })
+  long leakDetectionMillis;
+
+  ConfigurableApplicationContext context;
+  MenuItemReviewRepository menuItemReviewRepository;
+  TransactionTemplate readOnly;
+  long firstReviewId;
+
+  @Setup(Level.Trial)
+  public void start() throws IOException {
+    Map<String, Object> properties = new HashMap<>(Map.of(
+        "app.datasource.pool-size", poolSize,
+        "spring.datasource.hikari.leak-detection-threshold", leakDetectionMillis));
+    String postgresUrl = System.getenv("BENCHMARK_JDBC_URL");
+    if (postgresUrl == null) {
+      properties.put("spring.datasource.url", "jdbc:h2:mem:pool;DB_CLOSE_DELAY=-1;MODE=PostgreSQL");
+    } else {
+      properties.put("spring.datasource.url", postgresUrl);
+      properties.put("spring.datasource.username", System.getenv().getOrDefault("BENCHMARK_JDBC_USERNAME", ""));
+      properties.put("spring.datasource.password", System.getenv().getOrDefault("BENCHMARK_JDBC_PASSWORD", ""));
+      properties.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.PostgreSQL9Dialect");
+      properties.putAll(productionDriverSettings());
+    }
+    context = BenchmarkApplication.start("pool", properties);
+    menuItemReviewRepository = context.getBean(MenuItemReviewRepository.class);
+    readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+    readOnly.setReadOnly(true);
+
+    List<MenuItemReview> reviews = IntStream.range(0, REVIEWS).mapToObj(BenchmarkData::menuItemReview)
+        .collect(Collectors.toList());
+    menuItemReviewRepository.saveAll(reviews);
+    firstReviewId = reviews.get(0).getId();
+  }
+
+  // The spring.datasource.hikari.data-source-properties.* entries, with
+  // their placeholders left for the benchmark context to resolve
+  static Map<String, Object> productionDriverSettings() throws IOException {
+    Properties production = PropertiesLoaderUtils.loadProperties(
+        new ClassPathResource("application-production.properties"));
+    Map<String, Object> settings = new HashMap<>();
+    for (String name : production.stringPropertyNames()) {
+      if (name.startsWith("spring.datasource.hikari.data-source-properties.")) {
+        settings.put(name, production.getProperty(name));
+      }
+    }
+    return settings;
+  }
+
+  @TearDown(Level.Trial)
+  public void stop() {
+    context.close();
+  }
+
+  @Benchmark
+  public List<MenuItemReview> reviewWithItsItem() {
+    long id = firstReviewId + ThreadLocalRandom.current().nextInt(REVIEWS);
+    return readOnly.execute(status -> {
+      MenuItemReview review = menuItemReviewRepository.findById(id).orElseThrow();
+      return menuItemReviewRepository.findByItemIdAndIdGreaterThan(review.getItemId(), 0, PageRequest.of(0, 20));
+    });
+  }
+}
@@ -0,0 +1,76 @@
+package edu.ucsb.cs156.example.benchmarks;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
+
+import edu.ucsb.cs156.example.models.CurrentUser;
+import edu.ucsb.cs156.example.repositories.UserRepository;
+import edu.ucsb.cs156.example.services.CurrentUserServiceImpl;
+
+/**
+ * CurrentUserServiceImpl.getCurrentUser for a logged-in Google user, both
+ * with the user already in its cache (the common case, once per request)
+ * and with the cache emptied first, which costs a findByEmail.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CurrentUserBenchmark {
+
+  static final String EMAIL = "cgaucho@ucsb.edu";
+
+  ConfigurableApplicationContext context;
+  CurrentUserServiceImpl currentUserService;
+
+  @Setup(Level.Trial)
+  public void start() {
+    context = BenchmarkApplication.start("currentuser", Map.of());
+    context.getBean(UserRepository.class).save(BenchmarkData.user(EMAIL));
+    currentUserService = context.getBean(CurrentUserServiceImpl.class);
+
+    // SecurityContextHolder is thread-local, hence Scope.Thread
+    DefaultOAuth2User principal = new DefaultOAuth2User(
+        List.of(new SimpleGrantedAuthority("ROLE_USER")), BenchmarkData.oauthAttributes(EMAIL), "sub");
+    SecurityContextHolder.getContext().setAuthentication(
+        new OAuth2AuthenticationToken(principal, principal.getAuthorities(), "google"));
+  }
+
+  @TearDown(Level.Trial)
+  public void stop() {
+    SecurityContextHolder.clearContext();
+    context.close();
+  }
+
+  @Benchmark
+  public CurrentUser cachedUser() {
+    return currentUserService.getCurrentUser();
+  }
+
+  @Benchmark
+  public CurrentUser uncachedUser() {
+    currentUserService.evictAllUsers();
+    return currentUserService.getCurrentUser();
+  }
+}
@@ -0,0 +1,29 @@
+package edu.ucsb.cs156.example.benchmarks;
+
+import java.time.LocalDateTime;
+
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Same shape as UCSBDate, but with the IDENTITY ids it used to have.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity(name = "identitydates")
+public class IdentityDate {
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private long id;
+
+  private String quarterYYYYQ;
+  private String name;
+  private LocalDateTime localDateTime;
+}
@@ -0,0 +1,83 @@
+package edu.ucsb.cs156.example.benchmarks;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Inserts the same rows through saveAll with IDENTITY ids and with pooled
+ * sequence ids. Hibernate cannot batch IDENTITY inserts, because it needs
+ * each generated id back before it can continue, so that case does one
+ * round trip per row.
+ *
+ * Run with: mvn -P benchmarks test-compile exec:exec -Djmh.includes=InsertThroughput
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InsertThroughputBenchmark {
+
+  @Param({ "1", "100", "1000" })
+  int rows;
+
+  ConfigurableApplicationContext context;
+  IdentityDateRepository identityDates;
+  PooledDateRepository pooledDates;
+
+  @Setup(Level.Trial)
+  public void start() {
+    context = BenchmarkApplication.start("inserts", Map.of());
+    identityDates = context.getBean(IdentityDateRepository.class);
+    pooledDates = context.getBean(PooledDateRepository.class);
+  }
+
+  @TearDown(Level.Iteration)
+  public void clear() {
+    identityDates.deleteAllInBatch();
+    pooledDates.deleteAllInBatch();
+  }
+
+  @TearDown(Level.Trial)
+  public void stop() {
+    context.close();
+  }
+
+  @Benchmark
+  public List<IdentityDate> identityIds() {
+    return identityDates.saveAll(batch(i -> new IdentityDate(0, "20231", "date " + i, LocalDateTime.now())));
+  }
+
+  @Benchmark
+  public List<PooledDate> pooledSequenceIds() {
+    return pooledDates.saveAll(batch(i -> new PooledDate(0, "20231", "date " + i, LocalDateTime.now())));
+  }
+
+  private <T> List<T> batch(IntFunction<T> row) {
+    List<T> batch = new ArrayList<>(rows);
+    for (int i = 0; i < rows; i++) {
+      batch.add(row.apply(i));
+    }
+    return batch;
+  }
+}
@@ -0,0 +1,69 @@
+package edu.ucsb.cs156.example.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Serializes a list of each entity the way the /all endpoints do, with an
+ * ObjectMapper built like Spring Boot's (JavaTimeModule registered, dates
+ * written as ISO strings).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+  @Param({ "UCSBDate", "Restaurant", "MenuItemReview", "RecommendationRequest",
+      "UCSBDiningCommons", "UCSBDiningCommonsMenuItem", "UCSBOrganization" })
+  String entity;
+
+  @Param({ "1", "100" })
+  int rows;
+
+  ObjectMapper mapper;
+  List<?> payload;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    mapper = Jackson2ObjectMapperBuilder.json().build();
+    IntFunction<?> row = switch (entity) {
+      case "UCSBDate" -> BenchmarkData::ucsbDate;
+      case "Restaurant" -> BenchmarkData::restaurant;
+      case "MenuItemReview" -> BenchmarkData::menuItemReview;
+      case "RecommendationRequest" -> BenchmarkData::recommendationRequest;
+      case "UCSBDiningCommons" -> BenchmarkData::diningCommons;
+      case "UCSBDiningCommonsMenuItem" -> BenchmarkData::menuItem;
+      case "UCSBOrganization" -> BenchmarkData::organization;
+      default -> throw new IllegalArgumentException(entity);
+    };
+    payload = IntStream.range(0, rows).mapToObj(row).collect(Collectors.toList());
+  }
+
+  @Benchmark
+  public byte[] writeList() throws JsonProcessingException {
+    return mapper.writeValueAsBytes(payload);
+  }
+}
@@ -0,0 +1,31 @@
+package edu.ucsb.cs156.example.benchmarks;
+
+import java.time.LocalDateTime;
+
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.SequenceGenerator;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Same shape and id mapping as UCSBDate.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity(name = "pooleddates")
+public class PooledDate {
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pooleddates_seq")
+  @SequenceGenerator(name = "pooleddates_seq", sequenceName = "pooleddates_seq", allocationSize = 50)
+  private long id;
+
+  private String quarterYYYYQ;
+  private String name;
+  private LocalDateTime localDateTime;
+}
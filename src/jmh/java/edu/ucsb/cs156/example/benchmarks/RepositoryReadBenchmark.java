@@ -0,0 +1,90 @@
+package edu.ucsb.cs156.example.benchmarks;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import edu.ucsb.cs156.example.entities.MenuItemReview;
+import edu.ucsb.cs156.example.entities.UCSBDate;
+import edu.ucsb.cs156.example.repositories.MenuItemReviewRepository;
+import edu.ucsb.cs156.example.repositories.UCSBDateRepository;
+
+/**
+ * findAll and findById through the app's repositories against embedded H2,
+ * for a small table and for the largest one (reviews).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RepositoryReadBenchmark {
+
+  @Param({ "10", "1000" })
+  int rows;
+
+  ConfigurableApplicationContext context;
+  UCSBDateRepository ucsbDateRepository;
+  MenuItemReviewRepository menuItemReviewRepository;
+  long middleDateId;
+  long middleReviewId;
+
+  @Setup(Level.Trial)
+  public void start() {
+    context = BenchmarkApplication.start("reads", Map.of());
+    ucsbDateRepository = context.getBean(UCSBDateRepository.class);
+    menuItemReviewRepository = context.getBean(MenuItemReviewRepository.class);
+
+    List<UCSBDate> dates = IntStream.range(0, rows).mapToObj(BenchmarkData::ucsbDate).collect(Collectors.toList());
+    ucsbDateRepository.saveAll(dates);
+    middleDateId = dates.get(rows / 2).getId();
+
+    List<MenuItemReview> reviews = IntStream.range(0, rows).mapToObj(BenchmarkData::menuItemReview).collect(Collectors.toList());
+    menuItemReviewRepository.saveAll(reviews);
+    middleReviewId = reviews.get(rows / 2).getId();
+  }
+
+  @TearDown(Level.Trial)
+  public void stop() {
+    context.close();
+  }
+
+  @Benchmark
+  public Iterable<UCSBDate> findAllDates() {
+    return ucsbDateRepository.findAll();
+  }
+
+  @Benchmark
+  public Optional<UCSBDate> findDateById() {
+    return ucsbDateRepository.findById(middleDateId);
+  }
+
+  @Benchmark
+  public Iterable<MenuItemReview> findAllReviews() {
+    return menuItemReviewRepository.findAll();
+  }
+
+  @Benchmark
+  public Optional<MenuItemReview> findReviewById() {
+    return menuItemReviewRepository.findById(middleReviewId);
+  }
+}
@@ -0,0 +1,78 @@
+package edu.ucsb.cs156.example.config;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.mapping.GrantedAuthoritiesMapper;
+import org.springframework.security.oauth2.core.user.OAuth2UserAuthority;
+
+import edu.ucsb.cs156.example.benchmarks.BenchmarkApplication;
+import edu.ucsb.cs156.example.benchmarks.BenchmarkData;
+import edu.ucsb.cs156.example.repositories.UserRepository;
+import edu.ucsb.cs156.example.services.AdminRoleService;
+
+/**
+ * The GrantedAuthoritiesMapper that SecurityConfig installs for OAuth
+ * logins, for an admin listed in app.admin.emails and for a regular user
+ * whose admin flag comes from the database. It lives in this package
+ * because userAuthoritiesMapper() is package-private.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthoritiesMapperBenchmark {
+
+  static final String USER = "cgaucho@ucsb.edu";
+
+  ConfigurableApplicationContext context;
+  GrantedAuthoritiesMapper mapper;
+  List<GrantedAuthority> adminLogin;
+  List<GrantedAuthority> userLogin;
+
+  @Setup(Level.Trial)
+  public void start() {
+    context = BenchmarkApplication.start("authorities", Map.of());
+    context.getBean(UserRepository.class).save(BenchmarkData.user(USER));
+
+    SecurityConfig securityConfig = new SecurityConfig();
+    securityConfig.adminRoleService = context.getBean(AdminRoleService.class);
+    mapper = securityConfig.userAuthoritiesMapper();
+
+    adminLogin = List.of(new OAuth2UserAuthority(BenchmarkData.oauthAttributes(BenchmarkApplication.BENCHMARK_ADMIN)));
+    userLogin = List.of(new OAuth2UserAuthority(BenchmarkData.oauthAttributes(USER)));
+  }
+
+  @TearDown(Level.Trial)
+  public void stop() {
+    context.close();
+  }
+
+  @Benchmark
+  public Collection<? extends GrantedAuthority> mapAdmin() {
+    return mapper.mapAuthorities(adminLogin);
+  }
+
+  @Benchmark
+  public Collection<? extends GrantedAuthority> mapUser() {
+    return mapper.mapAuthorities(userLogin);
+  }
+}
@@ -0,0 +1,151 @@
+package edu.ucsb.cs156.example.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+
+import edu.ucsb.cs156.example.benchmarks.BenchmarkApplication;
+import edu.ucsb.cs156.example.benchmarks.BenchmarkData;
+import edu.ucsb.cs156.example.controllers.MenuItemReviewController;
+import edu.ucsb.cs156.example.entities.MenuItemReview;
+import edu.ucsb.cs156.example.repositories.MenuItemReviewRepository;
+import edu.ucsb.cs156.example.services.BatchService;
+import edu.ucsb.cs156.example.services.JsonCacheService;
+import edu.ucsb.cs156.example.services.JsonStreamingService;
+import edu.ucsb.cs156.example.services.MenuItemRatingService;
+import edu.ucsb.cs156.example.services.ReadService;
+
+/**
+ * A burst of concurrent requests run on Tomcat's default pool (200 platform
+ * threads) and on the virtual-thread-per-task executor that
+ * VirtualThreadConfig installs. Reports the time to finish the whole burst.
+ *
+ * With work=sleep each request just blocks for blockMillis, the best case
+ * for virtual threads. With work=handler each request calls
+ * MenuItemReviewController.reviewsByItem, which reads a page of reviews
+ * through the repository in a read-only transaction, over the app's
+ * connection pool and an in-memory H2 database. That case includes what
+ * the sleep hides: the waits for one of poolSize connections, and the
+ * synchronized sections in the driver, which pin a virtual thread to its
+ * carrier while they block (see VirtualThreadConfig). Run it with
+ * -Djmh.jvmArgsAppend=-Djdk.tracePinnedThreads=short to see where.
+ *
+ * The virtual case needs JDK 21 or later; on an older JDK its setup fails
+ * and JMH reports only the platform case.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestExecutorBenchmark {
+
+  @Param({ "platform", "virtual" })
+  String threads;
+
+  @Param({ "200", "2000", "10000" })
+  int concurrentRequests;
+
+  @Param({ "10" })
+  int blockMillis;
+
+  @Param({ "sleep", "handler" })
+  String work;
+
+  @Param({ "10" })
+  int poolSize;
+
+  static final int REVIEWS = 5000;
+
+  // What BenchmarkApplication lacks to run MenuItemReviewController; with
+  // no method security, @PreAuthorize is not enforced here
+  @Import({
+      MenuItemReviewController.class,
+      BatchService.class,
+      JsonCacheService.class,
+      JsonStreamingService.class,
+      MenuItemRatingService.class,
+      ReadService.class })
+  @ImportAutoConfiguration({ JacksonAutoConfiguration.class, JdbcTemplateAutoConfiguration.class })
+  static class Handlers {
+  }
+
+  ExecutorService executor;
+  ConfigurableApplicationContext context;
+  MenuItemReviewController controller;
+
+  @Setup(Level.Trial)
+  public void start() {
+    if (work.equals("handler")) {
+      context = BenchmarkApplication.start("handlers", Map.of("app.datasource.pool-size", poolSize), Handlers.class);
+      List<MenuItemReview> reviews = IntStream.range(0, REVIEWS).mapToObj(BenchmarkData::menuItemReview)
+          .collect(Collectors.toList());
+      context.getBean(MenuItemReviewRepository.class).saveAll(reviews);
+      controller = context.getBean(MenuItemReviewController.class);
+    }
+    if (threads.equals("virtual")) {
+      executor = VirtualThreadConfig.newVirtualThreadPerTaskExecutor()
+          .orElseThrow(() -> new IllegalStateException("virtual threads need JDK 21 or later"));
+    } else {
+      // the shape of Tomcat's default connector pool
+      executor = new ThreadPoolExecutor(200, 200, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void stop() throws InterruptedException {
+    executor.shutdown();
+    executor.awaitTermination(1, TimeUnit.MINUTES);
+    if (context != null) {
+      context.close();
+    }
+  }
+
+  @Benchmark
+  public int burst() throws Exception {
+    List<Future<Integer>> responses = new ArrayList<>(concurrentRequests);
+    for (int i = 0; i < concurrentRequests; i++) {
+      int request = i;
+      responses.add(executor.submit(() -> {
+        if (controller != null) {
+          return controller.reviewsByItem(request % BenchmarkData.MENU_ITEMS, 0L, 20).getContent().size();
+        }
+        Thread.sleep(blockMillis);
+        return request;
+      }));
+    }
+    int handled = 0;
+    for (Future<Integer> response : responses) {
+      response.get();
+      handled++;
+    }
+    return handled;
+  }
+}
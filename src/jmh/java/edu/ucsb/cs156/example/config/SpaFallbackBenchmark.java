@@ -0,0 +1,69 @@
+package edu.ucsb.cs156.example.config;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.http.HttpServlet;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * The per-request cost of SpaFallbackFilter, run through a filter chain
+ * that ends in an empty servlet: for an API call and a static file, which
+ * it passes on, and for a frontend route, which it answers with index.html
+ * from memory. withoutFilter is the same chain without the filter, for the
+ * baseline. Needs a frontend build (or the stand-in under
+ * src/test/resources) at classpath:/public/index.html.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpaFallbackBenchmark {
+
+  @Param({ "/api/ucsbdates/all", "/ucsbdates/edit/17", "/static/js/main.3f2a9c1e.js" })
+  String path;
+
+  HttpServlet servlet = new HttpServlet() { };
+
+  SpaFallbackFilter filter = new SpaFallbackFilter();
+
+  @Setup
+  public void setup() {
+    ReflectionTestUtils.setField(filter, "indexHtml", new ClassPathResource("public/index.html"));
+  }
+
+  private MockHttpServletRequest request() {
+    return new MockHttpServletRequest("GET", path);
+  }
+
+  @Benchmark
+  public MockHttpServletResponse withoutFilter() throws Exception {
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    new MockFilterChain(servlet).doFilter(request(), response);
+    return response;
+  }
+
+  @Benchmark
+  public MockHttpServletResponse spaFallbackFilter() throws Exception {
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    new MockFilterChain(servlet, filter).doFilter(request(), response);
+    return response;
+  }
+}
@@ -1,19 +1,31 @@
 package edu.ucsb.cs156.example.aop;
 
+import edu.ucsb.cs156.example.config.RequestLoggingProperties;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Before;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
 import javax.servlet.http.HttpServletRequest;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Optional;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
 
+/**
+ * Logs one line per controller call, subject to RequestLoggingProperties.
+ * Everything that can be decided once per handler method (stoplist and
+ * sample rate) is cached by Method, and the message is only built once we
+ * know it will be written, so a request that is not logged costs a map
+ * lookup and, for rates between 0 and 1, a random number.
+ */
 @Slf4j
 @Aspect
 @Component
@@ -28,25 +40,39 @@ public class LoggingAspect {
       @annotation(org.springframework.web.bind.annotation.PatchMapping)
       """;
 
-  private ArrayList<String> stoplist = new ArrayList<String>(Arrays.asList(
-      "edu.ucsb.cs156.example.controllers.FrontendProxyController"));
+  @Autowired
+  private RequestLoggingProperties properties;
+
+  private final Map<Method, Double> sampleRates = new ConcurrentHashMap<>();
 
   @Before(pointcut)
   public void logControllers(JoinPoint joinPoint) {
-    getCurrentHttpRequest().ifPresent(
-        request -> {
-          String declaringTypeName = joinPoint.getSignature().getDeclaringTypeName();
-          if (!stoplist.contains(declaringTypeName)) {
-            log.info("===== %s %s handled by %s in %s".formatted(request.getMethod(), request.getRequestURI(),
-                joinPoint.getSignature().getName(), declaringTypeName));
-          }
-        });
+    if (!properties.getEnabled() || !log.isInfoEnabled()) {
+      return;
+    }
+    Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+    double rate = sampleRates.computeIfAbsent(method, this::sampleRate);
+    if (rate <= 0 || (rate < 1 && ThreadLocalRandom.current().nextDouble() >= rate)) {
+      return;
+    }
+    RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+    if (attributes instanceof ServletRequestAttributes servletAttributes) {
+      HttpServletRequest request = servletAttributes.getRequest();
+      log.info("===== {} {} handled by {} in {}", request.getMethod(), request.getRequestURI(),
+          method.getName(), method.getDeclaringClass().getName());
+    }
   }
 
-  private static Optional<HttpServletRequest> getCurrentHttpRequest() {
-    return Optional.ofNullable(RequestContextHolder.getRequestAttributes())
-        .filter(ServletRequestAttributes.class::isInstance)
-        .map(ServletRequestAttributes.class::cast)
-        .map(ServletRequestAttributes::getRequest);
+  private double sampleRate(Method method) {
+    Class<?> controller = method.getDeclaringClass();
+    if (properties.getStoplist().contains(controller.getName())) {
+      return 0;
+    }
+    Map<String, Double> rates = properties.getSampleRates();
+    Double rate = rates.get(controller.getSimpleName() + "." + method.getName());
+    if (rate == null) {
+      rate = rates.get(controller.getSimpleName());
+    }
+    return rate != null ? rate : properties.getDefaultSampleRate();
   }
 }
@@ -0,0 +1,38 @@
+package edu.ucsb.cs156.example.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Turns on Spring's @Cacheable support. Spring Boot builds the caches named
+ * in spring.cache.cache-names from the Caffeine builder below.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+  /**
+   * The "json" cache holds whole serialized responses, and an /all body
+   * grows with its table, so the cache is bounded by the bytes it holds
+   * rather than by how many responses.
+   */
+  @Bean
+  public static Caffeine<Object, Object> caffeine(
+      @Value("${app.json-cache.max-bytes}") long maxBytes,
+      @Value("${app.json-cache.expire-after-access}") Duration expireAfterAccess) {
+    return Caffeine.newBuilder()
+        .maximumWeight(maxBytes)
+        .weigher(CacheConfig::weigh)
+        .expireAfterAccess(expireAfterAccess);
+  }
+
+  static int weigh(Object key, Object value) {
+    return value instanceof byte[] bytes ? bytes.length : 1;
+  }
+}
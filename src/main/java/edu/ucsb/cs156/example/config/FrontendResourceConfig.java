@@ -0,0 +1,45 @@
+package edu.ucsb.cs156.example.config;
+
+import java.time.Duration;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.PathResourceResolver;
+
+/**
+ * Caching headers for the built frontend. Everything under /static/ is
+ * named by create-react-app with a hash of its contents, so a given URL
+ * never changes and browsers may keep it for a year without revalidating.
+ * index.html, which names the current bundle, is served by
+ * SpaFallbackFilter with no-cache instead, whether it is asked for as
+ * /index.html or through a client-side route.
+ */
+@Profile("!development")
+@Configuration
+public class FrontendResourceConfig implements WebMvcConfigurer {
+
+  @Override
+  public void addResourceHandlers(ResourceHandlerRegistry registry) {
+    registry.addResourceHandler("/static/**")
+        .addResourceLocations("classpath:/public/static/")
+        .setCacheControl(immutable(CacheControl.maxAge(Duration.ofDays(365)).cachePublic()))
+        .resourceChain(true)
+        .addResolver(new EncodedResourceResolver())
+        .addResolver(new PathResourceResolver());
+  }
+
+  // CacheControl has no immutable() before Spring 6, so the directive is
+  // appended to the header value it builds
+  static CacheControl immutable(CacheControl cacheControl) {
+    return new CacheControl() {
+      @Override
+      public String getHeaderValue() {
+        return cacheControl.getHeaderValue() + ", immutable";
+      }
+    };
+  }
+}
@@ -0,0 +1,49 @@
+package edu.ucsb.cs156.example.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Sizes the Hikari connection pools from app.datasource.pool-size, or, when
+ * that is 0, from app.datasource.db-cores, the core count of the database
+ * server: db-cores * 2 + 1, the starting point the HikariCP pool-sizing
+ * guide gives for a database on SSDs. A bigger pool than that mostly adds
+ * contention in the database. The cores that matter are the database's,
+ * not this container's, so with neither property set the pool keeps
+ * Hikari's own default of 10 (or spring.datasource.hikari.maximum-pool-size).
+ *
+ * Leak detection, statement caching and the other pool settings are plain
+ * spring.datasource.hikari.* properties, set per profile. The actuator
+ * publishes the pool's hikaricp.connections.* metrics on its own.
+ */
+@Slf4j
+@Configuration
+public class HikariPoolConfig {
+
+  @Bean
+  public static BeanPostProcessor hikariPoolSizer(@Value("${app.datasource.pool-size:0}") int poolSize,
+      @Value("${app.datasource.db-cores:0}") int dbCores) {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof HikariDataSource && (poolSize > 0 || dbCores > 0)) {
+          HikariDataSource dataSource = (HikariDataSource) bean;
+          int size = poolSize > 0 ? poolSize : poolSizeFor(dbCores);
+          dataSource.setMaximumPoolSize(size);
+          log.info("Connection pool {} holds up to {} connections", dataSource.getPoolName(), size);
+        }
+        return bean;
+      }
+    };
+  }
+
+  static int poolSizeFor(int dbCores) {
+    return dbCores * 2 + 1;
+  }
+}
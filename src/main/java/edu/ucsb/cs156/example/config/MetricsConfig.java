@@ -0,0 +1,76 @@
+package edu.ucsb.cs156.example.config;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.boot.actuate.metrics.web.servlet.WebMvcTagsContributor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+
+/**
+ * Adds a role tag (admin, user or anonymous) to the http.server.requests
+ * timers that Spring Boot records for every controller method, alongside the
+ * uri, method, status and exception tags it adds itself.
+ *
+ * The timers are tagged after the whole filter chain has run, by which time
+ * Spring Security has cleared the SecurityContext, so the role is captured
+ * into a request attribute by an interceptor while the handler runs.
+ */
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+
+  static final String ROLE_ATTRIBUTE = MetricsConfig.class.getName() + ".role";
+
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    registry.addInterceptor(new HandlerInterceptor() {
+      @Override
+      public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        request.setAttribute(ROLE_ATTRIBUTE, currentRole());
+        return true;
+      }
+    });
+  }
+
+  @Bean
+  public WebMvcTagsContributor roleTagsContributor() {
+    return new WebMvcTagsContributor() {
+      @Override
+      public Iterable<Tag> getTags(HttpServletRequest request, HttpServletResponse response, Object handler,
+          Throwable exception) {
+        Object role = request.getAttribute(ROLE_ATTRIBUTE);
+        return Tags.of("role", role != null ? role.toString() : "none");
+      }
+
+      @Override
+      public Iterable<Tag> getLongRequestTags(HttpServletRequest request, Object handler) {
+        return Tags.empty();
+      }
+    };
+  }
+
+  static String currentRole() {
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+      return "anonymous";
+    }
+    boolean user = false;
+    for (GrantedAuthority authority : authentication.getAuthorities()) {
+      if ("ROLE_ADMIN".equals(authority.getAuthority())) {
+        return "admin";
+      }
+      user |= "ROLE_USER".equals(authority.getAuthority());
+    }
+    return user ? "user" : "anonymous";
+  }
+}
@@ -0,0 +1,86 @@
+package edu.ucsb.cs156.example.config;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * With app.datasource.replica.url set, the app gets a second Hikari pool
+ * on a read replica, configured like the primary's, and its DataSource
+ * becomes a ReplicaRoutingDataSource over the two. GET requests then read
+ * from the replica; writes, and the reads of every other request, use the
+ * primary.
+ *
+ * The routing data source sits behind a LazyConnectionDataSourceProxy, so
+ * that the physical connection is chosen when the first statement runs,
+ * once the transaction's read-only flag is known, not when it begins.
+ */
+@Configuration
+@ConditionalOnExpression("!'${app.datasource.replica.url:}'.isEmpty()")
+public class ReplicaDataSourceConfig {
+
+  @Bean
+  @ConfigurationProperties("spring.datasource.hikari")
+  public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+    return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+  }
+
+  @Bean
+  public HikariDataSource replicaDataSource(@Qualifier("primaryDataSource") HikariDataSource primaryDataSource,
+      @Value("${app.datasource.replica.url}") String url,
+      @Value("${app.datasource.replica.username:${spring.datasource.username:}}") String username,
+      @Value("${app.datasource.replica.password:${spring.datasource.password:}}") String password) {
+    HikariDataSource replica = new HikariDataSource();
+    primaryDataSource.copyStateTo(replica);
+    replica.setJdbcUrl(url);
+    replica.setUsername(username);
+    replica.setPassword(password);
+    replica.setPoolName("replica");
+    replica.setReadOnly(true);
+    return replica;
+  }
+
+  @Bean
+  public ReplicaRoutingDataSource replicaRoutingDataSource(
+      @Qualifier("primaryDataSource") HikariDataSource primaryDataSource,
+      @Qualifier("replicaDataSource") HikariDataSource replicaDataSource,
+      @Value("${app.datasource.replica.lag-query}") String lagQuery,
+      @Value("${app.datasource.replica.max-lag:2s}") Duration maxLag,
+      @Value("${app.datasource.replica.check-interval:1s}") Duration checkInterval,
+      ObjectProvider<MeterRegistry> meterRegistry) {
+    ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource,
+        lagQuery, maxLag, checkInterval);
+    meterRegistry.ifAvailable(registry -> {
+      Gauge.builder("app.datasource.replica.lag", routing, ReplicaRoutingDataSource::getLagSeconds)
+          .baseUnit("seconds")
+          .description("How far the read replica is behind the primary, as of the last check")
+          .register(registry);
+      Gauge.builder("app.datasource.replica.in.sync", routing, r -> r.isReplicaInSync() ? 1 : 0)
+          .description("1 while read-only transactions are routed to the replica, 0 while they use the primary")
+          .register(registry);
+    });
+    return routing;
+  }
+
+  @Bean
+  @Primary
+  public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+    return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+  }
+}
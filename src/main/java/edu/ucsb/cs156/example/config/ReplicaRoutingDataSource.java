@@ -0,0 +1,160 @@
+package edu.ucsb.cs156.example.config;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletResponse;
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.util.WebUtils;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Sends the statements run while handling a GET request, outside any
+ * read-write transaction, to the replica, and everything else to the
+ * primary. A PUT or DELETE handler that loads a row before changing it
+ * therefore reads it from the primary, even when the load runs in Spring
+ * Data's read-only transaction.
+ *
+ * Reads fall back to the primary while the replica is unreachable, not
+ * streaming, or more than maxLag behind, as measured by lagQuery every
+ * checkInterval. A read-write transaction also sets a cookie that keeps
+ * that browser's reads on the primary for maxLag, so a user sees their
+ * own writes without sending everyone else's reads to the primary too.
+ *
+ * A GET reads its table version (see TableVersionService) from the same
+ * replica before its rows, so an ETag is never paired with rows older than
+ * the version it names.
+ */
+@Slf4j
+class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+  enum Route {
+    PRIMARY, REPLICA
+  }
+
+  static final String READ_PRIMARY_COOKIE = "read-primary";
+
+  private final DataSource replica;
+  private final String lagQuery;
+  private final long maxLagNanos;
+  private final Duration checkInterval;
+  private final ScheduledExecutorService lagChecks = Executors.newSingleThreadScheduledExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "replica-lag-check");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  private volatile boolean replicaInSync = false;
+  private volatile double lagSeconds = Double.NaN;
+
+  ReplicaRoutingDataSource(DataSource primary, DataSource replica, String lagQuery, Duration maxLag,
+      Duration checkInterval) {
+    this.replica = replica;
+    this.lagQuery = lagQuery;
+    this.maxLagNanos = maxLag.toNanos();
+    this.checkInterval = checkInterval;
+    setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+    setDefaultTargetDataSource(primary);
+  }
+
+  @Override
+  public void afterPropertiesSet() {
+    super.afterPropertiesSet();
+    lagChecks.scheduleWithFixedDelay(this::checkLag, 0, checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public void close() {
+    lagChecks.shutdownNow();
+  }
+
+  @Override
+  protected Route determineCurrentLookupKey() {
+    ServletRequestAttributes attributes = RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes servlet
+        ? servlet
+        : null;
+    if (TransactionSynchronizationManager.isActualTransactionActive()
+        && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+      if (attributes != null) {
+        readFromPrimaryForMaxLag(attributes);
+      }
+      return Route.PRIMARY;
+    }
+    if (attributes == null
+        || !"GET".equals(attributes.getRequest().getMethod())
+        || !replicaInSync
+        || WebUtils.getCookie(attributes.getRequest(), READ_PRIMARY_COOKIE) != null) {
+      return Route.PRIMARY;
+    }
+    return Route.REPLICA;
+  }
+
+  private void readFromPrimaryForMaxLag(ServletRequestAttributes attributes) {
+    HttpServletResponse response = attributes.getResponse();
+    if (response == null || attributes.getAttribute(READ_PRIMARY_COOKIE, RequestAttributes.SCOPE_REQUEST) != null) {
+      return;
+    }
+    attributes.setAttribute(READ_PRIMARY_COOKIE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+    Cookie cookie = new Cookie(READ_PRIMARY_COOKIE, "1");
+    cookie.setPath("/");
+    cookie.setHttpOnly(true);
+    cookie.setMaxAge((int) Duration.ofNanos(maxLagNanos).plusNanos(999_999_999).toSeconds());
+    response.addCookie(cookie);
+  }
+
+  boolean isReplicaInSync() {
+    return replicaInSync;
+  }
+
+  double getLagSeconds() {
+    return lagSeconds;
+  }
+
+  void checkLag() {
+    boolean inSync;
+    try (Connection connection = replica.getConnection();
+        Statement statement = connection.createStatement();
+        ResultSet result = statement.executeQuery(lagQuery)) {
+      lagSeconds = lag(result);
+      inSync = lagSeconds * 1e9 <= maxLagNanos;
+      if (!inSync && replicaInSync) {
+        log.warn("Replica is {} s behind the primary, or not streaming; reading from the primary until it catches up",
+            lagSeconds);
+      }
+    } catch (SQLException | RuntimeException e) {
+      lagSeconds = Double.NaN;
+      inSync = false;
+      if (replicaInSync) {
+        log.warn("Replica lag check failed; reading from the primary until it succeeds", e);
+      }
+    }
+    if (inSync && !replicaInSync) {
+      log.info("Replica is in sync ({} s behind); routing GET reads to it", lagSeconds);
+    }
+    replicaInSync = inSync;
+  }
+
+  // NaN, which is never in sync, when the query returns no row or null
+  private static double lag(ResultSet result) throws SQLException {
+    if (!result.next()) {
+      return Double.NaN;
+    }
+    double lag = result.getDouble(1);
+    return result.wasNull() ? Double.NaN : lag;
+  }
+}
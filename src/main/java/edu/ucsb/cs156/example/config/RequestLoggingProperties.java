@@ -0,0 +1,37 @@
+package edu.ucsb.cs156.example.config;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+/**
+ * Settings for the one-line-per-request log written by LoggingAspect, read
+ * from app.request-logging.* in application.properties.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.request-logging")
+public class RequestLoggingProperties {
+
+  /** Turns request logging off entirely. */
+  private boolean enabled = true;
+
+  /** Fully qualified names of controllers whose requests are never logged. */
+  private Set<String> stoplist = new HashSet<>();
+
+  /** Fraction of requests logged, from 0 (none) to 1 (all), where no rate below applies. */
+  private double defaultSampleRate = 1.0;
+
+  /**
+   * Per-endpoint overrides of defaultSampleRate, keyed by the controller's
+   * simple name and handler method ("UCSBDatesController.allUCSBDates") or
+   * by the simple name alone for a whole controller.
+   */
+  private Map<String, Double> sampleRates = new HashMap<>();
+}
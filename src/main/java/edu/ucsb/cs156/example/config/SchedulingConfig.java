@@ -0,0 +1,13 @@
+package edu.ucsb.cs156.example.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Turns on Spring's @Scheduled support, used by TableVersionService to pick
+ * up writes made by other instances.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,115 @@
+package edu.ucsb.cs156.example.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+/**
+ * Answers the client-side routes of the React app (any GET that is not a
+ * backend path and whose last segment has no file extension) with
+ * index.html, before the request reaches the DispatcherServlet. A request
+ * for /index.html itself is answered the same way, so it gets the same
+ * caching headers rather than the static resource handler's.
+ *
+ * API calls are recognized by their prefix without any pattern matching;
+ * the remaining backend paths are precompiled PathPatterns. index.html is
+ * read once and served from memory with no-cache and an ETag, since it
+ * names the current bundle and only changes with a new build. The ETag is
+ * weak: a proxy that compresses the response keeps the same tag.
+ */
+@Profile("!development")
+@Component
+public class SpaFallbackFilter extends OncePerRequestFilter {
+
+  private static final List<PathPattern> BACKEND_PATHS = Stream.of(
+      "/oauth2/**", "/login/**", "/logout", "/csrf", "/error",
+      "/swagger-ui/**", "/v3/api-docs/**", "/h2-console/**", "/actuator/**")
+      .map(PathPatternParser.defaultInstance::parse)
+      .collect(Collectors.toUnmodifiableList());
+
+  private static final String INDEX_HTML = "/index.html";
+
+  @Value("classpath:/public/index.html")
+  private Resource indexHtml;
+
+  private volatile byte[] index;
+  private volatile String indexETag;
+
+  static boolean isFrontendPath(String path) {
+    if (path.startsWith("/api/") || path.equals("/api")) {
+      return false;
+    }
+    if (path.equals(INDEX_HTML)) {
+      return true;
+    }
+    if (path.indexOf('.', path.lastIndexOf('/')) >= 0) {
+      return false;
+    }
+    PathContainer container = PathContainer.parsePath(path);
+    for (PathPattern pattern : BACKEND_PATHS) {
+      if (pattern.matches(container)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    String method = request.getMethod();
+    if (!"GET".equals(method) && !"HEAD".equals(method)) {
+      return true;
+    }
+    String path = request.getRequestURI().substring(request.getContextPath().length());
+    return !isFrontendPath(path);
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+      throws ServletException, IOException {
+    if (index == null) {
+      loadIndex();
+    }
+    if (new ServletWebRequest(request, response).checkNotModified(indexETag)) {
+      return;
+    }
+    response.setContentType(MediaType.TEXT_HTML_VALUE);
+    response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+    response.setHeader(HttpHeaders.ETAG, indexETag);
+    response.setContentLength(index.length);
+    if ("GET".equals(request.getMethod())) {
+      response.getOutputStream().write(index);
+    }
+  }
+
+  private synchronized void loadIndex() throws IOException {
+    if (index == null) {
+      try (InputStream in = indexHtml.getInputStream()) {
+        byte[] contents = in.readAllBytes();
+        indexETag = "W/\"" + DigestUtils.md5DigestAsHex(contents) + "\"";
+        index = contents;
+      }
+    }
+  }
+}
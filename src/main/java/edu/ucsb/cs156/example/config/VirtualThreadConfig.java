@@ -0,0 +1,70 @@
+package edu.ucsb.cs156.example.config;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * With app.virtual-threads.enabled=true, Tomcat runs each request on its
+ * own virtual thread instead of a thread from its pool of 200, so requests
+ * blocked on JDBC no longer hold a platform thread each. Repository calls
+ * run on the request's thread, so they are covered too; the Hikari pool
+ * still bounds how many talk to the database at once.
+ *
+ * Before JDK 24, a virtual thread that blocks inside a synchronized block
+ * or method stays pinned to its carrier thread, and there are only as many
+ * carriers as cores. The JDBC path has several: H2 and the Postgres driver
+ * before 42.6 do their I/O while holding monitors, and so does Tomcat 9's
+ * connector when it writes a response. Under load, requests can then queue
+ * for carriers instead of for connections, and virtual threads can do
+ * worse than the platform pool. Compare both with RequestExecutorBenchmark
+ * (work=handler) before turning this on, and run with
+ * -Djdk.tracePinnedThreads=short (or =full) to log every pinned block.
+ *
+ * The app is built for Java 17, so the JDK 21 factory method is looked up
+ * reflectively; on an older JDK this logs a warning and Tomcat keeps its
+ * usual pool.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "app.virtual-threads.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+  private ExecutorService executor;
+
+  @Bean
+  public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+    return protocolHandler -> newVirtualThreadPerTaskExecutor().ifPresentOrElse(
+        executor -> {
+          this.executor = executor;
+          protocolHandler.setExecutor(executor);
+          log.info("Handling requests on virtual threads");
+        },
+        () -> log.warn("app.virtual-threads.enabled is set, but Java {} has no virtual threads; "
+            + "using Tomcat's thread pool", Runtime.version().feature()));
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    if (executor != null) {
+      executor.shutdown();
+    }
+  }
+
+  static Optional<ExecutorService> newVirtualThreadPerTaskExecutor() {
+    try {
+      return Optional.of((ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null));
+    } catch (ReflectiveOperationException e) {
+      return Optional.empty();
+    }
+  }
+}
@@ -5,26 +5,103 @@ import org.springframework.beans.factory.annotation.Autowired;
 
 import edu.ucsb.cs156.example.models.CurrentUser;
 import edu.ucsb.cs156.example.services.CurrentUserService;
+import edu.ucsb.cs156.example.services.JsonCacheService;
+import edu.ucsb.cs156.example.services.ReadService;
+import edu.ucsb.cs156.example.services.TableVersionService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.Map;
+import java.util.function.Supplier;
 
 @Slf4j
 public abstract class ApiController {
   @Autowired
   private CurrentUserService currentUserService;
 
+  @Autowired
+  protected TableVersionService tableVersionService;
+
+  @Autowired
+  private JsonCacheService jsonCacheService;
+
+  @Autowired
+  private ReadService readService;
+
   protected CurrentUser getCurrentUser() {
     return currentUserService.getCurrentUser();
   }
 
+  // Runs query in a read-only transaction, so the entities it loads skip
+  // Hibernate's dirty checking.
+  protected <T> T read(Supplier<T> query) {
+    return readService.read(query);
+  }
+
   protected Object genericMessage(String message) {
     return Map.of("message", message);
   }
 
+  protected static final int MAX_PAGE_SIZE = 100;
+
+  protected int pageSize(int requested) {
+    return Math.max(1, Math.min(requested, MAX_PAGE_SIZE));
+  }
+
+  // Fetch one row past the end of the page so CursorPage.of can tell
+  // whether there is a next page without a separate count query.
+  protected Pageable keysetPage(int pageSize, String... keyProperties) {
+    return PageRequest.of(0, pageSize + 1, Sort.by(keyProperties));
+  }
+
+  protected static final int MAX_BATCH_SIZE = 1000;
+
+  protected void checkBatchSize(int size) {
+    if (size > MAX_BATCH_SIZE) {
+      throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+          "at most %d items per batch".formatted(MAX_BATCH_SIZE));
+    }
+  }
+
+  // Answers 304 with no body when the client already holds this etag, so the
+  // query behind body only runs (in a read-only transaction) when something
+  // actually changed. Returning null tells Spring MVC the response has
+  // already been handled.
+  protected <T> ResponseEntity<T> conditionalGet(WebRequest request, String etag, Supplier<T> body) {
+    if (request.checkNotModified(etag)) {
+      return null;
+    }
+    return okWithETag(etag).body(read(body));
+  }
+
+  // As conditionalGet, but the body is serialized once per etag and then
+  // served from JsonCacheService, so a repeated read costs neither a query
+  // nor any Jackson work.
+  protected ResponseEntity<byte[]> conditionalGetJson(WebRequest request, String etag, Supplier<?> body) {
+    if (request.checkNotModified(etag)) {
+      return null;
+    }
+    return okWithETag(etag)
+        .contentType(MediaType.APPLICATION_JSON)
+        .body(jsonCacheService.json(etag, () -> read(body)));
+  }
+
+  private ResponseEntity.BodyBuilder okWithETag(String etag) {
+    return ResponseEntity.ok()
+        .eTag(etag)
+        .cacheControl(CacheControl.noCache().cachePrivate());
+  }
+
   @ExceptionHandler({ EntityNotFoundException.class })
   @ResponseStatus(HttpStatus.NOT_FOUND)
   public Object handleGenericException(Throwable e) {
@@ -0,0 +1,48 @@
+package edu.ucsb.cs156.example.controllers;
+
+import edu.ucsb.cs156.example.models.CacheRegionStats;
+import edu.ucsb.cs156.example.services.HibernateCacheService;
+import edu.ucsb.cs156.example.services.JsonCacheService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@Tag(name = "Entity cache (admin only)")
+@RequestMapping("/api/admin/cache")
+@RestController
+@Slf4j
+public class CacheController extends ApiController {
+
+    @Autowired
+    HibernateCacheService hibernateCacheService;
+
+    @Autowired
+    JsonCacheService jsonCacheService;
+
+    @Operation(summary= "Get hit, miss and put counts for each second-level cache region")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping("")
+    public List<CacheRegionStats> cacheStatistics() {
+        return hibernateCacheService.statistics();
+    }
+
+    @Operation(summary= "Evict everything from the second-level cache and the cached JSON responses, and change every ETag")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @DeleteMapping("")
+    public Object evictCache() {
+        hibernateCacheService.evictAll();
+        jsonCacheService.evictAll();
+        tableVersionService.bumpAll();
+        return genericMessage("Second-level cache and JSON responses evicted");
+    }
+}
@@ -5,14 +5,10 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
 
+// Client-side routes are answered with index.html by SpaFallbackFilter
 @Profile("!development")
 @Controller
 public class FrontendController {
-  @GetMapping("/**/{path:[^\\.]*}")
-  public String index() {
-    return "forward:/index.html";
-  }
-
   @GetMapping("/csrf")
   public ResponseEntity<String> csrf() {
     return ResponseEntity.notFound().build();
@@ -0,0 +1,55 @@
+package edu.ucsb.cs156.example.controllers;
+
+import edu.ucsb.cs156.example.entities.MenuItemRatingSummary;
+import edu.ucsb.cs156.example.models.RatedMenuItem;
+import edu.ucsb.cs156.example.services.MenuItemRatingService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@Tag(name = "MenuItemRatings")
+@RequestMapping("/api/menuitemratings")
+@RestController
+@Slf4j
+public class MenuItemRatingsController extends ApiController {
+
+    @Autowired
+    MenuItemRatingService menuItemRatingService;
+
+    @Operation(summary= "Get the rating summary (review count, average and histogram) of a menu item")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping("")
+    public MenuItemRatingSummary getRating(
+            @Parameter(name="itemId") @RequestParam Long itemId) {
+        return menuItemRatingService.summaryFor(itemId);
+    }
+
+    @Operation(summary= "List the highest rated menu items of a dining commons")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping("/top")
+    public List<RatedMenuItem> topRated(
+            @Parameter(name="diningCommonsCode") @RequestParam String diningCommonsCode,
+            @Parameter(name="n", description="number of items, at most 100") @RequestParam(defaultValue="10") int n) {
+        return menuItemRatingService.topRated(diningCommonsCode, pageSize(n));
+    }
+
+    @Operation(summary= "Recompute every rating summary from the reviews")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PostMapping("/rebuild")
+    public Object rebuildRatings() {
+        int items = menuItemRatingService.rebuild();
+        return genericMessage("Rebuilt ratings for %d menu items".formatted(items));
+    }
+}
@@ -1,7 +1,13 @@
 package edu.ucsb.cs156.example.controllers;
 
 import edu.ucsb.cs156.example.entities.MenuItemReview;
+import edu.ucsb.cs156.example.models.CursorPage;
+import edu.ucsb.cs156.example.models.ReviewDateCursor;
+import edu.ucsb.cs156.example.models.BatchItemResult;
 import edu.ucsb.cs156.example.repositories.MenuItemReviewRepository;
+import edu.ucsb.cs156.example.services.BatchService;
+import edu.ucsb.cs156.example.services.JsonStreamingService;
+import edu.ucsb.cs156.example.services.MenuItemRatingService;
 import edu.ucsb.cs156.example.errors.EntityNotFoundException;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -13,6 +19,7 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -22,8 +29,14 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 
+import java.io.IOException;
+import java.util.List;
+
 
 import java.time.LocalDateTime;
 
@@ -36,23 +49,104 @@ public class MenuItemReviewController extends ApiController {
     @Autowired
     MenuItemReviewRepository menuItemReviewRepository;
 
+    @Autowired
+    BatchService batchService;
+
+    @Autowired
+    JsonStreamingService jsonStreamingService;
+
+    @Autowired
+    MenuItemRatingService menuItemRatingService;
+
     @Operation(summary= "List all menu item reviews")
     @PreAuthorize("hasRole('ROLE_USER')")
     @GetMapping("/all")
-    public Iterable<MenuItemReview> allReviews() {
-        Iterable<MenuItemReview> reviews = menuItemReviewRepository.findAll();
-        return reviews;
+    public ResponseEntity<byte[]> allReviews(WebRequest request) {
+        return conditionalGetJson(request, tableVersionService.etag(MenuItemReview.class),
+                () -> menuItemReviewRepository.findAll());
+    }
+
+    @Operation(summary= "List menu item reviews a page at a time, ordered by id")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping("/page")
+    public CursorPage<MenuItemReview, Long> pageReviews(
+            @Parameter(name="after", description="id of the last MenuItemReview on the previous page; omit for the first page") @RequestParam(defaultValue="0") Long after,
+            @Parameter(name="size", description="page size, at most 100") @RequestParam(defaultValue="20") int size) {
+        int pageSize = pageSize(size);
+        List<MenuItemReview> reviews = read(() -> menuItemReviewRepository.findByIdGreaterThan(after, keysetPage(pageSize, "id")));
+        return CursorPage.of(reviews, pageSize, MenuItemReview::getId);
+    }
+
+    @Operation(summary= "List the reviews of one menu item a page at a time, ordered by id")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping("/byItem")
+    public CursorPage<MenuItemReview, Long> reviewsByItem(
+            @Parameter(name="itemId") @RequestParam long itemId,
+            @Parameter(name="after", description="id of the last MenuItemReview on the previous page; omit for the first page") @RequestParam(defaultValue="0") Long after,
+            @Parameter(name="size", description="page size, at most 100") @RequestParam(defaultValue="20") int size) {
+        int pageSize = pageSize(size);
+        List<MenuItemReview> reviews = read(() -> menuItemReviewRepository.findByItemIdAndIdGreaterThan(itemId, after, keysetPage(pageSize, "id")));
+        return CursorPage.of(reviews, pageSize, MenuItemReview::getId);
+    }
+
+    @Operation(summary= "List the reviews written by one reviewer a page at a time, ordered by id")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping("/byReviewer")
+    public CursorPage<MenuItemReview, Long> reviewsByReviewer(
+            @Parameter(name="reviewerEmail") @RequestParam String reviewerEmail,
+            @Parameter(name="after", description="id of the last MenuItemReview on the previous page; omit for the first page") @RequestParam(defaultValue="0") Long after,
+            @Parameter(name="size", description="page size, at most 100") @RequestParam(defaultValue="20") int size) {
+        int pageSize = pageSize(size);
+        List<MenuItemReview> reviews = read(() -> menuItemReviewRepository.findByReviewerEmailAndIdGreaterThan(reviewerEmail, after, keysetPage(pageSize, "id")));
+        return CursorPage.of(reviews, pageSize, MenuItemReview::getId);
+    }
+
+    @Operation(summary= "List the reviews with a star rating in a range a page at a time, ordered by id")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping("/byStars")
+    public CursorPage<MenuItemReview, Long> reviewsByStars(
+            @Parameter(name="minStars", description="lowest rating included") @RequestParam(defaultValue="1") int minStars,
+            @Parameter(name="maxStars", description="highest rating included") @RequestParam(defaultValue="5") int maxStars,
+            @Parameter(name="after", description="id of the last MenuItemReview on the previous page; omit for the first page") @RequestParam(defaultValue="0") Long after,
+            @Parameter(name="size", description="page size, at most 100") @RequestParam(defaultValue="20") int size) {
+        int pageSize = pageSize(size);
+        List<MenuItemReview> reviews = read(() -> menuItemReviewRepository.findByStarsBetweenAndIdGreaterThan(minStars, maxStars, after, keysetPage(pageSize, "id")));
+        return CursorPage.of(reviews, pageSize, MenuItemReview::getId);
+    }
+
+    @Operation(summary= "List the reviews written in a date window a page at a time, ordered by dateReviewed, then id")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping("/byDateReviewed")
+    public CursorPage<MenuItemReview, ReviewDateCursor> reviewsByDateReviewed(
+            @Parameter(name="from", description="start of the window, inclusive (in iso format, e.g. YYYY-mm-ddTHH:MM:SS)", example="2023-12-01T00:00") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(name="to", description="end of the window, inclusive (in iso format, e.g. YYYY-mm-ddTHH:MM:SS)", example="2023-12-31T23:59") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(name="afterDateReviewed", description="nextCursor.dateReviewed of the previous page; omit for the first page") @RequestParam(required=false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterDateReviewed,
+            @Parameter(name="after", description="nextCursor.id of the previous page; omit for the first page") @RequestParam(defaultValue="0") Long after,
+            @Parameter(name="size", description="page size, at most 100") @RequestParam(defaultValue="20") int size) {
+        int pageSize = pageSize(size);
+        LocalDateTime afterDate = afterDateReviewed == null ? from : afterDateReviewed;
+        long afterId = afterDateReviewed == null ? 0 : after;
+        List<MenuItemReview> reviews = read(() -> menuItemReviewRepository.findByDateReviewedAfter(afterDate, afterId, to, keysetPage(pageSize, "dateReviewed", "id")));
+        return CursorPage.of(reviews, pageSize, review -> new ReviewDateCursor(review.getDateReviewed(), review.getId()));
+    }
+
+    @Operation(summary= "Stream all menu item reviews as one JSON array, without loading the whole table into memory")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping(value = "/all", params = "stream=true")
+    public void streamAllReviews(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        jsonStreamingService.writeJsonArray(menuItemReviewRepository::streamAll, response.getOutputStream());
     }
     
     @Operation(summary= "Get a single review")
     @PreAuthorize("hasRole('ROLE_USER')")
     @GetMapping("")
-    public MenuItemReview getById(
-            @Parameter(name="id") @RequestParam Long id) {
-        MenuItemReview menuItemReview = menuItemReviewRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException(MenuItemReview.class, id));
-
-        return menuItemReview;
+    public ResponseEntity<MenuItemReview> getById(
+            @Parameter(name="id") @RequestParam Long id,
+            WebRequest request) {
+        return conditionalGet(request, tableVersionService.etag(MenuItemReview.class, id),
+                () -> menuItemReviewRepository.findById(id)
+                        .orElseThrow(() -> new EntityNotFoundException(MenuItemReview.class, id)));
     }
 
     @Operation(summary= "Create a new item review")
@@ -74,18 +168,14 @@ public class MenuItemReviewController extends ApiController {
         menuItemReview.setComments(comments);
         menuItemReview.setDateReviewed(dateReviewed);
 
-       MenuItemReview savedMenuItemReview = menuItemReviewRepository.save(menuItemReview);
-       return savedMenuItemReview;
+       return menuItemRatingService.addReview(menuItemReview);
     }
     @Operation(summary= "Delete a review")
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     @DeleteMapping("")
     public Object deleteMenuItemReview(
             @Parameter(name="id") @RequestParam Long id) {
-        MenuItemReview menuItemReview = menuItemReviewRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException(MenuItemReview.class, id));
-
-        menuItemReviewRepository.delete(menuItemReview);
+        menuItemRatingService.removeReview(id);
         return genericMessage("MenuItemReview with id %s deleted".formatted(id));
     }
 
@@ -95,18 +185,47 @@ public class MenuItemReviewController extends ApiController {
     public MenuItemReview updateMenuItemReview(
             @Parameter(name="id") @RequestParam Long id,
             @RequestBody @Valid MenuItemReview incoming) {
+        return menuItemRatingService.updateReview(id, incoming);
+    }
 
-        MenuItemReview menuItemReview = menuItemReviewRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException(MenuItemReview.class, id));
-
-        menuItemReview.setItemId(incoming.getItemId());
-        menuItemReview.setReviewerEmail(incoming.getReviewerEmail());
-        menuItemReview.setStars(incoming.getStars());
-        menuItemReview.setDateReviewed(incoming.getDateReviewed());
-        menuItemReview.setComments(incoming.getComments());
+    @Operation(summary= "Create several item reviews in one transaction")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PostMapping("/batch")
+    public List<BatchItemResult<Long>> postBatchMenuItemReviews(
+            @RequestBody List<MenuItemReview> incoming) {
+        checkBatchSize(incoming.size());
+        incoming.forEach(item -> item.setId(0));
+        return batchService.createAll(menuItemReviewRepository, incoming, MenuItemReview::getId,
+                menuItemRatingService::reviewAdded);
+    }
 
-        menuItemReviewRepository.save(menuItemReview);
+    @Operation(summary= "Update several item reviews in one transaction")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PutMapping("/batch")
+    public List<BatchItemResult<Long>> updateBatchMenuItemReviews(
+            @RequestBody List<MenuItemReview> incoming) {
+        checkBatchSize(incoming.size());
+        return batchService.updateAll(menuItemReviewRepository, menuItemReviewRepository::findAllForUpdate,
+                incoming, MenuItemReview::getId,
+                (stored, update) -> {
+                    long oldItemId = stored.getItemId();
+                    int oldStars = stored.getStars();
+                    stored.setItemId(update.getItemId());
+                    stored.setReviewerEmail(update.getReviewerEmail());
+                    stored.setStars(update.getStars());
+                    stored.setDateReviewed(update.getDateReviewed());
+                    stored.setComments(update.getComments());
+                    menuItemRatingService.reviewChanged(oldItemId, oldStars, stored);
+                });
+    }
 
-        return menuItemReview;
+    @Operation(summary= "Delete several item reviews in one transaction")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @DeleteMapping("/batch")
+    public List<BatchItemResult<Long>> deleteBatchMenuItemReviews(
+            @Parameter(name="ids") @RequestParam List<Long> ids) {
+        checkBatchSize(ids.size());
+        return batchService.deleteAll(menuItemReviewRepository, menuItemReviewRepository::findAllForUpdate,
+                ids, MenuItemReview::getId, menuItemRatingService::reviewRemoved);
     }
-}
\ No newline at end of file
+}
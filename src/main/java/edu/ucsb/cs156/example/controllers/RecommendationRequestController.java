@@ -1,8 +1,13 @@
 package edu.ucsb.cs156.example.controllers;
 
 import edu.ucsb.cs156.example.entities.RecommendationRequest;
+import edu.ucsb.cs156.example.models.CursorPage;
+import edu.ucsb.cs156.example.models.BatchItemResult;
+import edu.ucsb.cs156.example.models.DateNeededCursor;
 import edu.ucsb.cs156.example.errors.EntityNotFoundException;
 import edu.ucsb.cs156.example.repositories.RecommendationRequestRepository;
+import edu.ucsb.cs156.example.services.BatchService;
+import edu.ucsb.cs156.example.services.JsonStreamingService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -13,6 +18,7 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -22,10 +28,17 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 
+import java.io.IOException;
+import java.util.List;
+
 import java.time.LocalDateTime;
+import java.util.function.Function;
 
 @Tag(name = "RecommendationRequest")
 @RequestMapping("/api/RecommendationRequest")
@@ -36,23 +49,91 @@ public class RecommendationRequestController extends ApiController {
     @Autowired
     RecommendationRequestRepository recommendationRequestRepository;
 
+    @Autowired
+    BatchService batchService;
+
+    @Autowired
+    JsonStreamingService jsonStreamingService;
+
+    // The first page of /open and /overdue starts after this, which is
+    // earlier than any date a request can be needed by
+    private static final LocalDateTime BEFORE_ANY_DATE_NEEDED = LocalDateTime.of(1, 1, 1, 0, 0);
+
+    private static final Function<RecommendationRequest, DateNeededCursor> DATE_NEEDED_CURSOR =
+            request -> new DateNeededCursor(request.getDateNeeded(), request.getId());
+
     @Operation(summary= "List all recommendation requests")
     @PreAuthorize("hasRole('ROLE_USER')")
     @GetMapping("/all")
-    public Iterable<RecommendationRequest> allRecommendationRequests() {
-        Iterable<RecommendationRequest> requests = recommendationRequestRepository.findAll();
-        return requests;
+    public ResponseEntity<byte[]> allRecommendationRequests(WebRequest request) {
+        return conditionalGetJson(request, tableVersionService.etag(RecommendationRequest.class),
+                () -> recommendationRequestRepository.findAll());
+    }
+
+    @Operation(summary= "List recommendation requests a page at a time, ordered by id")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping("/page")
+    public CursorPage<RecommendationRequest, Long> pageRecommendationRequests(
+            @Parameter(name="after", description="id of the last RecommendationRequest on the previous page; omit for the first page") @RequestParam(defaultValue="0") Long after,
+            @Parameter(name="size", description="page size, at most 100") @RequestParam(defaultValue="20") int size) {
+        int pageSize = pageSize(size);
+        List<RecommendationRequest> requests = read(() -> recommendationRequestRepository.findByIdGreaterThan(after, keysetPage(pageSize, "id")));
+        return CursorPage.of(requests, pageSize, RecommendationRequest::getId);
+    }
+
+    @Operation(summary= "List a professor's open recommendation requests a page at a time, soonest needed first")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping("/open")
+    public CursorPage<RecommendationRequest, DateNeededCursor> openRecommendationRequests(
+            @Parameter(name="professorEmail") @RequestParam String professorEmail,
+            @Parameter(name="afterDateNeeded", description="nextCursor.dateNeeded of the previous page; omit for the first page") @RequestParam(required=false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterDateNeeded,
+            @Parameter(name="after", description="nextCursor.id of the previous page; omit for the first page") @RequestParam(defaultValue="0") Long after,
+            @Parameter(name="size", description="page size, at most 100") @RequestParam(defaultValue="20") int size) {
+        int pageSize = pageSize(size);
+        LocalDateTime afterDate = afterDateNeeded == null ? BEFORE_ANY_DATE_NEEDED : afterDateNeeded;
+        long afterId = afterDateNeeded == null ? 0 : after;
+        List<RecommendationRequest> requests = read(() -> recommendationRequestRepository.findOpenByProfessorEmailAfter(
+                professorEmail, afterDate, afterId, keysetPage(pageSize, "dateNeeded", "id")));
+        return CursorPage.of(requests, pageSize, DATE_NEEDED_CURSOR);
+    }
+
+    @Operation(summary= "List open recommendation requests whose date needed has passed a page at a time, most overdue first")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping("/overdue")
+    public CursorPage<RecommendationRequest, DateNeededCursor> overdueRecommendationRequests(
+            @Parameter(name="professorEmail", description="only this professor's requests; omit for everyone's") @RequestParam(required=false) String professorEmail,
+            @Parameter(name="afterDateNeeded", description="nextCursor.dateNeeded of the previous page; omit for the first page") @RequestParam(required=false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterDateNeeded,
+            @Parameter(name="after", description="nextCursor.id of the previous page; omit for the first page") @RequestParam(defaultValue="0") Long after,
+            @Parameter(name="size", description="page size, at most 100") @RequestParam(defaultValue="20") int size) {
+        int pageSize = pageSize(size);
+        LocalDateTime afterDate = afterDateNeeded == null ? BEFORE_ANY_DATE_NEEDED : afterDateNeeded;
+        long afterId = afterDateNeeded == null ? 0 : after;
+        LocalDateTime now = LocalDateTime.now();
+        List<RecommendationRequest> requests = professorEmail == null
+                ? read(() -> recommendationRequestRepository.findOverdueAfter(
+                        afterDate, afterId, now, keysetPage(pageSize, "dateNeeded", "id")))
+                : read(() -> recommendationRequestRepository.findOverdueByProfessorEmailAfter(
+                        professorEmail, afterDate, afterId, now, keysetPage(pageSize, "dateNeeded", "id")));
+        return CursorPage.of(requests, pageSize, DATE_NEEDED_CURSOR);
+    }
+
+    @Operation(summary= "Stream all recommendation requests as one JSON array, without loading the whole table into memory")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping(value = "/all", params = "stream=true")
+    public void streamAllRecommendationRequests(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        jsonStreamingService.writeJsonArray(recommendationRequestRepository::streamAll, response.getOutputStream());
     }
 
     @Operation(summary= "Get a single recommendation request")
     @PreAuthorize("hasRole('ROLE_USER')")
     @GetMapping("")
-    public RecommendationRequest getById(
-            @Parameter(name="id") @RequestParam Long id) {
-        RecommendationRequest recommendationRequest = recommendationRequestRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException(RecommendationRequest.class, id));
-
-        return recommendationRequest;
+    public ResponseEntity<RecommendationRequest> getById(
+            @Parameter(name="id") @RequestParam Long id,
+            WebRequest request) {
+        return conditionalGet(request, tableVersionService.etag(RecommendationRequest.class, id),
+                () -> recommendationRequestRepository.findById(id)
+                        .orElseThrow(() -> new EntityNotFoundException(RecommendationRequest.class, id)));
     }
 
     @Operation(summary= "Create a new recommendation request")
@@ -119,4 +200,40 @@ public class RecommendationRequestController extends ApiController {
 
         return recommendationRequest;
     }
+
+    @Operation(summary= "Create several recommendation requests in one transaction")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PostMapping("/batch")
+    public List<BatchItemResult<Long>> postBatchRecommendationRequests(
+            @RequestBody List<RecommendationRequest> incoming) {
+        checkBatchSize(incoming.size());
+        incoming.forEach(item -> item.setId(0));
+        return batchService.createAll(recommendationRequestRepository, incoming, RecommendationRequest::getId);
+    }
+
+    @Operation(summary= "Update several recommendation requests in one transaction")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PutMapping("/batch")
+    public List<BatchItemResult<Long>> updateBatchRecommendationRequests(
+            @RequestBody List<RecommendationRequest> incoming) {
+        checkBatchSize(incoming.size());
+        return batchService.updateAll(recommendationRequestRepository, incoming, RecommendationRequest::getId,
+                (stored, update) -> {
+                    stored.setRequesterEmail(update.getRequesterEmail());
+                    stored.setProfessorEmail(update.getProfessorEmail());
+                    stored.setExplanation(update.getExplanation());
+                    stored.setDateRequested(update.getDateRequested());
+                    stored.setDateNeeded(update.getDateNeeded());
+                    stored.setDone(update.getDone());
+                });
+    }
+
+    @Operation(summary= "Delete several recommendation requests in one transaction")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @DeleteMapping("/batch")
+    public List<BatchItemResult<Long>> deleteBatchRecommendationRequests(
+            @Parameter(name="ids") @RequestParam List<Long> ids) {
+        checkBatchSize(ids.size());
+        return batchService.deleteAll(recommendationRequestRepository, ids, RecommendationRequest::getId);
+    }
 }
@@ -1,8 +1,11 @@
 package edu.ucsb.cs156.example.controllers;
 
 import edu.ucsb.cs156.example.entities.Restaurant;
+import edu.ucsb.cs156.example.models.CursorPage;
+import edu.ucsb.cs156.example.models.BatchItemResult;
 import edu.ucsb.cs156.example.errors.EntityNotFoundException;
 import edu.ucsb.cs156.example.repositories.RestaurantRepository;
+import edu.ucsb.cs156.example.services.BatchService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -18,9 +21,13 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
 
 import javax.validation.Valid;
 
+import java.util.List;
+
 @Tag(name = "Restaurants")
 @RequestMapping("/api/restaurants")
 @RestController
@@ -29,23 +36,37 @@ public class RestaurantsController extends ApiController {
     @Autowired
     RestaurantRepository restaurantRepository;
 
+    @Autowired
+    BatchService batchService;
+
     @Operation(summary = "List all restaurants")
     @PreAuthorize("hasRole('ROLE_USER')")
     @GetMapping("/all")
-    public Iterable<Restaurant> allRestaurants() {
-        Iterable<Restaurant> restaurants = restaurantRepository.findAll();
-        return restaurants;
+    public ResponseEntity<byte[]> allRestaurants(WebRequest request) {
+        return conditionalGetJson(request, tableVersionService.etag(Restaurant.class),
+                () -> restaurantRepository.findAll());
+    }
+
+    @Operation(summary = "List restaurants a page at a time, ordered by id")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping("/page")
+    public CursorPage<Restaurant, Long> pageRestaurants(
+            @Parameter(name = "after", description = "id of the last Restaurant on the previous page; omit for the first page") @RequestParam(defaultValue = "0") Long after,
+            @Parameter(name = "size", description = "page size, at most 100") @RequestParam(defaultValue = "20") int size) {
+        int pageSize = pageSize(size);
+        List<Restaurant> restaurants = read(() -> restaurantRepository.findByIdGreaterThan(after, keysetPage(pageSize, "id")));
+        return CursorPage.of(restaurants, pageSize, Restaurant::getId);
     }
 
     @Operation(summary = "Get a single restaurant")
     @PreAuthorize("hasRole('ROLE_USER')")
     @GetMapping("")
-    public Restaurant getById(
-            @Parameter(name = "id") @RequestParam Long id) {
-        Restaurant restaurant = restaurantRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException(Restaurant.class, id));
-
-        return restaurant;
+    public ResponseEntity<Restaurant> getById(
+            @Parameter(name = "id") @RequestParam Long id,
+            WebRequest request) {
+        return conditionalGet(request, tableVersionService.etag(Restaurant.class, id),
+                () -> restaurantRepository.findById(id)
+                        .orElseThrow(() -> new EntityNotFoundException(Restaurant.class, id)));
     }
 
     @Operation(summary = "Create a new restaurant")
@@ -92,4 +113,36 @@ public class RestaurantsController extends ApiController {
 
         return restaurant;
     }
-}
\ No newline at end of file
+
+    @Operation(summary = "Create several restaurants in one transaction")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PostMapping("/batch")
+    public List<BatchItemResult<Long>> postBatchRestaurants(
+            @RequestBody List<Restaurant> incoming) {
+        checkBatchSize(incoming.size());
+        incoming.forEach(item -> item.setId(0));
+        return batchService.createAll(restaurantRepository, incoming, Restaurant::getId);
+    }
+
+    @Operation(summary = "Update several restaurants in one transaction")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PutMapping("/batch")
+    public List<BatchItemResult<Long>> updateBatchRestaurants(
+            @RequestBody List<Restaurant> incoming) {
+        checkBatchSize(incoming.size());
+        return batchService.updateAll(restaurantRepository, incoming, Restaurant::getId,
+                (stored, update) -> {
+                    stored.setName(update.getName());
+                    stored.setDescription(update.getDescription());
+                });
+    }
+
+    @Operation(summary = "Delete several restaurants in one transaction")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @DeleteMapping("/batch")
+    public List<BatchItemResult<Long>> deleteBatchRestaurants(
+            @Parameter(name = "ids") @RequestParam List<Long> ids) {
+        checkBatchSize(ids.size());
+        return batchService.deleteAll(restaurantRepository, ids, Restaurant::getId);
+    }
+}
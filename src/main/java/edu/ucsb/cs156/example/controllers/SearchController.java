@@ -0,0 +1,46 @@
+package edu.ucsb.cs156.example.controllers;
+
+import edu.ucsb.cs156.example.models.SearchHit;
+import edu.ucsb.cs156.example.services.SearchService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@Tag(name = "Search")
+@RequestMapping("/api/search")
+@RestController
+@Slf4j
+public class SearchController extends ApiController {
+
+    @Autowired
+    SearchService searchService;
+
+    @Operation(summary= "Search restaurants, dining commons menu items and organizations; every word is matched as a prefix")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping("")
+    public List<SearchHit> search(
+            @Parameter(name="q", description="words to search for, e.g. 'burr' or 'pasta ent'") @RequestParam String q,
+            @Parameter(name="n", description="number of results, at most 100") @RequestParam(defaultValue="10") int n) {
+        return searchService.search(q, pageSize(n));
+    }
+
+    @Operation(summary= "Rebuild the search index from the database")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PostMapping("/rebuild")
+    public Object rebuildIndex() {
+        int documents = searchService.rebuild();
+        return genericMessage("Rebuilt search index with %d documents".formatted(documents));
+    }
+}
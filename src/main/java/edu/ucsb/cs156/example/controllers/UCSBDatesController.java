@@ -1,8 +1,11 @@
 package edu.ucsb.cs156.example.controllers;
 
 import edu.ucsb.cs156.example.entities.UCSBDate;
+import edu.ucsb.cs156.example.models.CursorPage;
+import edu.ucsb.cs156.example.models.BatchItemResult;
 import edu.ucsb.cs156.example.errors.EntityNotFoundException;
 import edu.ucsb.cs156.example.repositories.UCSBDateRepository;
+import edu.ucsb.cs156.example.services.BatchService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -22,9 +25,13 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
 
 import javax.validation.Valid;
 
+import java.util.List;
+
 import java.time.LocalDateTime;
 
 @Tag(name = "UCSBDates")
@@ -36,23 +43,37 @@ public class UCSBDatesController extends ApiController {
     @Autowired
     UCSBDateRepository ucsbDateRepository;
 
+    @Autowired
+    BatchService batchService;
+
     @Operation(summary= "List all ucsb dates")
     @PreAuthorize("hasRole('ROLE_USER')")
     @GetMapping("/all")
-    public Iterable<UCSBDate> allUCSBDates() {
-        Iterable<UCSBDate> dates = ucsbDateRepository.findAll();
-        return dates;
+    public ResponseEntity<byte[]> allUCSBDates(WebRequest request) {
+        return conditionalGetJson(request, tableVersionService.etag(UCSBDate.class),
+                () -> ucsbDateRepository.findAll());
+    }
+
+    @Operation(summary= "List ucsb dates a page at a time, ordered by id")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping("/page")
+    public CursorPage<UCSBDate, Long> pageUCSBDates(
+            @Parameter(name="after", description="id of the last UCSBDate on the previous page; omit for the first page") @RequestParam(defaultValue="0") Long after,
+            @Parameter(name="size", description="page size, at most 100") @RequestParam(defaultValue="20") int size) {
+        int pageSize = pageSize(size);
+        List<UCSBDate> dates = read(() -> ucsbDateRepository.findByIdGreaterThan(after, keysetPage(pageSize, "id")));
+        return CursorPage.of(dates, pageSize, UCSBDate::getId);
     }
 
     @Operation(summary= "Get a single date")
     @PreAuthorize("hasRole('ROLE_USER')")
     @GetMapping("")
-    public UCSBDate getById(
-            @Parameter(name="id") @RequestParam Long id) {
-        UCSBDate ucsbDate = ucsbDateRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException(UCSBDate.class, id));
-
-        return ucsbDate;
+    public ResponseEntity<UCSBDate> getById(
+            @Parameter(name="id") @RequestParam Long id,
+            WebRequest request) {
+        return conditionalGet(request, tableVersionService.etag(UCSBDate.class, id),
+                () -> ucsbDateRepository.findById(id)
+                        .orElseThrow(() -> new EntityNotFoundException(UCSBDate.class, id)));
     }
 
     @Operation(summary= "Create a new date")
@@ -109,4 +130,37 @@ public class UCSBDatesController extends ApiController {
 
         return ucsbDate;
     }
+
+    @Operation(summary= "Create several ucsb dates in one transaction")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PostMapping("/batch")
+    public List<BatchItemResult<Long>> postBatchUCSBDates(
+            @RequestBody List<UCSBDate> incoming) {
+        checkBatchSize(incoming.size());
+        incoming.forEach(item -> item.setId(0));
+        return batchService.createAll(ucsbDateRepository, incoming, UCSBDate::getId);
+    }
+
+    @Operation(summary= "Update several ucsb dates in one transaction")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PutMapping("/batch")
+    public List<BatchItemResult<Long>> updateBatchUCSBDates(
+            @RequestBody List<UCSBDate> incoming) {
+        checkBatchSize(incoming.size());
+        return batchService.updateAll(ucsbDateRepository, incoming, UCSBDate::getId,
+                (stored, update) -> {
+                    stored.setQuarterYYYYQ(update.getQuarterYYYYQ());
+                    stored.setName(update.getName());
+                    stored.setLocalDateTime(update.getLocalDateTime());
+                });
+    }
+
+    @Operation(summary= "Delete several ucsb dates in one transaction")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @DeleteMapping("/batch")
+    public List<BatchItemResult<Long>> deleteBatchUCSBDates(
+            @Parameter(name="ids") @RequestParam List<Long> ids) {
+        checkBatchSize(ids.size());
+        return batchService.deleteAll(ucsbDateRepository, ids, UCSBDate::getId);
+    }
 }
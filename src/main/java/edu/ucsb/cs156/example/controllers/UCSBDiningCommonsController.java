@@ -1,8 +1,13 @@
 package edu.ucsb.cs156.example.controllers;
 
 import edu.ucsb.cs156.example.entities.UCSBDiningCommons;
+import edu.ucsb.cs156.example.models.CursorPage;
+import edu.ucsb.cs156.example.models.BatchItemResult;
+import edu.ucsb.cs156.example.models.NearbyDiningCommons;
 import edu.ucsb.cs156.example.errors.EntityNotFoundException;
 import edu.ucsb.cs156.example.repositories.UCSBDiningCommonsRepository;
+import edu.ucsb.cs156.example.services.BatchService;
+import edu.ucsb.cs156.example.services.DiningCommonsLocationService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -10,6 +15,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -19,9 +25,14 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
 
 import javax.validation.Valid;
 
+import java.util.List;
+
 @Tag(name = "UCSBDiningCommons")
 @RequestMapping("/api/ucsbdiningcommons")
 @RestController
@@ -31,23 +42,53 @@ public class UCSBDiningCommonsController extends ApiController {
     @Autowired
     UCSBDiningCommonsRepository ucsbDiningCommonsRepository;
 
+    @Autowired
+    BatchService batchService;
+
+    @Autowired
+    DiningCommonsLocationService diningCommonsLocationService;
+
     @Operation(summary= "List all ucsb dining commons")
     @PreAuthorize("hasRole('ROLE_USER')")
     @GetMapping("/all")
-    public Iterable<UCSBDiningCommons> allCommonss() {
-        Iterable<UCSBDiningCommons> commons = ucsbDiningCommonsRepository.findAll();
-        return commons;
+    public ResponseEntity<byte[]> allCommonss(WebRequest request) {
+        return conditionalGetJson(request, tableVersionService.etag(UCSBDiningCommons.class),
+                () -> ucsbDiningCommonsRepository.findAll());
+    }
+
+    @Operation(summary= "List ucsb dining commons a page at a time, ordered by code")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping("/page")
+    public CursorPage<UCSBDiningCommons, String> pageCommonss(
+            @Parameter(name="after", description="code of the last UCSBDiningCommons on the previous page; omit for the first page") @RequestParam(defaultValue="") String after,
+            @Parameter(name="size", description="page size, at most 100") @RequestParam(defaultValue="20") int size) {
+        int pageSize = pageSize(size);
+        List<UCSBDiningCommons> commons = read(() -> ucsbDiningCommonsRepository.findByCodeGreaterThan(after, keysetPage(pageSize, "code")));
+        return CursorPage.of(commons, pageSize, UCSBDiningCommons::getCode);
+    }
+
+    @Operation(summary= "List the dining commons nearest to a point, closest first")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping("/nearest")
+    public List<NearbyDiningCommons> nearestCommons(
+            @Parameter(name="lat", description="latitude in degrees, e.g. 34.4140") @RequestParam double lat,
+            @Parameter(name="lon", description="longitude in degrees, e.g. -119.8489") @RequestParam double lon,
+            @Parameter(name="k", description="number of commons, at most 100") @RequestParam(defaultValue="3") int k) {
+        if (!(Math.abs(lat) <= 90 && Math.abs(lon) <= 180)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "lat must be within 90 and lon within 180 degrees of 0");
+        }
+        return diningCommonsLocationService.nearest(lat, lon, pageSize(k));
     }
 
     @Operation(summary= "Get a single commons")
     @PreAuthorize("hasRole('ROLE_USER')")
     @GetMapping("")
-    public UCSBDiningCommons getById(
-            @Parameter(name="code") @RequestParam String code) {
-        UCSBDiningCommons commons = ucsbDiningCommonsRepository.findById(code)
-                .orElseThrow(() -> new EntityNotFoundException(UCSBDiningCommons.class, code));
-
-        return commons;
+    public ResponseEntity<UCSBDiningCommons> getById(
+            @Parameter(name="code") @RequestParam String code,
+            WebRequest request) {
+        return conditionalGet(request, tableVersionService.etag(UCSBDiningCommons.class, code),
+                () -> ucsbDiningCommonsRepository.findById(code)
+                        .orElseThrow(() -> new EntityNotFoundException(UCSBDiningCommons.class, code)));
     }
 
     @Operation(summary= "Create a new commons")
@@ -112,4 +153,39 @@ public class UCSBDiningCommonsController extends ApiController {
 
         return commons;
     }
+
+    @Operation(summary= "Create several commons in one transaction")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PostMapping("/batch")
+    public List<BatchItemResult<String>> postBatchCommons(
+            @RequestBody List<UCSBDiningCommons> incoming) {
+        checkBatchSize(incoming.size());
+        return batchService.createAllWithAssignedIds(ucsbDiningCommonsRepository, incoming, UCSBDiningCommons::getCode);
+    }
+
+    @Operation(summary= "Update several commons in one transaction")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PutMapping("/batch")
+    public List<BatchItemResult<String>> updateBatchCommons(
+            @RequestBody List<UCSBDiningCommons> incoming) {
+        checkBatchSize(incoming.size());
+        return batchService.updateAll(ucsbDiningCommonsRepository, incoming, UCSBDiningCommons::getCode,
+                (stored, update) -> {
+                    stored.setName(update.getName());
+                    stored.setHasSackMeal(update.getHasSackMeal());
+                    stored.setHasTakeOutMeal(update.getHasTakeOutMeal());
+                    stored.setHasDiningCam(update.getHasDiningCam());
+                    stored.setLatitude(update.getLatitude());
+                    stored.setLongitude(update.getLongitude());
+                });
+    }
+
+    @Operation(summary= "Delete several commons in one transaction")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @DeleteMapping("/batch")
+    public List<BatchItemResult<String>> deleteBatchCommons(
+            @Parameter(name="codes") @RequestParam List<String> codes) {
+        checkBatchSize(codes.size());
+        return batchService.deleteAll(ucsbDiningCommonsRepository, codes, UCSBDiningCommons::getCode);
+    }
 }
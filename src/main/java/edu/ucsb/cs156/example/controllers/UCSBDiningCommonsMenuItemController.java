@@ -1,8 +1,11 @@
 package edu.ucsb.cs156.example.controllers;
 
 import edu.ucsb.cs156.example.entities.UCSBDiningCommonsMenuItem;
+import edu.ucsb.cs156.example.models.CursorPage;
+import edu.ucsb.cs156.example.models.BatchItemResult;
 import edu.ucsb.cs156.example.errors.EntityNotFoundException;
 import edu.ucsb.cs156.example.repositories.UCSBDiningCommonsMenuItemRepository;
+import edu.ucsb.cs156.example.services.BatchService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -22,9 +25,13 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
 
 import javax.validation.Valid;
 
+import java.util.List;
+
 import java.time.LocalDateTime;
 
 @Tag(name = "UCSBDiningCommonsMenuItem")
@@ -35,14 +42,28 @@ public class UCSBDiningCommonsMenuItemController extends ApiController {
     
     @Autowired
     UCSBDiningCommonsMenuItemRepository ucsbDiningCommonsMenuItemRepository;
+
+    @Autowired
+    BatchService batchService;
     
     //issue #7      GET ALL
     @Operation(summary= "List all ucsb dining commons menu items")
     @PreAuthorize("hasRole('ROLE_USER')")
     @GetMapping("/all")
-    public Iterable<UCSBDiningCommonsMenuItem> allCommonsMenuItems() {
-        Iterable<UCSBDiningCommonsMenuItem> items = ucsbDiningCommonsMenuItemRepository.findAll();
-        return items;
+    public ResponseEntity<byte[]> allCommonsMenuItems(WebRequest request) {
+        return conditionalGetJson(request, tableVersionService.etag(UCSBDiningCommonsMenuItem.class),
+                () -> ucsbDiningCommonsMenuItemRepository.findAll());
+    }
+
+    @Operation(summary= "List ucsb dining commons menu items a page at a time, ordered by id")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping("/page")
+    public CursorPage<UCSBDiningCommonsMenuItem, Long> pageCommonsMenuItems(
+            @Parameter(name="after", description="id of the last UCSBDiningCommonsMenuItem on the previous page; omit for the first page") @RequestParam(defaultValue="0") Long after,
+            @Parameter(name="size", description="page size, at most 100") @RequestParam(defaultValue="20") int size) {
+        int pageSize = pageSize(size);
+        List<UCSBDiningCommonsMenuItem> items = read(() -> ucsbDiningCommonsMenuItemRepository.findByIdGreaterThan(after, keysetPage(pageSize, "id")));
+        return CursorPage.of(items, pageSize, UCSBDiningCommonsMenuItem::getId);
     }
 
 
@@ -72,13 +93,12 @@ public class UCSBDiningCommonsMenuItemController extends ApiController {
     @Operation(summary= "Get a single commons menu item")
     @PreAuthorize("hasRole('ROLE_USER')")
     @GetMapping("")
-    public UCSBDiningCommonsMenuItem getById(
-            @Parameter(name="id") @RequestParam Long id) {
-                UCSBDiningCommonsMenuItem commonsMenuItem = ucsbDiningCommonsMenuItemRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException(UCSBDiningCommonsMenuItem.class, id));
-
-        return commonsMenuItem;
-
+    public ResponseEntity<UCSBDiningCommonsMenuItem> getById(
+            @Parameter(name="id") @RequestParam Long id,
+            WebRequest request) {
+        return conditionalGet(request, tableVersionService.etag(UCSBDiningCommonsMenuItem.class, id),
+                () -> ucsbDiningCommonsMenuItemRepository.findById(id)
+                        .orElseThrow(() -> new EntityNotFoundException(UCSBDiningCommonsMenuItem.class, id)));
     }
 
     //issue #9
@@ -115,6 +135,37 @@ public class UCSBDiningCommonsMenuItemController extends ApiController {
         ucsbDiningCommonsMenuItemRepository.delete(commonsMenuItem);
         return genericMessage("UCSBDiningCommonsMenuItem with id %s deleted".formatted(id));
     }
-    
 
-}
\ No newline at end of file
+    @Operation(summary= "Create several menu items in one transaction")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PostMapping("/batch")
+    public List<BatchItemResult<Long>> postBatchUCSBDiningCommonsMenuItems(
+            @RequestBody List<UCSBDiningCommonsMenuItem> incoming) {
+        checkBatchSize(incoming.size());
+        incoming.forEach(item -> item.setId(0));
+        return batchService.createAll(ucsbDiningCommonsMenuItemRepository, incoming, UCSBDiningCommonsMenuItem::getId);
+    }
+
+    @Operation(summary= "Update several menu items in one transaction")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PutMapping("/batch")
+    public List<BatchItemResult<Long>> updateBatchUCSBDiningCommonsMenuItems(
+            @RequestBody List<UCSBDiningCommonsMenuItem> incoming) {
+        checkBatchSize(incoming.size());
+        return batchService.updateAll(ucsbDiningCommonsMenuItemRepository, incoming, UCSBDiningCommonsMenuItem::getId,
+                (stored, update) -> {
+                    stored.setDiningCommonsCode(update.getDiningCommonsCode());
+                    stored.setName(update.getName());
+                    stored.setStation(update.getStation());
+                });
+    }
+
+    @Operation(summary= "Delete several menu items in one transaction")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @DeleteMapping("/batch")
+    public List<BatchItemResult<Long>> deleteBatchUCSBDiningCommonsMenuItems(
+            @Parameter(name="ids") @RequestParam List<Long> ids) {
+        checkBatchSize(ids.size());
+        return batchService.deleteAll(ucsbDiningCommonsMenuItemRepository, ids, UCSBDiningCommonsMenuItem::getId);
+    }
+}
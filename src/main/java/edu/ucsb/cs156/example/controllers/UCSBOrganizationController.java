@@ -1,8 +1,11 @@
 package edu.ucsb.cs156.example.controllers;
 
 import edu.ucsb.cs156.example.entities.UCSBOrganization;
+import edu.ucsb.cs156.example.models.CursorPage;
+import edu.ucsb.cs156.example.models.BatchItemResult;
 import edu.ucsb.cs156.example.errors.EntityNotFoundException;
 import edu.ucsb.cs156.example.repositories.UCSBOrganizationRepository;
+import edu.ucsb.cs156.example.services.BatchService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -21,9 +24,13 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
 
 import javax.validation.Valid;
 
+import java.util.List;
+
 @Tag(name = "UCSBOrganization")
 @RequestMapping("/api/UCSBOrganization")
 @RestController
@@ -32,12 +39,26 @@ public class UCSBOrganizationController extends ApiController {
     @Autowired
     UCSBOrganizationRepository ucsbOrganizationRepository;
 
+    @Autowired
+    BatchService batchService;
+
     @Operation(summary= "List all ucsb organizations")
     @PreAuthorize("hasRole('ROLE_USER')")
     @GetMapping("/all")
-    public Iterable<UCSBOrganization> allUCSBOrganization() {
-        Iterable<UCSBOrganization> orgs = ucsbOrganizationRepository.findAll();
-        return orgs;
+    public ResponseEntity<byte[]> allUCSBOrganization(WebRequest request) {
+        return conditionalGetJson(request, tableVersionService.etag(UCSBOrganization.class),
+                () -> ucsbOrganizationRepository.findAll());
+    }
+
+    @Operation(summary= "List ucsb organizations a page at a time, ordered by orgCode")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping("/page")
+    public CursorPage<UCSBOrganization, String> pageUCSBOrganizations(
+            @Parameter(name="after", description="orgCode of the last UCSBOrganization on the previous page; omit for the first page") @RequestParam(defaultValue="") String after,
+            @Parameter(name="size", description="page size, at most 100") @RequestParam(defaultValue="20") int size) {
+        int pageSize = pageSize(size);
+        List<UCSBOrganization> orgs = read(() -> ucsbOrganizationRepository.findByOrgCodeGreaterThan(after, keysetPage(pageSize, "orgCode")));
+        return CursorPage.of(orgs, pageSize, UCSBOrganization::getOrgCode);
     }
 
     @Operation(summary= "Create a new UCSB organization")
@@ -67,12 +88,12 @@ public class UCSBOrganizationController extends ApiController {
     @Operation(summary= "Get UCSB organization by ID")
     @PreAuthorize("hasRole('ROLE_USER')")
     @GetMapping("")
-    public UCSBOrganization getById(
-            @Parameter(name="orgCode") @RequestParam String orgCode) {
-        UCSBOrganization org = ucsbOrganizationRepository.findById(orgCode)
-                .orElseThrow(() -> new EntityNotFoundException(UCSBOrganization.class, orgCode));
-
-        return org;
+    public ResponseEntity<UCSBOrganization> getById(
+            @Parameter(name="orgCode") @RequestParam String orgCode,
+            WebRequest request) {
+        return conditionalGet(request, tableVersionService.etag(UCSBOrganization.class, orgCode),
+                () -> ucsbOrganizationRepository.findById(orgCode)
+                        .orElseThrow(() -> new EntityNotFoundException(UCSBOrganization.class, orgCode)));
     }
 
     @Operation(summary= "Update an existing UCSB organization")
@@ -106,4 +127,36 @@ public class UCSBOrganizationController extends ApiController {
         ucsbOrganizationRepository.delete(org);
         return genericMessage("UCSBOrganization with id %s deleted".formatted(orgCode));
     }
-}
\ No newline at end of file
+
+    @Operation(summary= "Create several UCSB organizations in one transaction")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PostMapping("/batch")
+    public List<BatchItemResult<String>> postBatchOrgs(
+            @RequestBody List<UCSBOrganization> incoming) {
+        checkBatchSize(incoming.size());
+        return batchService.createAllWithAssignedIds(ucsbOrganizationRepository, incoming, UCSBOrganization::getOrgCode);
+    }
+
+    @Operation(summary= "Update several UCSB organizations in one transaction")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PutMapping("/batch")
+    public List<BatchItemResult<String>> updateBatchOrgs(
+            @RequestBody List<UCSBOrganization> incoming) {
+        checkBatchSize(incoming.size());
+        return batchService.updateAll(ucsbOrganizationRepository, incoming, UCSBOrganization::getOrgCode,
+                (stored, update) -> {
+                    stored.setOrgTranslationShort(update.getOrgTranslationShort());
+                    stored.setOrgTranslation(update.getOrgTranslation());
+                    stored.setInactive(update.getInactive());
+                });
+    }
+
+    @Operation(summary= "Delete several UCSB organizations in one transaction")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @DeleteMapping("/batch")
+    public List<BatchItemResult<String>> deleteBatchOrgs(
+            @Parameter(name="orgCodes") @RequestParam List<String> orgCodes) {
+        checkBatchSize(orgCodes.size());
+        return batchService.deleteAll(ucsbOrganizationRepository, orgCodes, UCSBOrganization::getOrgCode);
+    }
+}
@@ -0,0 +1,30 @@
+package edu.ucsb.cs156.example.entities;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+import org.springframework.beans.factory.annotation.Autowired;
+
+import edu.ucsb.cs156.example.services.DiningCommonsLocationService;
+
+/**
+ * Keeps DiningCommonsLocationService's spatial index in step with writes
+ * to UCSBDiningCommons, whichever code path did the write.
+ */
+public class DiningCommonsLocationListener {
+
+  @Autowired
+  DiningCommonsLocationService diningCommonsLocationService;
+
+  @PostPersist
+  @PostUpdate
+  public void saved(UCSBDiningCommons commons) {
+    diningCommonsLocationService.saved(commons);
+  }
+
+  @PostRemove
+  public void removed(UCSBDiningCommons commons) {
+    diningCommonsLocationService.removed(commons);
+  }
+}
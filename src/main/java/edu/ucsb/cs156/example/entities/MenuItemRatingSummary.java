@@ -0,0 +1,37 @@
+package edu.ucsb.cs156.example.entities;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+/**
+ * Running totals of the reviews of one menu item, kept up to date by
+ * MenuItemRatingService as reviews are written, so that an average rating
+ * never needs a scan of menuitemreview.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity(name = "menuitemratingsummary")
+public class MenuItemRatingSummary {
+  @Id
+  private long itemId;
+
+  private long reviewCount;
+  private long starTotal;
+
+  private long oneStar;
+  private long twoStars;
+  private long threeStars;
+  private long fourStars;
+  private long fiveStars;
+
+  public double getAverageStars() {
+    return reviewCount == 0 ? 0 : (double) starTotal / reviewCount;
+  }
+}
@@ -1,7 +1,11 @@
 package edu.ucsb.cs156.example.entities;
 
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
 import java.time.LocalDateTime;
 
 import javax.persistence.GenerationType;
@@ -17,9 +21,15 @@ import lombok.Builder;
 @NoArgsConstructor
 @Builder
 @Entity(name = "menuitemreview")
+@Table(indexes = {
+    @Index(name = "idx_menuitemreview_item_id", columnList = "itemId, id"),
+    @Index(name = "idx_menuitemreview_reviewer_email", columnList = "reviewerEmail, id"),
+    @Index(name = "idx_menuitemreview_date_reviewed", columnList = "dateReviewed, id") })
+@EntityListeners(TableVersionListener.class)
 public class MenuItemReview {
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "menuitemreview_seq")
+  @SequenceGenerator(name = "menuitemreview_seq", sequenceName = "menuitemreview_seq", allocationSize = 50)
   private long id;
   private long itemId;
   private String reviewerEmail;
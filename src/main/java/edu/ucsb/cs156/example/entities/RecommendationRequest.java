@@ -3,9 +3,13 @@ package edu.ucsb.cs156.example.entities;
 import java.time.LocalDateTime;
 
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
 
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -17,9 +21,14 @@ import lombok.Builder;
 @NoArgsConstructor
 @Builder
 @Entity(name = "RecommendationRequest")
+@Table(indexes = {
+    @Index(name = "idx_recommendationrequest_professor_open", columnList = "professorEmail, done, dateNeeded, id"),
+    @Index(name = "idx_recommendationrequest_open_date_needed", columnList = "done, dateNeeded, id") })
+@EntityListeners(TableVersionListener.class)
 public class RecommendationRequest {
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "recommendation_request_seq")
+  @SequenceGenerator(name = "recommendation_request_seq", sequenceName = "recommendation_request_seq", allocationSize = 50)
   private long id;
 
   private String requesterEmail;
@@ -0,0 +1,30 @@
+package edu.ucsb.cs156.example.entities;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+import org.springframework.beans.factory.annotation.Autowired;
+
+import edu.ucsb.cs156.example.services.SearchService;
+
+/**
+ * Keeps SearchService's index in step with any entity that lists this class
+ * in {@code @EntityListeners}, whichever code path did the write.
+ */
+public class SearchIndexListener {
+
+  @Autowired
+  SearchService searchService;
+
+  @PostPersist
+  @PostUpdate
+  public void saved(Object entity) {
+    searchService.indexed(entity);
+  }
+
+  @PostRemove
+  public void removed(Object entity) {
+    searchService.removed(entity);
+  }
+}
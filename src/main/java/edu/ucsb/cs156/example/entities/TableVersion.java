@@ -0,0 +1,25 @@
+package edu.ucsb.cs156.example.entities;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The change counter of one table, bumped by TableVersionService in the
+ * same transaction as each write to the table. Mapped here so that the
+ * schema (ddl-auto) creates the table; the counters themselves are read
+ * and written with plain SQL.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity(name = "table_versions")
+public class TableVersion {
+  @Id
+  private String tableName;
+
+  private long version;
+}
@@ -0,0 +1,28 @@
+package edu.ucsb.cs156.example.entities;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import edu.ucsb.cs156.example.services.TableVersionService;
+
+/**
+ * Bumps the table version of any entity that lists this class in
+ * {@code @EntityListeners}, whichever code path did the write.
+ * Hibernate obtains the listener from Spring, so it can be autowired.
+ */
+public class TableVersionListener {
+
+  @Autowired
+  TableVersionService tableVersionService;
+
+  @PostPersist
+  @PostUpdate
+  @PostRemove
+  public void changed(Object entity) {
+    tableVersionService.bump(Hibernate.getClass(entity));
+  }
+}
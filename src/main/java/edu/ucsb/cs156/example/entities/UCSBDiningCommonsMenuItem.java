@@ -1,8 +1,12 @@
 package edu.ucsb.cs156.example.entities;
 
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
 import javax.persistence.GeneratedValue;
 
 import lombok.Data;
@@ -15,9 +19,12 @@ import lombok.Builder;
 @NoArgsConstructor
 @Builder
 @Entity(name = "ucsbdiningcommonsmenuitems")
+@Table(indexes = @Index(name = "idx_ucsbdiningcommonsmenuitems_dining_commons_code", columnList = "diningCommonsCode"))
+@EntityListeners({ TableVersionListener.class, SearchIndexListener.class })
 public class UCSBDiningCommonsMenuItem {
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ucsbdiningcommonsmenuitems_seq")
+  @SequenceGenerator(name = "ucsbdiningcommonsmenuitems_seq", sequenceName = "ucsbdiningcommonsmenuitems_seq", allocationSize = 50)
   private long id;
 
   private String diningCommonsCode;
@@ -0,0 +1,29 @@
+package edu.ucsb.cs156.example.entities;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+
+import edu.ucsb.cs156.example.models.UserChangedEvent;
+
+/**
+ * Publishes a UserChangedEvent for every write to a User, whichever code
+ * path did it, so that the cached current user and admin flag are dropped.
+ * The services listen with @TransactionalEventListener, so they evict once
+ * the write has committed.
+ */
+public class UserChangeListener {
+
+  @Autowired
+  ApplicationEventPublisher publisher;
+
+  @PostPersist
+  @PostUpdate
+  @PostRemove
+  public void changed(User user) {
+    publisher.publishEvent(new UserChangedEvent(user.getGoogleSub(), user.getEmail()));
+  }
+}
@@ -0,0 +1,24 @@
+package edu.ucsb.cs156.example.models;
+
+import lombok.Data;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import lombok.Builder;
+import lombok.AccessLevel;
+
+/**
+ * Outcome of one element of a /batch request. index is the element's
+ * position in the request, so results can be matched up even when an
+ * element has no id yet.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Builder
+public class BatchItemResult<K> {
+  public enum Status { CREATED, UPDATED, DELETED, NOT_FOUND, CONFLICT }
+
+  private int index;
+  private K id;
+  private Status status;
+}
@@ -0,0 +1,35 @@
+package edu.ucsb.cs156.example.models;
+
+import lombok.Data;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import lombok.Builder;
+import lombok.AccessLevel;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset-paginated listing. Pass nextCursor back as the
+ * "after" parameter to get the following page; it is null on the last page.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Builder
+public class CursorPage<T, K> {
+  private List<T> content;
+  private K nextCursor;
+
+  /**
+   * Build a page from rows fetched with a limit of size + 1; the extra row,
+   * if present, only tells us that another page exists.
+   */
+  public static <T, K> CursorPage<T, K> of(List<T> rows, int size, Function<T, K> keyOf) {
+    if (rows.size() <= size) {
+      return new CursorPage<>(rows, null);
+    }
+    List<T> content = rows.subList(0, size);
+    return new CursorPage<>(content, keyOf.apply(content.get(size - 1)));
+  }
+}
@@ -0,0 +1,20 @@
+package edu.ucsb.cs156.example.models;
+
+import edu.ucsb.cs156.example.entities.MenuItemRatingSummary;
+import edu.ucsb.cs156.example.entities.UCSBDiningCommonsMenuItem;
+
+import lombok.Data;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import lombok.Builder;
+import lombok.AccessLevel;
+
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Builder
+public class RatedMenuItem {
+  private UCSBDiningCommonsMenuItem item;
+  private MenuItemRatingSummary rating;
+}
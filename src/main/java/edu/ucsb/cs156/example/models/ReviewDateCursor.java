@@ -0,0 +1,22 @@
+package edu.ucsb.cs156.example.models;
+
+import java.time.LocalDateTime;
+
+import lombok.Data;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import lombok.Builder;
+import lombok.AccessLevel;
+
+/**
+ * Where a page of /api/menuitemreview/byDateReviewed ended; pass both
+ * fields back, as afterDateReviewed and after, for the following page.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Builder
+public class ReviewDateCursor {
+  private LocalDateTime dateReviewed;
+  private long id;
+}
@@ -0,0 +1,16 @@
+package edu.ucsb.cs156.example.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Published by TableVersionService when it finds that another instance of
+ * the app has written a table, so that services holding data from that
+ * table in memory can reload it. Writes made by this instance are not
+ * announced this way.
+ */
+@Data
+@AllArgsConstructor
+public class TableChangedElsewhereEvent {
+  private Class<?> table;
+}
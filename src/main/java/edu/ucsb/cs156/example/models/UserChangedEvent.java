@@ -0,0 +1,16 @@
+package edu.ucsb.cs156.example.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Published by UserChangeListener whenever a users row is inserted, updated
+ * or deleted, so that services caching what they know about a user can drop
+ * it.
+ */
+@Data
+@AllArgsConstructor
+public class UserChangedEvent {
+  private String googleSub;
+  private String email;
+}
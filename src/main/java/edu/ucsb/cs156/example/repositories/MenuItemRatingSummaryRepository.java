@@ -0,0 +1,32 @@
+package edu.ucsb.cs156.example.repositories;
+
+import edu.ucsb.cs156.example.entities.MenuItemRatingSummary;
+import edu.ucsb.cs156.example.models.RatedMenuItem;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import javax.persistence.LockModeType;
+
+
+@Repository
+public interface MenuItemRatingSummaryRepository extends CrudRepository<MenuItemRatingSummary, Long> {
+
+  // Locks the row so concurrent review writes for the same item cannot lose an update
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("select s from menuitemratingsummary s where s.itemId = :itemId")
+  Optional<MenuItemRatingSummary> findForUpdate(@Param("itemId") long itemId);
+
+  @Query("select new edu.ucsb.cs156.example.models.RatedMenuItem(i, s)"
+      + " from ucsbdiningcommonsmenuitems i, menuitemratingsummary s"
+      + " where s.itemId = i.id and i.diningCommonsCode = :diningCommonsCode and s.reviewCount > 0"
+      + " order by s.starTotal * 1.0 / s.reviewCount desc, s.reviewCount desc, i.id")
+  List<RatedMenuItem> findTopRated(@Param("diningCommonsCode") String diningCommonsCode, Pageable pageable);
+}
@@ -2,10 +2,72 @@ package edu.ucsb.cs156.example.repositories;
 
 import edu.ucsb.cs156.example.entities.MenuItemReview;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
 
 @Repository
-public interface MenuItemReviewRepository extends CrudRepository<MenuItemReview, Long> {  
-}
\ No newline at end of file
+public interface MenuItemReviewRepository extends CrudRepository<MenuItemReview, Long> {
+  // Locks the row so concurrent edits of one review adjust the rating summaries in turn
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("select r from menuitemreview r where r.id = :id")
+  Optional<MenuItemReview> findForUpdate(@Param("id") long id);
+
+  // As above for the rows of a batch, locked in id order so two batches
+  // sharing rows cannot deadlock
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("select r from menuitemreview r where r.id in :ids order by r.id")
+  List<MenuItemReview> findAllForUpdate(@Param("ids") Collection<Long> ids);
+
+  List<MenuItemReview> findByIdGreaterThan(long id, Pageable pageable);
+
+  // Keyset-paginated filters for /api/menuitemreview/by*; these page by id
+  // within the filter, so pass keysetPage(size, "id")
+  List<MenuItemReview> findByItemIdAndIdGreaterThan(long itemId, long id, Pageable pageable);
+
+  List<MenuItemReview> findByReviewerEmailAndIdGreaterThan(String reviewerEmail, long id, Pageable pageable);
+
+  List<MenuItemReview> findByStarsBetweenAndIdGreaterThan(int minStars, int maxStars, long id, Pageable pageable);
+
+  // Pages through a date window in (dateReviewed, id) order, which
+  // idx_menuitemreview_date_reviewed returns without sorting: the rows after
+  // (afterDate, afterId) up to and including to. Pass
+  // keysetPage(size, "dateReviewed", "id").
+  @Query("select r from menuitemreview r where r.dateReviewed >= :afterDate and r.dateReviewed <= :to"
+      + " and (r.dateReviewed > :afterDate or r.id > :afterId)")
+  List<MenuItemReview> findByDateReviewedAfter(@Param("afterDate") LocalDateTime afterDate, @Param("afterId") long afterId,
+      @Param("to") LocalDateTime to, Pageable pageable);
+
+  // Must be consumed inside a transaction; see JsonStreamingService
+  @QueryHints({
+      @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+      @QueryHint(name = HINT_READONLY, value = "true") })
+  @Query("select r from menuitemreview r")
+  Stream<MenuItemReview> streamAll();
+
+  interface StarCount {
+    long getItemId();
+    int getStars();
+    long getReviews();
+  }
+
+  @Query("select r.itemId as itemId, r.stars as stars, count(r) as reviews from menuitemreview r group by r.itemId, r.stars")
+  List<StarCount> countByItemIdAndStars();
+}
@@ -2,10 +2,53 @@ package edu.ucsb.cs156.example.repositories;
 
 import edu.ucsb.cs156.example.entities.RecommendationRequest;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import javax.persistence.QueryHint;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
 
 @Repository
 public interface RecommendationRequestRepository extends CrudRepository<RecommendationRequest, Long> {
-}
\ No newline at end of file
+  List<RecommendationRequest> findByIdGreaterThan(long id, Pageable pageable);
+
+  // Page through the open (done = false) requests in (dateNeeded, id)
+  // order, which the (professorEmail, done, dateNeeded, id) and (done,
+  // dateNeeded, id) indexes return without sorting: the rows after
+  // (afterDate, afterId), and for the overdue ones only those needed before
+  // now. Requests with no dateNeeded are left out. Pass
+  // keysetPage(size, "dateNeeded", "id").
+  @Query("select r from RecommendationRequest r where r.professorEmail = :professorEmail and r.done = false"
+      + " and r.dateNeeded >= :afterDate and (r.dateNeeded > :afterDate or r.id > :afterId)")
+  List<RecommendationRequest> findOpenByProfessorEmailAfter(@Param("professorEmail") String professorEmail,
+      @Param("afterDate") LocalDateTime afterDate, @Param("afterId") long afterId, Pageable pageable);
+
+  @Query("select r from RecommendationRequest r where r.done = false"
+      + " and r.dateNeeded >= :afterDate and r.dateNeeded < :now and (r.dateNeeded > :afterDate or r.id > :afterId)")
+  List<RecommendationRequest> findOverdueAfter(@Param("afterDate") LocalDateTime afterDate, @Param("afterId") long afterId,
+      @Param("now") LocalDateTime now, Pageable pageable);
+
+  @Query("select r from RecommendationRequest r where r.professorEmail = :professorEmail and r.done = false"
+      + " and r.dateNeeded >= :afterDate and r.dateNeeded < :now and (r.dateNeeded > :afterDate or r.id > :afterId)")
+  List<RecommendationRequest> findOverdueByProfessorEmailAfter(@Param("professorEmail") String professorEmail,
+      @Param("afterDate") LocalDateTime afterDate, @Param("afterId") long afterId, @Param("now") LocalDateTime now,
+      Pageable pageable);
+
+  // Must be consumed inside a transaction; see JsonStreamingService
+  @QueryHints({
+      @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+      @QueryHint(name = HINT_READONLY, value = "true") })
+  @Query("select r from RecommendationRequest r")
+  Stream<RecommendationRequest> streamAll();
+}
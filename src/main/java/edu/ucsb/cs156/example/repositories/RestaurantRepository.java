@@ -2,9 +2,13 @@ package edu.ucsb.cs156.example.repositories;
 
 import edu.ucsb.cs156.example.entities.Restaurant;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface RestaurantRepository extends CrudRepository<Restaurant, Long> {
+  List<Restaurant> findByIdGreaterThan(long id, Pageable pageable);
 }
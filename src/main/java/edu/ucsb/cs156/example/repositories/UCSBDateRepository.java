@@ -2,11 +2,28 @@ package edu.ucsb.cs156.example.repositories;
 
 import edu.ucsb.cs156.example.entities.UCSBDate;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
+import javax.persistence.QueryHint;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
 
 @Repository
 public interface UCSBDateRepository extends CrudRepository<UCSBDate, Long> {
+  // Served from the Hibernate query cache, which drops its entries for
+  // this table whenever the table is written, on any instance (see
+  // TableVersionService)
+  @Override
+  @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+  Iterable<UCSBDate> findAll();
+
+  @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
   Iterable<UCSBDate> findAllByQuarterYYYYQ(String quarterYYYYQ);
-}
\ No newline at end of file
+  List<UCSBDate> findByIdGreaterThan(long id, Pageable pageable);
+}
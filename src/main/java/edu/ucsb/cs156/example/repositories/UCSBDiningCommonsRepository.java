@@ -3,11 +3,34 @@ package edu.ucsb.cs156.example.repositories;
 import edu.ucsb.cs156.example.entities.UCSBDiningCommons;
 
 import org.springframework.beans.propertyeditors.StringArrayPropertyEditor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
+import javax.persistence.QueryHint;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_MODE;
+
 
 @Repository
 public interface UCSBDiningCommonsRepository extends CrudRepository<UCSBDiningCommons, String> {
- 
-}
\ No newline at end of file
+  // Served from the Hibernate query cache, which drops its entries for
+  // this table whenever the table is written, on any instance (see
+  // TableVersionService)
+  @Override
+  @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+  Iterable<UCSBDiningCommons> findAll();
+
+  // Straight from the database, bypassing both caches, for rebuilding the
+  // location index after another instance has written the table
+  @Query("select c from ucsbdiningcommons c")
+  @QueryHints(@QueryHint(name = HINT_CACHE_MODE, value = "IGNORE"))
+  List<UCSBDiningCommons> findAllUncached();
+
+  List<UCSBDiningCommons> findByCodeGreaterThan(String code, Pageable pageable);
+}
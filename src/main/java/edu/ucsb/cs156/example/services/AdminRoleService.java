@@ -0,0 +1,83 @@
+package edu.ucsb.cs156.example.services;
+
+import edu.ucsb.cs156.example.entities.User;
+import edu.ucsb.cs156.example.models.UserChangedEvent;
+import edu.ucsb.cs156.example.repositories.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Decides whether an email belongs to an admin, either because it is listed in
+ * app.admin.emails or because the admin flag is set on the user's row.
+ *
+ * The flags read from the database are cached for app.admin.cacheTtlSeconds,
+ * so repeated logins do not cost a query each. A write to a user on this
+ * instance drops the entry at once (see UserChangeListener); the TTL bounds
+ * how long another instance can go on using a revoked flag.
+ */
+@Slf4j
+@Service("adminRoles")
+public class AdminRoleService {
+
+  @Autowired
+  private UserRepository userRepository;
+
+  private volatile Set<String> adminEmails = Set.of();
+
+  private volatile Cache<String, Boolean> dbAdminFlags = flagCache(60);
+
+  @Value("${app.admin.emails}")
+  void setAdminEmails(List<String> adminEmails) {
+    this.adminEmails = Set.copyOf(adminEmails);
+  }
+
+  @Value("${app.admin.cacheTtlSeconds:60}")
+  void setCacheTtlSeconds(long cacheTtlSeconds) {
+    this.dbAdminFlags = flagCache(cacheTtlSeconds);
+  }
+
+  private static Cache<String, Boolean> flagCache(long ttlSeconds) {
+    return Caffeine.newBuilder().expireAfterWrite(Duration.ofSeconds(ttlSeconds)).build();
+  }
+
+  public boolean isAdminEmail(String email) {
+    return email != null && adminEmails.contains(email);
+  }
+
+  public boolean isAdmin(String email) {
+    if (email == null) {
+      return false;
+    }
+    if (adminEmails.contains(email)) {
+      return true;
+    }
+    return dbAdminFlags.get(email,
+        e -> userRepository.findByEmail(e).map(User::getAdmin).orElse(false));
+  }
+
+  public void invalidate(String email) {
+    if (email != null) {
+      dbAdminFlags.invalidate(email);
+    }
+  }
+
+  public void invalidateAll() {
+    dbAdminFlags.invalidateAll();
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void userChanged(UserChangedEvent event) {
+    invalidate(event.getEmail());
+  }
+}
@@ -0,0 +1,157 @@
+package edu.ucsb.cs156.example.services;
+
+import edu.ucsb.cs156.example.models.BatchItemResult;
+import edu.ucsb.cs156.example.models.BatchItemResult.Status;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Backs the /batch endpoints of the entity controllers. Each call runs in a
+ * single transaction, with one findAllById (or a locking query passed in)
+ * to load the existing rows and one saveAll or deleteAll to write them, so
+ * Hibernate can send the writes as JDBC batches (see hibernate.jdbc.batch_size in application.properties).
+ * If any write fails, the whole batch is rolled back.
+ */
+@Service("batches")
+public class BatchService {
+
+  @Transactional
+  public <E, K> List<BatchItemResult<K>> createAll(CrudRepository<E, K> repository, List<E> items, Function<E, K> idOf) {
+    return createAll(repository, items, idOf, saved -> { });
+  }
+
+  /**
+   * As above, calling afterSave on each saved row inside the same transaction.
+   */
+  @Transactional
+  public <E, K> List<BatchItemResult<K>> createAll(CrudRepository<E, K> repository, List<E> items, Function<E, K> idOf,
+      Consumer<E> afterSave) {
+    List<BatchItemResult<K>> results = new ArrayList<>();
+    int index = 0;
+    for (E saved : repository.saveAll(items)) {
+      afterSave.accept(saved);
+      results.add(new BatchItemResult<>(index++, idOf.apply(saved), Status.CREATED));
+    }
+    return results;
+  }
+
+  /**
+   * For entities whose id is chosen by the client (an org code, a commons
+   * code) rather than generated. saveAll would merge such an item over the
+   * stored row with the same id, so items whose id is already stored, or
+   * taken by an earlier item of the batch, are reported as CONFLICT and
+   * skipped.
+   */
+  @Transactional
+  public <E, K> List<BatchItemResult<K>> createAllWithAssignedIds(CrudRepository<E, K> repository, List<E> items,
+      Function<E, K> idOf) {
+    Set<K> taken = new HashSet<>(
+        load(repository::findAllById, items.stream().map(idOf).collect(Collectors.toList()), idOf).keySet());
+    List<BatchItemResult<K>> results = new ArrayList<>();
+    List<E> toSave = new ArrayList<>();
+    for (int index = 0; index < items.size(); index++) {
+      E item = items.get(index);
+      K id = idOf.apply(item);
+      if (taken.add(id)) {
+        toSave.add(item);
+        results.add(new BatchItemResult<>(index, id, Status.CREATED));
+      } else {
+        results.add(new BatchItemResult<>(index, id, Status.CONFLICT));
+      }
+    }
+    repository.saveAll(toSave);
+    return results;
+  }
+
+  /**
+   * Copies each incoming item onto the stored row with the same id, using
+   * update(stored, incoming); items whose id is not in the table are
+   * reported as NOT_FOUND and skipped.
+   */
+  @Transactional
+  public <E, K> List<BatchItemResult<K>> updateAll(CrudRepository<E, K> repository, List<E> items, Function<E, K> idOf,
+      BiConsumer<E, E> update) {
+    return updateAll(repository, repository::findAllById, items, idOf, update);
+  }
+
+  /**
+   * As above, loading the stored rows with findAll rather than findAllById;
+   * pass a query that locks them when update adjusts other rows from the
+   * stored values, so a concurrent edit of the same row waits its turn.
+   */
+  @Transactional
+  public <E, K> List<BatchItemResult<K>> updateAll(CrudRepository<E, K> repository, Function<List<K>, Iterable<E>> findAll,
+      List<E> items, Function<E, K> idOf, BiConsumer<E, E> update) {
+    Map<K, E> stored = load(findAll, items.stream().map(idOf).collect(Collectors.toList()), idOf);
+    List<BatchItemResult<K>> results = new ArrayList<>();
+    List<E> toSave = new ArrayList<>();
+    for (int index = 0; index < items.size(); index++) {
+      E incoming = items.get(index);
+      K id = idOf.apply(incoming);
+      E row = stored.get(id);
+      if (row == null) {
+        results.add(new BatchItemResult<>(index, id, Status.NOT_FOUND));
+      } else {
+        update.accept(row, incoming);
+        toSave.add(row);
+        results.add(new BatchItemResult<>(index, id, Status.UPDATED));
+      }
+    }
+    repository.saveAll(toSave);
+    return results;
+  }
+
+  @Transactional
+  public <E, K> List<BatchItemResult<K>> deleteAll(CrudRepository<E, K> repository, List<K> ids, Function<E, K> idOf) {
+    return deleteAll(repository, ids, idOf, row -> { });
+  }
+
+  /**
+   * As above, calling beforeDelete on each row that is found, inside the same
+   * transaction.
+   */
+  @Transactional
+  public <E, K> List<BatchItemResult<K>> deleteAll(CrudRepository<E, K> repository, List<K> ids, Function<E, K> idOf,
+      Consumer<E> beforeDelete) {
+    return deleteAll(repository, repository::findAllById, ids, idOf, beforeDelete);
+  }
+
+  /**
+   * As above, loading the stored rows with findAll rather than findAllById,
+   * as for updateAll.
+   */
+  @Transactional
+  public <E, K> List<BatchItemResult<K>> deleteAll(CrudRepository<E, K> repository, Function<List<K>, Iterable<E>> findAll,
+      List<K> ids, Function<E, K> idOf, Consumer<E> beforeDelete) {
+    Map<K, E> stored = load(findAll, ids, idOf);
+    stored.values().forEach(beforeDelete);
+    List<BatchItemResult<K>> results = new ArrayList<>();
+    for (int index = 0; index < ids.size(); index++) {
+      K id = ids.get(index);
+      results.add(new BatchItemResult<>(index, id, stored.containsKey(id) ? Status.DELETED : Status.NOT_FOUND));
+    }
+    repository.deleteAll(new ArrayList<>(stored.values()));
+    return results;
+  }
+
+  private <E, K> Map<K, E> load(Function<List<K>, Iterable<E>> findAll, List<K> ids, Function<E, K> idOf) {
+    Map<K, E> stored = new HashMap<>();
+    for (E row : findAll.apply(ids)) {
+      stored.put(idOf.apply(row), row);
+    }
+    return stored;
+  }
+}
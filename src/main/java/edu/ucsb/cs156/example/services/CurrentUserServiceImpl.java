@@ -2,13 +2,14 @@ package edu.ucsb.cs156.example.services;
 
 import edu.ucsb.cs156.example.entities.User;
 import edu.ucsb.cs156.example.models.CurrentUser;
+import edu.ucsb.cs156.example.models.UserChangedEvent;
 import edu.ucsb.cs156.example.repositories.UserRepository;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -19,6 +20,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 
 @Slf4j
@@ -30,8 +32,21 @@ public class CurrentUserServiceImpl extends CurrentUserService {
   @Autowired
   GrantedAuthoritiesService grantedAuthoritiesService;
 
-  @Value("${app.admin.emails}")
-  final private List<String> adminEmails = new ArrayList<String>();
+  @Autowired
+  AdminRoleService adminRoleService;
+
+  @Value("${app.currentUser.cacheTtlSeconds:300}")
+  private long cacheTtlSeconds;
+
+  // Resolved users, keyed by the OAuth "sub" claim, so that we only go to the
+  // database once per user per TTL rather than once per request.
+  private final Map<String, CachedUser> userCache = new ConcurrentHashMap<>();
+
+  private record CachedUser(User user, long expiresAtMillis) {
+    boolean isExpired() {
+      return System.currentTimeMillis() >= expiresAtMillis();
+    }
+  }
 
   public CurrentUser getCurrentUser() {
     CurrentUser cu = CurrentUser.builder()
@@ -45,6 +60,19 @@ public class CurrentUserServiceImpl extends CurrentUserService {
   
   public User getOAuth2AuthenticatedUser(SecurityContext securityContext, Authentication authentication) {
     OAuth2User oAuthUser = ((OAuth2AuthenticationToken) authentication).getPrincipal();
+    String googleSub = oAuthUser.getAttribute("sub");
+
+    CachedUser cached = userCache.get(googleSub);
+    if (cached != null && !cached.isExpired()) {
+      return cached.user();
+    }
+
+    User u = loadOrCreateUser(oAuthUser);
+    userCache.put(googleSub, new CachedUser(u, System.currentTimeMillis() + cacheTtlSeconds * 1000));
+    return u;
+  }
+
+  private User loadOrCreateUser(OAuth2User oAuthUser) {
     String email = oAuthUser.getAttribute("email");
     String googleSub = oAuthUser.getAttribute("sub");
     String pictureUrl = oAuthUser.getAttribute("picture");
@@ -61,7 +89,7 @@ public class CurrentUserServiceImpl extends CurrentUserService {
     Optional<User> ou = userRepository.findByEmail(email);
     if (ou.isPresent()) {
       User u = ou.get();
-      if (adminEmails.contains(email) && !u.getAdmin()) {
+      if (adminRoleService.isAdminEmail(email) && !u.getAdmin()) {
         u.setAdmin(true);
         userRepository.save(u);
       }
@@ -78,12 +106,31 @@ public class CurrentUserServiceImpl extends CurrentUserService {
         .emailVerified(emailVerified)
         .locale(locale)
         .hostedDomain(hostedDomain)
-        .admin(adminEmails.contains(email))
+        .admin(adminRoleService.isAdminEmail(email))
         .build();
     userRepository.save(u);
     return u;
   }
 
+  /**
+   * Drop the cached user for this OAuth subject; called whenever something
+   * about the user (e.g. the admin flag) changes in the database.
+   */
+  public void evictUser(String googleSub) {
+    if (googleSub != null) {
+      userCache.remove(googleSub);
+    }
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void userChanged(UserChangedEvent event) {
+    evictUser(event.getGoogleSub());
+  }
+
+  public void evictAllUsers() {
+    userCache.clear();
+  }
+
   public User getUser() {
     SecurityContext securityContext = SecurityContextHolder.getContext();
     Authentication authentication = securityContext.getAuthentication();
@@ -0,0 +1,254 @@
+package edu.ucsb.cs156.example.services;
+
+import edu.ucsb.cs156.example.entities.UCSBDiningCommons;
+import edu.ucsb.cs156.example.models.NearbyDiningCommons;
+import edu.ucsb.cs156.example.models.TableChangedElsewhereEvent;
+import edu.ucsb.cs156.example.repositories.UCSBDiningCommonsRepository;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * An in-memory grid index of the dining commons that have a latitude and
+ * longitude, for k-nearest queries.
+ *
+ * Commons are bucketed into cells of CELL_DEGREES on each side. A query
+ * looks at the cell containing the point, then at rings of cells further
+ * out, and stops once k commons have been found that are closer than
+ * anything outside the rings searched so far could be. The index is built
+ * at startup and then updated by DiningCommonsLocationListener once each
+ * write commits.
+ *
+ * Those updates only reach the instance that made the write. When
+ * TableVersionService finds that another instance has written the table,
+ * the index is marked stale, and the next refresh (every
+ * app.table-versions.check-millis) rebuilds it straight from the database.
+ */
+@Slf4j
+@Service("diningCommonsLocations")
+public class DiningCommonsLocationService {
+
+  static final double CELL_DEGREES = 0.01;
+
+  private static final double EARTH_RADIUS_METERS = 6_371_000;
+
+  private static final double CELL_METERS = Math.toRadians(CELL_DEGREES) * EARTH_RADIUS_METERS;
+
+  // Lazy: DiningCommonsLocationListener needs this service while Hibernate
+  // is still starting, before the repository can be built.
+  @Lazy
+  @Autowired
+  UCSBDiningCommonsRepository ucsbDiningCommonsRepository;
+
+  @Autowired
+  TableVersionService tableVersionService;
+
+  private final Map<Long, Set<String>> grid = new HashMap<>();
+
+  private final Map<String, Location> located = new HashMap<>();
+
+  // Set when another instance writes the table; this instance's own writes
+  // reach the index as they commit
+  private volatile boolean stale;
+
+  // A private copy of a commons as it was indexed: the entity passed to
+  // saved() may be changed afterwards, and remove() must find the cell the
+  // commons was put in
+  private record Location(UCSBDiningCommons commons, double latitude, double longitude) {
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void onStartup() {
+    log.info("Indexed the locations of {} dining commons", rebuild());
+  }
+
+  @EventListener
+  public void tableChanged(TableChangedElsewhereEvent event) {
+    if (event.getTable() == UCSBDiningCommons.class) {
+      stale = true;
+    }
+  }
+
+  /**
+   * Rebuilds the index if another instance has written the dining commons
+   * table since it was built.
+   */
+  @Scheduled(fixedDelayString = "${app.table-versions.check-millis:30000}",
+      initialDelayString = "${app.table-versions.check-millis:30000}")
+  public void refresh() {
+    tableVersionService.version(UCSBDiningCommons.class);
+    if (stale) {
+      log.info("Reindexed the locations of {} dining commons", rebuild());
+    }
+  }
+
+  public synchronized int rebuild() {
+    // the version is read before the rows, so a write elsewhere from here on
+    // marks the index stale again
+    stale = false;
+    tableVersionService.version(UCSBDiningCommons.class);
+    grid.clear();
+    located.clear();
+    ucsbDiningCommonsRepository.findAllUncached().forEach(this::put);
+    return located.size();
+  }
+
+  public void saved(UCSBDiningCommons commons) {
+    afterCommit(() -> put(commons));
+  }
+
+  public void removed(UCSBDiningCommons commons) {
+    afterCommit(() -> remove(commons.getCode()));
+  }
+
+  /**
+   * The k commons closest to (lat, lon), nearest first. Commons without a
+   * location are never returned.
+   */
+  public synchronized List<NearbyDiningCommons> nearest(double lat, double lon, int k) {
+    PriorityQueue<NearbyDiningCommons> best = new PriorityQueue<>(
+        Comparator.comparingDouble(NearbyDiningCommons::getDistanceMeters).reversed());
+    int row = row(lat);
+    int column = column(lon);
+    int seen = 0;
+    for (int ring = 0; seen < located.size(); ring++) {
+      // Once a ring has more cells than there are occupied cells, the
+      // remaining commons are sparse enough that checking them all is cheaper
+      if (ring > 0 && 8L * ring > grid.size()) {
+        best.clear();
+        located.values().forEach(location -> offer(best, k, location, lat, lon));
+        break;
+      }
+      for (long cell : ring(row, column, ring)) {
+        for (String code : grid.getOrDefault(cell, Set.of())) {
+          offer(best, k, located.get(code), lat, lon);
+          seen++;
+        }
+      }
+      if (best.size() == k && best.peek().getDistanceMeters() <= ring * minimumCellMeters(lat, ring)) {
+        break;
+      }
+    }
+    List<NearbyDiningCommons> result = new ArrayList<>(best);
+    result.sort(Comparator.comparingDouble(NearbyDiningCommons::getDistanceMeters));
+    return result;
+  }
+
+  static double distanceMeters(double lat1, double lon1, double lat2, double lon2) {
+    double dLat = Math.toRadians(lat2 - lat1);
+    double dLon = Math.toRadians(lon2 - lon1);
+    double a = Math.pow(Math.sin(dLat / 2), 2)
+        + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.pow(Math.sin(dLon / 2), 2);
+    return 2 * EARTH_RADIUS_METERS * Math.asin(Math.sqrt(a));
+  }
+
+  private static void offer(PriorityQueue<NearbyDiningCommons> best, int k, Location location,
+      double lat, double lon) {
+    double distance = distanceMeters(lat, lon, location.latitude(), location.longitude());
+    if (best.size() < k) {
+      best.add(new NearbyDiningCommons(location.commons(), distance));
+    } else if (distance < best.peek().getDistanceMeters()) {
+      best.poll();
+      best.add(new NearbyDiningCommons(location.commons(), distance));
+    }
+  }
+
+  // The smaller side of a cell anywhere within the rings searched so far;
+  // cells narrow towards the poles, so use the latitude furthest from the equator
+  private static double minimumCellMeters(double lat, int ring) {
+    double furthestLat = Math.min(90, Math.abs(lat) + (ring + 1) * CELL_DEGREES);
+    return CELL_METERS * Math.cos(Math.toRadians(furthestLat));
+  }
+
+  private static List<Long> ring(int row, int column, int ring) {
+    List<Long> cells = new ArrayList<>();
+    for (int dRow = -ring; dRow <= ring; dRow++) {
+      for (int dColumn = -ring; dColumn <= ring; dColumn++) {
+        if (Math.max(Math.abs(dRow), Math.abs(dColumn)) == ring) {
+          cells.add(cell(row + dRow, column + dColumn));
+        }
+      }
+    }
+    return cells;
+  }
+
+  private synchronized void put(UCSBDiningCommons commons) {
+    remove(commons.getCode());
+    if (commons.getLatitude() == null || commons.getLongitude() == null) {
+      return;
+    }
+    Location location = new Location(copyOf(commons), commons.getLatitude(), commons.getLongitude());
+    located.put(commons.getCode(), location);
+    grid.computeIfAbsent(cellOf(location), c -> new HashSet<>()).add(commons.getCode());
+  }
+
+  private synchronized void remove(String code) {
+    Location old = located.remove(code);
+    if (old == null) {
+      return;
+    }
+    long cell = cellOf(old);
+    Set<String> codes = grid.get(cell);
+    codes.remove(code);
+    if (codes.isEmpty()) {
+      grid.remove(cell);
+    }
+  }
+
+  private static long cellOf(Location location) {
+    return cell(row(location.latitude()), column(location.longitude()));
+  }
+
+  private static UCSBDiningCommons copyOf(UCSBDiningCommons commons) {
+    return UCSBDiningCommons.builder()
+        .code(commons.getCode())
+        .name(commons.getName())
+        .hasSackMeal(commons.getHasSackMeal())
+        .hasTakeOutMeal(commons.getHasTakeOutMeal())
+        .hasDiningCam(commons.getHasDiningCam())
+        .latitude(commons.getLatitude())
+        .longitude(commons.getLongitude())
+        .build();
+  }
+
+  private static int row(double lat) {
+    return (int) Math.floor(lat / CELL_DEGREES);
+  }
+
+  private static int column(double lon) {
+    return (int) Math.floor(lon / CELL_DEGREES);
+  }
+
+  private static long cell(int row, int column) {
+    return ((long) row << 32) | (column & 0xffffffffL);
+  }
+
+  private static void afterCommit(Runnable change) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          change.run();
+        }
+      });
+    } else {
+      change.run();
+    }
+  }
+}
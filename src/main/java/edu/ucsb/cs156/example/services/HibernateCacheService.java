@@ -0,0 +1,81 @@
+package edu.ucsb.cs156.example.services;
+
+import edu.ucsb.cs156.example.models.CacheRegionStats;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Reports on and clears Hibernate's second-level cache, which holds the
+ * entities marked @Cacheable and the results of the repository queries
+ * hinted as cacheable.
+ *
+ * Counts are only collected when hibernate.generate_statistics is on.
+ *
+ * This instance's own writes keep the cache current; TableVersionService
+ * calls evict() when another instance has written a table.
+ */
+@Slf4j
+@Service("hibernateCache")
+public class HibernateCacheService {
+
+  @Autowired
+  EntityManagerFactory entityManagerFactory;
+
+  public List<CacheRegionStats> statistics() {
+    Statistics statistics = sessionFactory().getStatistics();
+    String[] regions = statistics.getSecondLevelCacheRegionNames();
+    Arrays.sort(regions);
+    List<CacheRegionStats> result = new ArrayList<>();
+    for (String region : regions) {
+      CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+      if (regionStatistics != null) {
+        result.add(CacheRegionStats.builder()
+            .region(region)
+            .hitCount(regionStatistics.getHitCount())
+            .missCount(regionStatistics.getMissCount())
+            .putCount(regionStatistics.getPutCount())
+            .build());
+      }
+    }
+    return result;
+  }
+
+  public void evictAll() {
+    log.info("Evicting every second-level cache region");
+    sessionFactory().getCache().evictAllRegions();
+  }
+
+  /**
+   * Drops the cached entities of one table, and every cached query result,
+   * since Hibernate cannot tell which of those read the table.
+   */
+  public void evict(Class<?> table) {
+    log.info("Evicting {} and the cached query results", table.getSimpleName());
+    Cache cache = sessionFactory().getCache();
+    if (isEntity(table)) {
+      cache.evictEntityData(table);
+    }
+    cache.evictDefaultQueryRegion();
+  }
+
+  private boolean isEntity(Class<?> table) {
+    return entityManagerFactory.getMetamodel().getEntities().stream()
+        .anyMatch(entity -> entity.getJavaType() == table);
+  }
+
+  private SessionFactory sessionFactory() {
+    return entityManagerFactory.unwrap(SessionFactory.class);
+  }
+}
@@ -0,0 +1,48 @@
+package edu.ucsb.cs156.example.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Holds serialized JSON responses in the "json" cache, keyed by the ETag
+ * that TableVersionService gives the response.
+ *
+ * An ETag changes whenever its table is written, so a write never needs to
+ * evict anything: the next read asks for a key that is not cached yet, and
+ * the entry for the old version ages out of the cache. evictAll is for an
+ * admin who has changed rows behind Hibernate's back.
+ */
+@Slf4j
+@Service("jsonCache")
+public class JsonCacheService {
+
+  public static final String CACHE = "json";
+
+  @Autowired
+  ObjectMapper mapper;
+
+  // sync: after a write, concurrent requests for the new ETag wait for one
+  // of them to serialize the table instead of each doing it
+  @Cacheable(cacheNames = CACHE, key = "#etag", sync = true)
+  public byte[] json(String etag, Supplier<?> body) {
+    try {
+      return mapper.writeValueAsBytes(body.get());
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Could not serialize the response for " + etag, e);
+    }
+  }
+
+  @CacheEvict(cacheNames = CACHE, allEntries = true)
+  public void evictAll() {
+    log.info("Evicting every cached JSON response");
+  }
+}
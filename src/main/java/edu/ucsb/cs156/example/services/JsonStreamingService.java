@@ -0,0 +1,53 @@
+package edu.ucsb.cs156.example.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import javax.persistence.EntityManager;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Writes query results to a response as a JSON array while they are read
+ * from a JDBC cursor, instead of collecting the whole table first.
+ */
+@Slf4j
+@Service("jsonStreaming")
+public class JsonStreamingService {
+
+  @Autowired
+  ObjectMapper mapper;
+
+  @Autowired
+  EntityManager entityManager;
+
+  /**
+   * The stream is opened and consumed inside one read-only transaction, which
+   * is what keeps the cursor open. Each entity is detached once it has been
+   * written so the persistence context does not grow with the table.
+   */
+  @Transactional(readOnly = true)
+  public <T> void writeJsonArray(Supplier<Stream<T>> source, OutputStream out) throws IOException {
+    try (Stream<T> rows = source.get();
+        JsonGenerator generator = mapper.getFactory().createGenerator(out)) {
+      generator.writeStartArray();
+      Iterator<T> iterator = rows.iterator();
+      while (iterator.hasNext()) {
+        T row = iterator.next();
+        generator.writeObject(row);
+        entityManager.detach(row);
+      }
+      generator.writeEndArray();
+    }
+  }
+}
@@ -0,0 +1,182 @@
+package edu.ucsb.cs156.example.services;
+
+import edu.ucsb.cs156.example.entities.MenuItemRatingSummary;
+import edu.ucsb.cs156.example.entities.MenuItemReview;
+import edu.ucsb.cs156.example.errors.EntityNotFoundException;
+import edu.ucsb.cs156.example.models.RatedMenuItem;
+import edu.ucsb.cs156.example.repositories.MenuItemRatingSummaryRepository;
+import edu.ucsb.cs156.example.repositories.MenuItemReviewRepository;
+import edu.ucsb.cs156.example.repositories.MenuItemReviewRepository.StarCount;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Maintains one MenuItemRatingSummary row per reviewed menu item. Every
+ * review write adjusts the count, star total and histogram of the item it
+ * belongs to, so reading an item's rating costs one primary-key lookup
+ * however many reviews it has.
+ *
+ * Anything that creates, edits or deletes a MenuItemReview must do so
+ * through addReview, updateReview or removeReview, or call the matching
+ * review* method inside its own transaction, so that the review and the
+ * summary commit together; {@link #rebuild()} recomputes all summaries
+ * from the reviews if they ever drift.
+ */
+@Slf4j
+@Service("menuItemRatings")
+public class MenuItemRatingService {
+
+  @Autowired
+  MenuItemRatingSummaryRepository summaryRepository;
+
+  @Autowired
+  MenuItemReviewRepository reviewRepository;
+
+  @Autowired
+  JdbcTemplate jdbcTemplate;
+
+  // postgresql or h2; they need different statements to add a row unless it exists
+  @Value("${spring.sql.init.platform:h2}")
+  String platform;
+
+  private static final String INSERT_EMPTY_SUMMARY_POSTGRESQL = "insert into menuitemratingsummary"
+      + " (item_id, review_count, star_total, one_star, two_stars, three_stars, four_stars, five_stars)"
+      + " values (?, 0, 0, 0, 0, 0, 0, 0) on conflict (item_id) do nothing";
+
+  private static final String INSERT_EMPTY_SUMMARY_H2 = "merge into menuitemratingsummary s"
+      + " using (select cast(? as bigint) as item_id) i on (s.item_id = i.item_id) when not matched then insert"
+      + " (item_id, review_count, star_total, one_star, two_stars, three_stars, four_stars, five_stars)"
+      + " values (i.item_id, 0, 0, 0, 0, 0, 0, 0)";
+
+  @Transactional
+  public MenuItemReview addReview(MenuItemReview review) {
+    MenuItemReview saved = reviewRepository.save(review);
+    reviewAdded(saved);
+    return saved;
+  }
+
+  /**
+   * Copies incoming onto the stored review with this id. The review is
+   * locked while it is read, so two concurrent edits cannot both take the
+   * same old rating out of the summaries.
+   */
+  @Transactional
+  public MenuItemReview updateReview(long id, MenuItemReview incoming) {
+    MenuItemReview review = reviewRepository.findForUpdate(id)
+        .orElseThrow(() -> new EntityNotFoundException(MenuItemReview.class, id));
+
+    long oldItemId = review.getItemId();
+    int oldStars = review.getStars();
+
+    review.setItemId(incoming.getItemId());
+    review.setReviewerEmail(incoming.getReviewerEmail());
+    review.setStars(incoming.getStars());
+    review.setDateReviewed(incoming.getDateReviewed());
+    review.setComments(incoming.getComments());
+
+    reviewRepository.save(review);
+    reviewChanged(oldItemId, oldStars, review);
+    return review;
+  }
+
+  @Transactional
+  public void removeReview(long id) {
+    MenuItemReview review = reviewRepository.findForUpdate(id)
+        .orElseThrow(() -> new EntityNotFoundException(MenuItemReview.class, id));
+
+    reviewRepository.delete(review);
+    reviewRemoved(review);
+  }
+
+  @Transactional
+  public void reviewAdded(MenuItemReview review) {
+    adjust(review.getItemId(), review.getStars(), 1);
+  }
+
+  @Transactional
+  public void reviewRemoved(MenuItemReview review) {
+    adjust(review.getItemId(), review.getStars(), -1);
+  }
+
+  @Transactional
+  public void reviewChanged(long oldItemId, int oldStars, MenuItemReview updated) {
+    if (oldItemId == updated.getItemId() && oldStars == updated.getStars()) {
+      return;
+    }
+    adjust(oldItemId, oldStars, -1);
+    adjust(updated.getItemId(), updated.getStars(), 1);
+  }
+
+  @Transactional(readOnly = true)
+  public MenuItemRatingSummary summaryFor(long itemId) {
+    return summaryRepository.findById(itemId)
+        .orElse(MenuItemRatingSummary.builder().itemId(itemId).build());
+  }
+
+  @Transactional(readOnly = true)
+  public List<RatedMenuItem> topRated(String diningCommonsCode, int n) {
+    return summaryRepository.findTopRated(diningCommonsCode, PageRequest.of(0, n));
+  }
+
+  /**
+   * Throws away every summary and recomputes them with one grouped query
+   * over menuitemreview. Returns the number of items that have reviews.
+   */
+  @Transactional
+  public int rebuild() {
+    Map<Long, MenuItemRatingSummary> summaries = new HashMap<>();
+    for (StarCount count : reviewRepository.countByItemIdAndStars()) {
+      MenuItemRatingSummary summary = summaries.computeIfAbsent(count.getItemId(),
+          itemId -> MenuItemRatingSummary.builder().itemId(itemId).build());
+      add(summary, count.getStars(), count.getReviews());
+    }
+    summaryRepository.deleteAll();
+    summaryRepository.saveAll(summaries.values());
+    log.info("Rebuilt rating summaries for {} menu items", summaries.size());
+    return summaries.size();
+  }
+
+  private void adjust(long itemId, int stars, long delta) {
+    MenuItemRatingSummary summary = summaryRepository.findForUpdate(itemId)
+        .orElseGet(() -> {
+          insertEmptySummary(itemId);
+          return summaryRepository.findForUpdate(itemId).orElseThrow();
+        });
+    add(summary, stars, delta);
+    summaryRepository.save(summary);
+  }
+
+  // The first review of an item adds the item's summary row, in the
+  // review's own transaction, so it needs no second connection. On
+  // PostgreSQL, if another first review is adding the same row, this insert
+  // waits for that one to commit and then skips it, rather than failing, and
+  // the two reviews go on to lock the one row in turn. H2, used only in
+  // development, fails the later of the two instead.
+  private void insertEmptySummary(long itemId) {
+    jdbcTemplate.update("postgresql".equals(platform) ? INSERT_EMPTY_SUMMARY_POSTGRESQL : INSERT_EMPTY_SUMMARY_H2,
+        itemId);
+  }
+
+  private void add(MenuItemRatingSummary summary, int stars, long delta) {
+    summary.setReviewCount(summary.getReviewCount() + delta);
+    summary.setStarTotal(summary.getStarTotal() + stars * delta);
+    switch (stars) {
+      case 1 -> summary.setOneStar(summary.getOneStar() + delta);
+      case 2 -> summary.setTwoStars(summary.getTwoStars() + delta);
+      case 3 -> summary.setThreeStars(summary.getThreeStars() + delta);
+      case 4 -> summary.setFourStars(summary.getFourStars() + delta);
+      case 5 -> summary.setFiveStars(summary.getFiveStars() + delta);
+      default -> log.warn("Review of item {} has {} stars; left out of the histogram", summary.getItemId(), stars);
+    }
+  }
+}
@@ -0,0 +1,24 @@
+package edu.ucsb.cs156.example.services;
+
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Runs the queries behind the GET endpoints in a read-only transaction.
+ *
+ * For a read-only transaction, JpaTransactionManager puts the Hibernate
+ * session in FlushMode.MANUAL and makes it read-only by default. Entities
+ * loaded in it are not snapshotted for dirty checking and are never
+ * flushed. When a read replica is configured, the reads of a GET request
+ * go to it (see ReplicaRoutingDataSource).
+ */
+@Service("reads")
+public class ReadService {
+
+  @Transactional(readOnly = true)
+  public <T> T read(Supplier<T> query) {
+    return query.get();
+  }
+}
@@ -0,0 +1,279 @@
+package edu.ucsb.cs156.example.services;
+
+import edu.ucsb.cs156.example.entities.Restaurant;
+import edu.ucsb.cs156.example.entities.UCSBDiningCommonsMenuItem;
+import edu.ucsb.cs156.example.entities.UCSBOrganization;
+import edu.ucsb.cs156.example.models.SearchHit;
+import edu.ucsb.cs156.example.models.TableChangedElsewhereEvent;
+import edu.ucsb.cs156.example.repositories.RestaurantRepository;
+import edu.ucsb.cs156.example.repositories.UCSBDiningCommonsMenuItemRepository;
+import edu.ucsb.cs156.example.repositories.UCSBOrganizationRepository;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * An in-memory inverted index over restaurants (name and description),
+ * dining commons menu items (name and station) and organizations (code and
+ * names), for type-ahead search.
+ *
+ * Terms are kept in a sorted map, so every word of a query is matched as a
+ * prefix with one range lookup; a document must match every word. The index
+ * is built from the database at startup and then updated by
+ * SearchIndexListener once each write commits.
+ *
+ * Those updates only reach the instance that made the write. When
+ * TableVersionService finds that another instance has written an indexed
+ * table, the index is marked stale, and the next refresh (every
+ * app.table-versions.check-millis) rebuilds it straight from the database.
+ */
+@Slf4j
+@Service("search")
+public class SearchService {
+
+  public static final String RESTAURANT = "restaurant";
+  public static final String MENU_ITEM = "menuitem";
+  public static final String ORGANIZATION = "organization";
+
+  private static final List<Class<?>> TABLES =
+      List.of(Restaurant.class, UCSBDiningCommonsMenuItem.class, UCSBOrganization.class);
+
+  // Lazy: SearchIndexListener needs this service while Hibernate is still
+  // starting, before any repository can be built. Without it Hibernate
+  // falls back to an unwired listener.
+  @Lazy
+  @Autowired
+  RestaurantRepository restaurantRepository;
+
+  @Lazy
+  @Autowired
+  UCSBDiningCommonsMenuItemRepository menuItemRepository;
+
+  @Lazy
+  @Autowired
+  UCSBOrganizationRepository organizationRepository;
+
+  @Autowired
+  TableVersionService tableVersionService;
+
+  // Replaced whole by rebuild(), so a search never sees a half-built index
+  private volatile Index index = new Index();
+
+  // Set when another instance writes an indexed table; this instance's own
+  // writes reach the index as they commit
+  private volatile boolean stale;
+
+  private static final class Index {
+    final ConcurrentSkipListMap<String, Set<String>> postings = new ConcurrentSkipListMap<>();
+    final Map<String, Document> documents = new ConcurrentHashMap<>();
+  }
+
+  private static final class Document {
+    final SearchHit hit;
+    final Set<String> terms;
+
+    Document(SearchHit hit, Set<String> terms) {
+      this.hit = hit;
+      this.terms = terms;
+    }
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void onStartup() {
+    log.info("Built search index with {} documents", rebuild());
+  }
+
+  @EventListener
+  public void tableChanged(TableChangedElsewhereEvent event) {
+    if (TABLES.contains(event.getTable())) {
+      stale = true;
+    }
+  }
+
+  /**
+   * Rebuilds the index if another instance has written an indexed table
+   * since it was built.
+   */
+  @Scheduled(fixedDelayString = "${app.table-versions.check-millis:30000}",
+      initialDelayString = "${app.table-versions.check-millis:30000}")
+  public void refresh() {
+    TABLES.forEach(tableVersionService::version);
+    if (stale) {
+      log.info("Rebuilt search index with {} documents", rebuild());
+    }
+  }
+
+  public synchronized int rebuild() {
+    // versions are read before the rows, so a write elsewhere from here on
+    // marks the index stale again
+    stale = false;
+    TABLES.forEach(tableVersionService::version);
+    Index fresh = new Index();
+    // only organizations are in the second-level cache
+    restaurantRepository.findAll().forEach(entity -> put(fresh, entity));
+    menuItemRepository.findAll().forEach(entity -> put(fresh, entity));
+    organizationRepository.findAllUncached().forEach(entity -> put(fresh, entity));
+    index = fresh;
+    return fresh.documents.size();
+  }
+
+  public void indexed(Object entity) {
+    afterCommit(() -> put(entity));
+  }
+
+  public void removed(Object entity) {
+    afterCommit(() -> remove(entity));
+  }
+
+  /**
+   * The documents matching every word of the query as a prefix, those with
+   * more whole-word matches first, then by title.
+   */
+  public List<SearchHit> search(String query, int limit) {
+    Set<String> words = terms(query);
+    if (words.isEmpty()) {
+      return List.of();
+    }
+    Index current = index;
+    Set<String> matches = null;
+    for (String word : words) {
+      Set<String> keys = new HashSet<>();
+      current.postings.subMap(word, true, word + Character.MAX_VALUE, true).values().forEach(keys::addAll);
+      if (matches == null) {
+        matches = keys;
+      } else {
+        matches.retainAll(keys);
+      }
+      if (matches.isEmpty()) {
+        return List.of();
+      }
+    }
+    // a concurrent write may have dropped a document since its key was read
+    Comparator<Document> byScore = Comparator.comparingLong(
+        document -> words.stream().filter(document.terms::contains).count());
+    return matches.stream()
+        .map(current.documents::get)
+        .filter(Objects::nonNull)
+        .sorted(byScore.reversed()
+            .thenComparing(document -> document.hit.getTitle(), String.CASE_INSENSITIVE_ORDER))
+        .limit(limit)
+        .map(document -> document.hit)
+        .collect(Collectors.toList());
+  }
+
+  private synchronized void put(Object entity) {
+    put(index, entity);
+  }
+
+  private static void put(Index target, Object entity) {
+    SearchHit hit = hitFor(entity);
+    if (hit == null) {
+      return;
+    }
+    String key = key(hit.getType(), hit.getId());
+    unindex(target, key);
+    Set<String> terms = terms(textFor(entity));
+    target.documents.put(key, new Document(hit, terms));
+    for (String term : terms) {
+      target.postings.computeIfAbsent(term, t -> ConcurrentHashMap.newKeySet()).add(key);
+    }
+  }
+
+  private synchronized void remove(Object entity) {
+    SearchHit hit = hitFor(entity);
+    if (hit != null) {
+      unindex(index, key(hit.getType(), hit.getId()));
+    }
+  }
+
+  private static void unindex(Index target, String key) {
+    Document old = target.documents.remove(key);
+    if (old == null) {
+      return;
+    }
+    for (String term : old.terms) {
+      Set<String> keys = target.postings.get(term);
+      keys.remove(key);
+      if (keys.isEmpty()) {
+        target.postings.remove(term);
+      }
+    }
+  }
+
+  private static SearchHit hitFor(Object entity) {
+    if (entity instanceof Restaurant restaurant) {
+      return new SearchHit(RESTAURANT, String.valueOf(restaurant.getId()),
+          restaurant.getName(), restaurant.getDescription());
+    }
+    if (entity instanceof UCSBDiningCommonsMenuItem item) {
+      return new SearchHit(MENU_ITEM, String.valueOf(item.getId()),
+          item.getName(), "%s at %s".formatted(item.getStation(), item.getDiningCommonsCode()));
+    }
+    if (entity instanceof UCSBOrganization organization) {
+      return new SearchHit(ORGANIZATION, organization.getOrgCode(),
+          organization.getOrgTranslationShort(), organization.getOrgTranslation());
+    }
+    return null;
+  }
+
+  private static String textFor(Object entity) {
+    if (entity instanceof Restaurant restaurant) {
+      return text(restaurant.getName(), restaurant.getDescription());
+    }
+    if (entity instanceof UCSBDiningCommonsMenuItem item) {
+      return text(item.getName(), item.getStation());
+    }
+    UCSBOrganization organization = (UCSBOrganization) entity;
+    return text(organization.getOrgCode(), organization.getOrgTranslationShort(), organization.getOrgTranslation());
+  }
+
+  private static String text(String... fields) {
+    return Stream.of(fields).filter(Objects::nonNull).collect(Collectors.joining(" "));
+  }
+
+  static Set<String> terms(String text) {
+    if (text == null) {
+      return Set.of();
+    }
+    return Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+        .filter(term -> !term.isEmpty())
+        .collect(Collectors.toSet());
+  }
+
+  private static String key(String type, String id) {
+    return type + ":" + id;
+  }
+
+  private static void afterCommit(Runnable change) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          change.run();
+        }
+      });
+    } else {
+      change.run();
+    }
+  }
+}
@@ -0,0 +1,171 @@
+package edu.ucsb.cs156.example.services;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import edu.ucsb.cs156.example.models.TableChangedElsewhereEvent;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Keeps a change counter per entity class in the table_versions table, used
+ * to build the ETags returned by the GET endpoints.
+ *
+ * The counters live in the database, so every instance of the app hands out
+ * the same ETag for the same data, and a restart changes none of them.
+ * Rows are seeded at startup by data-h2.sql / data-postgresql.sql.
+ *
+ * The ETags are weak (W/"..."): Tomcat will not compress a response that
+ * carries a strong ETag, since the gzip bytes are a different
+ * representation, and the same data with or without compression should
+ * still answer 304.
+ *
+ * The counters also tell this instance when another one has written a
+ * table, which its second-level cache cannot otherwise know. Whenever a
+ * counter is read, and every app.table-versions.check-millis, it is
+ * compared with the version this instance's caches reflect, which its own
+ * writes advance as they commit. A counter that has moved past that was
+ * bumped elsewhere, so the table's cached entities and the cached query
+ * results are evicted before anything is read for the new ETag, and a
+ * TableChangedElsewhereEvent tells the in-memory indexes to rebuild.
+ */
+@Service("tableVersions")
+public class TableVersionService {
+
+  private final JdbcTemplate jdbcTemplate;
+
+  // Not available in the controller tests, which have no EntityManagerFactory
+  @Autowired
+  ObjectProvider<HibernateCacheService> hibernateCacheService;
+
+  @Autowired
+  ApplicationEventPublisher publisher;
+
+  // The version of each table that this instance's caches reflect
+  private final Map<Class<?>, AtomicLong> reflected = new ConcurrentHashMap<>();
+
+  // Built here rather than injected: the JdbcTemplate bean waits for the
+  // startup scripts, which wait for Hibernate, which needs this service for
+  // its entity listeners.
+  @Autowired
+  public TableVersionService(DataSource dataSource) {
+    this.jdbcTemplate = new JdbcTemplate(dataSource);
+  }
+
+  public long version(Class<?> table) {
+    long version = read(table);
+    observe(table, version);
+    return version;
+  }
+
+  /**
+   * Checks every table this instance has read the version of for writes by
+   * other instances, so their caches catch up even where no ETag is read.
+   */
+  @Scheduled(fixedDelayString = "${app.table-versions.check-millis:30000}",
+      initialDelayString = "${app.table-versions.check-millis:30000}")
+  public void checkForChanges() {
+    reflected.keySet().forEach(this::version);
+  }
+
+  /**
+   * Records a change to a table. Inside a transaction the counter is updated
+   * on the transaction's own connection, so it commits (or rolls back) with
+   * the write, and a reader can never pair the new ETag with rows it could
+   * not yet see. Each table is bumped at most once per transaction.
+   */
+  public void bump(Class<?> table) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()
+        && !bumpedInTransaction().add(table)) {
+      return;
+    }
+    String name = table.getSimpleName();
+    if (jdbcTemplate.update("update table_versions set version = version + 1 where table_name = ?", name) == 0) {
+      // a table the startup scripts did not seed
+      jdbcTemplate.update("insert into table_versions (table_name, version) values (?, 1)", name);
+    }
+    // the row stays locked until the commit, so this is the version the write makes
+    long version = read(table);
+    afterCommit(() -> reflected(table).compareAndSet(version - 1, version));
+  }
+
+  /**
+   * Changes every ETag, on every instance, for when rows were written
+   * without going through Hibernate.
+   */
+  public void bumpAll() {
+    jdbcTemplate.update("update table_versions set version = version + 1");
+  }
+
+  public String etag(Class<?> table) {
+    return "W/\"%s-%d\"".formatted(table.getSimpleName(), version(table));
+  }
+
+  public String etag(Class<?> table, Object id) {
+    return "W/\"%s-%d-%s\"".formatted(table.getSimpleName(), version(table), id);
+  }
+
+  private long read(Class<?> table) {
+    return jdbcTemplate.query(
+        "select version from table_versions where table_name = ?",
+        rs -> rs.next() ? rs.getLong(1) : 0L,
+        table.getSimpleName());
+  }
+
+  // Versions only grow, so a reader that raced with a newer one changes nothing
+  private void observe(Class<?> table, long version) {
+    long previous = reflected(table).getAndAccumulate(version, Math::max);
+    if (previous < version) {
+      // evicted on the first read too, for anything cached before it
+      hibernateCacheService.ifAvailable(cache -> cache.evict(table));
+      if (previous >= 0) {
+        publisher.publishEvent(new TableChangedElsewhereEvent(table));
+      }
+    }
+  }
+
+  private AtomicLong reflected(Class<?> table) {
+    return reflected.computeIfAbsent(table, t -> new AtomicLong(-1));
+  }
+
+  private static void afterCommit(Runnable change) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          change.run();
+        }
+      });
+    } else {
+      change.run();
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private Set<Class<?>> bumpedInTransaction() {
+    Set<Class<?>> bumped = (Set<Class<?>>) TransactionSynchronizationManager.getResource(this);
+    if (bumped == null) {
+      bumped = new HashSet<>();
+      TransactionSynchronizationManager.bindResource(this, bumped);
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCompletion(int status) {
+          TransactionSynchronizationManager.unbindResourceIfPossible(TableVersionService.this);
+        }
+      });
+    }
+    return bumped;
+  }
+}
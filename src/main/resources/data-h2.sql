@@ -0,0 +1,26 @@
+-- Runs at every startup (spring.sql.init), after Hibernate has updated the
+-- schema, so each statement must be safe to repeat.
+
+-- One change counter per table behind an ETag (see TableVersionService)
+INSERT INTO table_versions (table_name, version)
+SELECT t.table_name, 0 FROM (VALUES ('MenuItemReview'), ('RecommendationRequest'), ('Restaurant'),
+    ('UCSBDate'), ('UCSBDiningCommons'), ('UCSBDiningCommonsMenuItem'), ('UCSBOrganization')) AS t(table_name)
+WHERE NOT EXISTS (SELECT 1 FROM table_versions v WHERE v.table_name = t.table_name);
+
+-- Ids come from sequences read 50 at a time (@SequenceGenerator with
+-- allocationSize = 50), and Hibernate's pooled optimizer treats each value
+-- it reads as the top of a block of 50 ids. Each sequence is restarted at
+-- max(id) + 50, so new ids start above rows inserted before the sequences
+-- existed, but never below where it already is.
+ALTER SEQUENCE menuitemreview_seq RESTART WITH (SELECT GREATEST(COALESCE(MAX(id), 0) + 50,
+    (SELECT current_value + 50 FROM information_schema.sequences WHERE sequence_name = 'MENUITEMREVIEW_SEQ')) FROM menuitemreview);
+ALTER SEQUENCE recommendation_request_seq RESTART WITH (SELECT GREATEST(COALESCE(MAX(id), 0) + 50,
+    (SELECT current_value + 50 FROM information_schema.sequences WHERE sequence_name = 'RECOMMENDATION_REQUEST_SEQ')) FROM recommendation_request);
+ALTER SEQUENCE restaurant_seq RESTART WITH (SELECT GREATEST(COALESCE(MAX(id), 0) + 50,
+    (SELECT current_value + 50 FROM information_schema.sequences WHERE sequence_name = 'RESTAURANT_SEQ')) FROM restaurant);
+ALTER SEQUENCE ucsbdates_seq RESTART WITH (SELECT GREATEST(COALESCE(MAX(id), 0) + 50,
+    (SELECT current_value + 50 FROM information_schema.sequences WHERE sequence_name = 'UCSBDATES_SEQ')) FROM ucsbdates);
+ALTER SEQUENCE ucsbdiningcommonsmenuitems_seq RESTART WITH (SELECT GREATEST(COALESCE(MAX(id), 0) + 50,
+    (SELECT current_value + 50 FROM information_schema.sequences WHERE sequence_name = 'UCSBDININGCOMMONSMENUITEMS_SEQ')) FROM ucsbdiningcommonsmenuitems);
+ALTER SEQUENCE users_seq RESTART WITH (SELECT GREATEST(COALESCE(MAX(id), 0) + 50,
+    (SELECT current_value + 50 FROM information_schema.sequences WHERE sequence_name = 'USERS_SEQ')) FROM users);
@@ -0,0 +1,29 @@
+-- Runs at every startup (spring.sql.init), after Hibernate has updated the
+-- schema, so each statement must be safe to repeat, including by several
+-- instances starting at once.
+
+-- One change counter per table behind an ETag (see TableVersionService)
+INSERT INTO table_versions (table_name, version)
+VALUES ('MenuItemReview', 0), ('RecommendationRequest', 0), ('Restaurant', 0),
+    ('UCSBDate', 0), ('UCSBDiningCommons', 0), ('UCSBDiningCommonsMenuItem', 0), ('UCSBOrganization', 0)
+ON CONFLICT (table_name) DO NOTHING;
+
+-- Ids come from sequences read 50 at a time (@SequenceGenerator with
+-- allocationSize = 50), and Hibernate's pooled optimizer treats each value
+-- it reads as the top of a block of 50 ids. A sequence that is behind its
+-- table (rows inserted before the sequences existed) is moved up to
+-- max(id), so the next block starts above the existing rows. A sequence
+-- that is not behind is left alone, so an instance starting up can never
+-- move it back under a block another instance is using.
+SELECT setval('menuitemreview_seq', (SELECT MAX(id) FROM menuitemreview))
+WHERE (SELECT MAX(id) FROM menuitemreview) > (SELECT CASE WHEN is_called THEN last_value ELSE last_value - 50 END FROM menuitemreview_seq);
+SELECT setval('recommendation_request_seq', (SELECT MAX(id) FROM recommendation_request))
+WHERE (SELECT MAX(id) FROM recommendation_request) > (SELECT CASE WHEN is_called THEN last_value ELSE last_value - 50 END FROM recommendation_request_seq);
+SELECT setval('restaurant_seq', (SELECT MAX(id) FROM restaurant))
+WHERE (SELECT MAX(id) FROM restaurant) > (SELECT CASE WHEN is_called THEN last_value ELSE last_value - 50 END FROM restaurant_seq);
+SELECT setval('ucsbdates_seq', (SELECT MAX(id) FROM ucsbdates))
+WHERE (SELECT MAX(id) FROM ucsbdates) > (SELECT CASE WHEN is_called THEN last_value ELSE last_value - 50 END FROM ucsbdates_seq);
+SELECT setval('ucsbdiningcommonsmenuitems_seq', (SELECT MAX(id) FROM ucsbdiningcommonsmenuitems))
+WHERE (SELECT MAX(id) FROM ucsbdiningcommonsmenuitems) > (SELECT CASE WHEN is_called THEN last_value ELSE last_value - 50 END FROM ucsbdiningcommonsmenuitems_seq);
+SELECT setval('users_seq', (SELECT MAX(id) FROM users))
+WHERE (SELECT MAX(id) FROM users) > (SELECT CASE WHEN is_called THEN last_value ELSE last_value - 50 END FROM users_seq);
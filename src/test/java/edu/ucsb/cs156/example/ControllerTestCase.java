@@ -10,6 +10,9 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import edu.ucsb.cs156.example.services.CurrentUserService;
 import edu.ucsb.cs156.example.services.GrantedAuthoritiesService;
+import edu.ucsb.cs156.example.services.JsonCacheService;
+import edu.ucsb.cs156.example.services.ReadService;
+import edu.ucsb.cs156.example.services.TableVersionService;
 import edu.ucsb.cs156.example.testconfig.TestConfig;
 import org.springframework.test.web.servlet.MvcResult;
 
@@ -17,7 +20,7 @@ import java.io.UnsupportedEncodingException;
 import java.util.Map;
 
 @ActiveProfiles("test")
-@Import(TestConfig.class)
+@Import({ TestConfig.class, JsonCacheService.class, ReadService.class })
 public abstract class ControllerTestCase {
   @Autowired
   public CurrentUserService currentUserService;
@@ -25,6 +28,9 @@ public abstract class ControllerTestCase {
   @Autowired
   public GrantedAuthoritiesService grantedAuthoritiesService;
 
+  @Autowired
+  public TableVersionService tableVersionService;
+
   @Autowired
   public MockMvc mockMvc;
 
@@ -0,0 +1,155 @@
+package edu.ucsb.cs156.example.aop;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.joran.JoranConfigurator;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import edu.ucsb.cs156.example.config.RequestLoggingProperties;
+
+class LoggingAspectTests {
+
+  public static class ThingsController {
+    @GetMapping("/api/things/all")
+    public String allThings() {
+      return "all";
+    }
+
+    @PostMapping("/api/things/post")
+    public String postThing() {
+      return "posted";
+    }
+  }
+
+  RequestLoggingProperties properties = new RequestLoggingProperties();
+  ThingsController controller;
+  Logger logger = (Logger) LoggerFactory.getLogger(LoggingAspect.class);
+  ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+  @BeforeEach
+  void setup() {
+    LoggingAspect aspect = new LoggingAspect();
+    ReflectionTestUtils.setField(aspect, "properties", properties);
+    AspectJProxyFactory factory = new AspectJProxyFactory(new ThingsController());
+    factory.addAspect(aspect);
+    controller = factory.getProxy();
+
+    appender.start();
+    logger.addAppender(appender);
+    RequestContextHolder.setRequestAttributes(
+        new ServletRequestAttributes(new MockHttpServletRequest("GET", "/api/things/all")));
+  }
+
+  @AfterEach
+  void teardown() {
+    logger.detachAppender(appender);
+    RequestContextHolder.resetRequestAttributes();
+  }
+
+  private List<String> messages() {
+    return appender.list.stream().map(ILoggingEvent::getFormattedMessage).collect(Collectors.toList());
+  }
+
+  @Test
+  void logs_every_request_by_default() {
+    controller.allThings();
+    controller.allThings();
+
+    assertEquals(List.of(
+        "===== GET /api/things/all handled by allThings in " + ThingsController.class.getName(),
+        "===== GET /api/things/all handled by allThings in " + ThingsController.class.getName()),
+        messages());
+  }
+
+  @Test
+  void logs_nothing_when_disabled() {
+    properties.setEnabled(false);
+
+    controller.allThings();
+
+    assertTrue(messages().isEmpty());
+  }
+
+  @Test
+  void logs_nothing_for_stoplisted_controllers() {
+    properties.setStoplist(Set.of(ThingsController.class.getName()));
+
+    controller.allThings();
+
+    assertTrue(messages().isEmpty());
+  }
+
+  @Test
+  void logs_nothing_outside_a_servlet_request() {
+    RequestContextHolder.resetRequestAttributes();
+
+    controller.allThings();
+
+    assertTrue(messages().isEmpty());
+  }
+
+  @Test
+  void method_rates_override_controller_rates_which_override_the_default() {
+    properties.setDefaultSampleRate(0);
+    properties.setSampleRates(Map.of(
+        "ThingsController", 1.0,
+        "ThingsController.allThings", 0.0));
+
+    controller.allThings();
+    controller.postThing();
+
+    assertEquals(1, messages().size());
+    assertTrue(messages().get(0).contains("handled by postThing"));
+  }
+
+  @Test
+  void logs_about_the_sampled_fraction_of_requests() {
+    properties.setDefaultSampleRate(0.25);
+
+    for (int i = 0; i < 4000; i++) {
+      controller.allThings();
+    }
+
+    int logged = messages().size();
+    assertTrue(logged > 800 && logged < 1200, () -> "logged " + logged + " of 4000");
+  }
+
+  @Test
+  void request_lines_go_through_a_non_blocking_async_appender() throws Exception {
+    LoggerContext context = new LoggerContext();
+    JoranConfigurator configurator = new JoranConfigurator();
+    configurator.setContext(context);
+    configurator.doConfigure(getClass().getResource("/logback-spring.xml"));
+
+    Logger requests = context.getLogger(LoggingAspect.class);
+    AsyncAppender async = (AsyncAppender) requests.getAppender("ASYNC_REQUESTS");
+
+    assertFalse(requests.isAdditive());
+    assertTrue(async.isNeverBlock());
+    assertNotNull(async.getAppender("CONSOLE"));
+    context.stop();
+  }
+}
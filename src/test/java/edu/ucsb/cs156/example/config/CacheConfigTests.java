@@ -0,0 +1,30 @@
+package edu.ucsb.cs156.example.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+public class CacheConfigTests {
+
+  @Test
+  public void responses_are_weighed_by_their_length_in_bytes() {
+    assertEquals(3, CacheConfig.weigh("W/\"UCSBDate-1\"", new byte[3]));
+    assertEquals(1, CacheConfig.weigh("W/\"UCSBDate-1\"", "not bytes"));
+  }
+
+  @Test
+  public void the_cache_holds_at_most_max_bytes_of_responses() {
+    Cache<Object, Object> cache = CacheConfig.caffeine(100, Duration.ofMinutes(10)).executor(Runnable::run).build();
+
+    cache.put("a", new byte[60]);
+    cache.put("b", new byte[60]);
+    cache.cleanUp();
+
+    assertEquals(1, cache.estimatedSize());
+    assertEquals(60, cache.policy().eviction().get().weightedSize().getAsLong());
+  }
+}
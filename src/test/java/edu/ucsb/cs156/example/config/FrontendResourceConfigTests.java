@@ -0,0 +1,95 @@
+package edu.ucsb.cs156.example.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MvcResult;
+
+import edu.ucsb.cs156.example.ControllerTestCase;
+import edu.ucsb.cs156.example.controllers.FrontendController;
+import edu.ucsb.cs156.example.repositories.UserRepository;
+import edu.ucsb.cs156.example.testconfig.TestConfig;
+
+/**
+ * Serves the stand-in build under src/test/resources/public.
+ */
+@WebMvcTest(controllers = FrontendController.class)
+@Import(TestConfig.class)
+public class FrontendResourceConfigTests extends ControllerTestCase {
+
+  @MockBean
+  UserRepository userRepository;
+
+  @Autowired
+  SpaFallbackFilter spaFallbackFilter;
+
+  @Test
+  public void hashed_bundles_are_cached_for_a_year_as_immutable() throws Exception {
+    mockMvc.perform(get("/static/js/main.1a2b3c4d.js"))
+        .andExpect(status().isOk())
+        .andExpect(header().string("Cache-Control", "max-age=31536000, public, immutable"))
+        .andExpect(content().string("console.log(\"team03\");\n"));
+  }
+
+  @Test
+  public void immutable_appends_the_directive_to_any_cache_control() {
+    assertEquals("max-age=60, public, immutable",
+        FrontendResourceConfig.immutable(CacheControl.maxAge(60, TimeUnit.SECONDS).cachePublic()).getHeaderValue());
+  }
+
+  @Test
+  public void index_html_is_revalidated_and_answered_with_304_when_unchanged() throws Exception {
+    String index = new String(new ClassPathResource("public/index.html").getInputStream().readAllBytes(),
+        StandardCharsets.UTF_8);
+
+    MvcResult response = mockMvc.perform(get("/"))
+        .andExpect(status().isOk())
+        .andExpect(header().string("Cache-Control", "no-cache"))
+        .andExpect(content().string(index))
+        .andReturn();
+    String etag = response.getResponse().getHeader("ETag");
+
+    mockMvc.perform(get("/ucsbdates/list").header("If-None-Match", etag))
+        .andExpect(status().isNotModified());
+  }
+
+  @Test
+  public void index_html_asked_for_by_name_is_not_cached_like_a_bundle() throws Exception {
+    String etag = mockMvc.perform(get("/index.html"))
+        .andExpect(status().isOk())
+        .andExpect(header().string("Cache-Control", "no-cache"))
+        .andReturn().getResponse().getHeader("ETag");
+
+    mockMvc.perform(get("/index.html").header("If-None-Match", etag))
+        .andExpect(status().isNotModified());
+  }
+
+  @Test
+  public void index_html_is_read_once_and_then_served_from_memory() throws Exception {
+    String first = mockMvc.perform(get("/")).andReturn().getResponse().getContentAsString();
+    Resource indexHtml = (Resource) ReflectionTestUtils.getField(spaFallbackFilter, "indexHtml");
+    ReflectionTestUtils.setField(spaFallbackFilter, "indexHtml", new ClassPathResource("public/missing.html"));
+    try {
+      mockMvc.perform(get("/restaurants"))
+          .andExpect(status().isOk())
+          .andExpect(content().string(first));
+    } finally {
+      ReflectionTestUtils.setField(spaFallbackFilter, "indexHtml", indexHtml);
+    }
+  }
+}
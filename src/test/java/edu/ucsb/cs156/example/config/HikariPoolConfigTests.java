@@ -0,0 +1,50 @@
+package edu.ucsb.cs156.example.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+public class HikariPoolConfigTests {
+
+  private HikariDataSource sized(int poolSize, int dbCores, HikariDataSource dataSource) {
+    BeanPostProcessor sizer = HikariPoolConfig.hikariPoolSizer(poolSize, dbCores);
+    assertSame(dataSource, sizer.postProcessAfterInitialization(dataSource, "dataSource"));
+    return dataSource;
+  }
+
+  @Test
+  public void an_explicit_pool_size_wins() {
+    assertEquals(4, sized(4, 8, new HikariDataSource()).getMaximumPoolSize());
+  }
+
+  @Test
+  public void the_database_cores_give_cores_times_two_plus_one() {
+    assertEquals(17, sized(0, 8, new HikariDataSource()).getMaximumPoolSize());
+  }
+
+  @Test
+  public void with_neither_set_hikari_keeps_its_default_of_ten() {
+    HikariDataSource dataSource = sized(0, 0, new HikariDataSource());
+    // Hikari fills in its defaults when the pool starts
+    dataSource.setJdbcUrl("jdbc:h2:mem:unsized");
+    dataSource.validate();
+    assertEquals(10, dataSource.getMaximumPoolSize());
+  }
+
+  @Test
+  public void with_neither_set_a_configured_maximum_pool_size_is_kept() {
+    HikariDataSource dataSource = new HikariDataSource();
+    dataSource.setMaximumPoolSize(25);
+    assertEquals(25, sized(0, 0, dataSource).getMaximumPoolSize());
+  }
+
+  @Test
+  public void other_beans_pass_through_untouched() {
+    Object bean = new Object();
+    assertSame(bean, HikariPoolConfig.hikariPoolSizer(4, 0).postProcessAfterInitialization(bean, "other"));
+  }
+}
@@ -0,0 +1,64 @@
+package edu.ucsb.cs156.example.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+public class ReplicaDataSourceConfigTests {
+
+  // SpringApplication installs the conversion service that reads "2s" as a
+  // Duration; the runner does not, so it is added here.
+  private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+      .withInitializer(context -> context.getBeanFactory()
+          .setConversionService(ApplicationConversionService.getSharedInstance()))
+      .withConfiguration(AutoConfigurations.of(DataSourceAutoConfiguration.class))
+      .withUserConfiguration(ReplicaDataSourceConfig.class)
+      .withPropertyValues(
+          "spring.datasource.url=jdbc:h2:mem:primary",
+          "spring.datasource.hikari.maximum-pool-size=3");
+
+  @Test
+  public void without_a_replica_url_the_datasource_is_the_usual_pool() {
+    contextRunner.run(context -> {
+      assertThat(context).doesNotHaveBean(ReplicaRoutingDataSource.class);
+      assertThat(context.getBean(DataSource.class)).isInstanceOf(HikariDataSource.class);
+    });
+  }
+
+  @Test
+  public void an_empty_replica_url_leaves_the_datasource_alone() {
+    contextRunner.withPropertyValues("app.datasource.replica.url=").run(context -> {
+      assertThat(context).doesNotHaveBean(ReplicaRoutingDataSource.class);
+      assertThat(context.getBean(DataSource.class)).isInstanceOf(HikariDataSource.class);
+    });
+  }
+
+  @Test
+  public void with_a_replica_url_the_datasource_routes_between_two_pools() {
+    contextRunner.withPropertyValues(
+        "app.datasource.replica.url=jdbc:h2:mem:replica",
+        "app.datasource.replica.lag-query=select 0",
+        "app.datasource.replica.max-lag=2s")
+        .run(context -> {
+          assertThat(context).hasSingleBean(ReplicaRoutingDataSource.class);
+          assertThat(context.getBean(DataSource.class)).isInstanceOf(LazyConnectionDataSourceProxy.class);
+
+          HikariDataSource primary = context.getBean("primaryDataSource", HikariDataSource.class);
+          HikariDataSource replica = context.getBean("replicaDataSource", HikariDataSource.class);
+          assertThat(primary.getJdbcUrl()).isEqualTo("jdbc:h2:mem:primary");
+          assertThat(replica.getJdbcUrl()).isEqualTo("jdbc:h2:mem:replica");
+          assertThat(replica.getPoolName()).isEqualTo("replica");
+          assertThat(replica.isReadOnly()).isTrue();
+          assertThat(replica.getMaximumPoolSize()).isEqualTo(3);
+        });
+  }
+}
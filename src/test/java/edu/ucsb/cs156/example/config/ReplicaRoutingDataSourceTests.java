@@ -0,0 +1,216 @@
+package edu.ucsb.cs156.example.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.SQLException;
+import java.time.Duration;
+
+import javax.servlet.http.Cookie;
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import edu.ucsb.cs156.example.config.ReplicaRoutingDataSource.Route;
+
+public class ReplicaRoutingDataSourceTests {
+
+  private final DataSource primary = mock(DataSource.class);
+
+  private EmbeddedDatabase replica;
+
+  private MockHttpServletResponse response;
+
+  @AfterEach
+  public void cleanUp() {
+    cleanUpTransaction();
+    RequestContextHolder.resetRequestAttributes();
+    if (replica != null) {
+      replica.shutdown();
+    }
+  }
+
+  private ReplicaRoutingDataSource routing(String lagQuery) {
+    replica = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+    return routing(replica, lagQuery);
+  }
+
+  private ReplicaRoutingDataSource routing(DataSource replica, String lagQuery) {
+    return new ReplicaRoutingDataSource(primary, replica, lagQuery, Duration.ofMillis(1500), Duration.ofSeconds(1));
+  }
+
+  private void request(String method, Cookie... cookies) {
+    MockHttpServletRequest request = new MockHttpServletRequest(method, "/api/ucsbdates/all");
+    if (cookies.length > 0) {
+      request.setCookies(cookies);
+    }
+    response = new MockHttpServletResponse();
+    RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, response));
+  }
+
+  private void transaction(boolean readOnly) {
+    TransactionSynchronizationManager.setActualTransactionActive(true);
+    TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+  }
+
+  @Test
+  public void a_get_reads_from_the_replica_once_it_is_in_sync() {
+    ReplicaRoutingDataSource routing = routing("select 0");
+    request("GET");
+    transaction(true);
+
+    assertEquals(Route.PRIMARY, routing.determineCurrentLookupKey());
+    routing.checkLag();
+    assertEquals(Route.REPLICA, routing.determineCurrentLookupKey());
+  }
+
+  @Test
+  public void a_get_outside_a_transaction_reads_from_the_replica() {
+    ReplicaRoutingDataSource routing = routing("select 0");
+    routing.checkLag();
+    request("GET");
+
+    assertEquals(Route.REPLICA, routing.determineCurrentLookupKey());
+  }
+
+  @Test
+  public void a_lagging_replica_is_not_read() {
+    ReplicaRoutingDataSource routing = routing("select 1.6");
+    routing.checkLag();
+    request("GET");
+    transaction(true);
+
+    assertFalse(routing.isReplicaInSync());
+    assertEquals(1.6, routing.getLagSeconds());
+    assertEquals(Route.PRIMARY, routing.determineCurrentLookupKey());
+  }
+
+  @Test
+  public void a_replica_that_is_not_streaming_is_not_read() {
+    ReplicaRoutingDataSource routing = routing("select null");
+    routing.checkLag();
+
+    assertFalse(routing.isReplicaInSync());
+    assertTrue(Double.isNaN(routing.getLagSeconds()));
+  }
+
+  @Test
+  public void an_empty_lag_result_is_not_in_sync() {
+    ReplicaRoutingDataSource routing = routing("select 0 from dual where 1 = 0");
+    routing.checkLag();
+
+    assertFalse(routing.isReplicaInSync());
+    assertTrue(Double.isNaN(routing.getLagSeconds()));
+  }
+
+  @Test
+  public void the_reads_of_a_put_go_to_the_primary_even_in_a_read_only_transaction() {
+    ReplicaRoutingDataSource routing = routing("select 0");
+    routing.checkLag();
+    request("PUT");
+    transaction(true);
+
+    assertEquals(Route.PRIMARY, routing.determineCurrentLookupKey());
+  }
+
+  @Test
+  public void reads_outside_a_request_go_to_the_primary() {
+    ReplicaRoutingDataSource routing = routing("select 0");
+    routing.checkLag();
+    transaction(true);
+
+    assertEquals(Route.PRIMARY, routing.determineCurrentLookupKey());
+  }
+
+  @Test
+  public void a_write_goes_to_the_primary_and_keeps_that_browser_on_it_for_max_lag() {
+    ReplicaRoutingDataSource routing = routing("select 0");
+    routing.checkLag();
+    request("POST");
+    transaction(false);
+
+    assertEquals(Route.PRIMARY, routing.determineCurrentLookupKey());
+    assertEquals(Route.PRIMARY, routing.determineCurrentLookupKey());
+    Cookie cookie = response.getCookie(ReplicaRoutingDataSource.READ_PRIMARY_COOKIE);
+    assertNotNull(cookie);
+    assertEquals(2, cookie.getMaxAge());
+    assertEquals("/", cookie.getPath());
+    assertEquals(1, response.getHeaders("Set-Cookie").size());
+
+    cleanUpTransaction();
+    request("GET", cookie);
+    transaction(true);
+    assertEquals(Route.PRIMARY, routing.determineCurrentLookupKey());
+
+    request("GET");
+    assertEquals(Route.REPLICA, routing.determineCurrentLookupKey());
+  }
+
+  @Test
+  public void a_write_outside_a_request_sets_no_cookie() {
+    ReplicaRoutingDataSource routing = routing("select 0");
+    routing.checkLag();
+    transaction(false);
+
+    assertEquals(Route.PRIMARY, routing.determineCurrentLookupKey());
+  }
+
+  @Test
+  public void a_failed_lag_check_stops_reads_from_the_replica() throws SQLException {
+    replica = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+    DataSource unreachable = mock(DataSource.class);
+    when(unreachable.getConnection())
+        .thenAnswer(invocation -> replica.getConnection())
+        .thenThrow(new SQLException("Connection refused"));
+    ReplicaRoutingDataSource routing = routing(unreachable, "select 0");
+    routing.checkLag();
+    assertTrue(routing.isReplicaInSync());
+
+    routing.checkLag();
+
+    assertFalse(routing.isReplicaInSync());
+    assertTrue(Double.isNaN(routing.getLagSeconds()));
+  }
+
+  @Test
+  public void a_runtime_exception_from_the_replica_is_a_failed_check() throws SQLException {
+    DataSource failing = mock(DataSource.class);
+    when(failing.getConnection()).thenThrow(new IllegalStateException("pool closed"));
+    ReplicaRoutingDataSource routing = routing(failing, "select 0");
+
+    routing.checkLag();
+
+    assertFalse(routing.isReplicaInSync());
+    assertTrue(Double.isNaN(routing.getLagSeconds()));
+  }
+
+  @Test
+  public void the_lag_is_checked_in_the_background_until_close() throws InterruptedException {
+    ReplicaRoutingDataSource routing = routing("select 0");
+    routing.afterPropertiesSet();
+    for (int i = 0; i < 50 && !routing.isReplicaInSync(); i++) {
+      Thread.sleep(100);
+    }
+    routing.close();
+
+    assertTrue(routing.isReplicaInSync());
+  }
+
+  private void cleanUpTransaction() {
+    TransactionSynchronizationManager.setActualTransactionActive(false);
+    TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+  }
+}
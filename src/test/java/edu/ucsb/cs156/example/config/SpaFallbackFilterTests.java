@@ -0,0 +1,122 @@
+package edu.ucsb.cs156.example.config;
+
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.head;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrlPattern;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.test.web.servlet.ResultActions;
+
+import edu.ucsb.cs156.example.ControllerTestCase;
+import edu.ucsb.cs156.example.controllers.FrontendController;
+import edu.ucsb.cs156.example.repositories.UserRepository;
+import edu.ucsb.cs156.example.testconfig.TestConfig;
+
+/**
+ * Which requests SpaFallbackFilter answers with index.html, and which it
+ * passes on to the rest of the application.
+ */
+@WebMvcTest(controllers = FrontendController.class)
+@Import(TestConfig.class)
+public class SpaFallbackFilterTests extends ControllerTestCase {
+
+  @MockBean
+  UserRepository userRepository;
+
+  private static String index() throws Exception {
+    return new String(new ClassPathResource("public/index.html").getInputStream().readAllBytes(),
+        StandardCharsets.UTF_8);
+  }
+
+  private static void assertNotIndex(ResultActions result) throws Exception {
+    result
+        .andExpect(header().doesNotExist("ETag"))
+        .andExpect(content().string(not(index())));
+  }
+
+  @Test
+  public void client_routes_are_answered_with_index_html() throws Exception {
+    mockMvc.perform(get("/ucsbdates/edit/3"))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType("text/html"))
+        .andExpect(header().string("Cache-Control", "no-cache"))
+        .andExpect(header().string("ETag", startsWith("W/\"")))
+        .andExpect(content().string(index()));
+  }
+
+  @Test
+  public void head_of_a_client_route_has_the_headers_but_no_body() throws Exception {
+    mockMvc.perform(head("/ucsbdates/edit/3"))
+        .andExpect(status().isOk())
+        .andExpect(header().exists("ETag"))
+        .andExpect(content().string(""));
+  }
+
+  @Test
+  public void a_post_to_a_client_route_is_passed_on() throws Exception {
+    assertNotIndex(mockMvc.perform(post("/ucsbdates/edit/3")));
+  }
+
+  @Test
+  public void api_calls_are_passed_on() throws Exception {
+    assertNotIndex(mockMvc.perform(get("/api/ucsbdates/all")).andExpect(status().isNotFound()));
+  }
+
+  @Test
+  public void the_api_root_is_passed_on() throws Exception {
+    assertNotIndex(mockMvc.perform(get("/api")).andExpect(status().isNotFound()));
+  }
+
+  @Test
+  public void a_client_route_that_only_starts_like_the_api_is_answered_with_index_html() throws Exception {
+    mockMvc.perform(get("/apidocs"))
+        .andExpect(status().isOk())
+        .andExpect(content().string(index()));
+  }
+
+  @Test
+  public void oauth2_requests_are_passed_on() throws Exception {
+    assertNotIndex(mockMvc.perform(get("/oauth2/authorization/google"))
+        .andExpect(status().isFound())
+        .andExpect(redirectedUrlPattern("https://accounts.google.com/**")));
+  }
+
+  @Test
+  public void logout_is_passed_on() throws Exception {
+    assertNotIndex(mockMvc.perform(get("/logout"))
+        .andExpect(status().isFound())
+        .andExpect(redirectedUrl("/")));
+  }
+
+  @Test
+  public void swagger_ui_is_passed_on() throws Exception {
+    assertNotIndex(mockMvc.perform(get("/swagger-ui/")).andExpect(status().isNotFound()));
+  }
+
+  @Test
+  public void index_html_itself_is_answered_like_a_client_route() throws Exception {
+    mockMvc.perform(get("/index.html"))
+        .andExpect(status().isOk())
+        .andExpect(header().string("Cache-Control", "no-cache"))
+        .andExpect(header().exists("ETag"))
+        .andExpect(content().string(index()));
+  }
+
+  @Test
+  public void files_are_passed_on_even_when_missing() throws Exception {
+    assertNotIndex(mockMvc.perform(get("/static/x.js")).andExpect(status().isNotFound()));
+  }
+}
@@ -0,0 +1,44 @@
+package edu.ucsb.cs156.example.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import org.apache.coyote.ProtocolHandler;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+
+public class VirtualThreadConfigTests {
+
+  private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+      .withUserConfiguration(VirtualThreadConfig.class);
+
+  @Test
+  public void the_customizer_is_only_registered_when_enabled() {
+    contextRunner.run(context -> assertThat(context).doesNotHaveBean(TomcatProtocolHandlerCustomizer.class));
+    contextRunner.withPropertyValues("app.virtual-threads.enabled=false")
+        .run(context -> assertThat(context).doesNotHaveBean(TomcatProtocolHandlerCustomizer.class));
+    contextRunner.withPropertyValues("app.virtual-threads.enabled=true")
+        .run(context -> assertThat(context).hasSingleBean(TomcatProtocolHandlerCustomizer.class));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void on_jdk_17_the_customizer_leaves_tomcats_pool_alone() {
+    assumeTrue(Runtime.version().feature() < 21, "virtual threads exist on this JDK");
+    VirtualThreadConfig config = new VirtualThreadConfig();
+    ProtocolHandler protocolHandler = mock(ProtocolHandler.class);
+
+    ((TomcatProtocolHandlerCustomizer<ProtocolHandler>) config.virtualThreadProtocolHandlerCustomizer())
+        .customize(protocolHandler);
+    config.shutdown();
+
+    verify(protocolHandler, never()).setExecutor(any());
+    assertTrue(VirtualThreadConfig.newVirtualThreadPerTaskExecutor().isEmpty());
+  }
+}
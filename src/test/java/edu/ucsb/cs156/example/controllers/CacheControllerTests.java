@@ -0,0 +1,105 @@
+package edu.ucsb.cs156.example.controllers;
+
+import edu.ucsb.cs156.example.repositories.UserRepository;
+import edu.ucsb.cs156.example.testconfig.TestConfig;
+import edu.ucsb.cs156.example.ControllerTestCase;
+import edu.ucsb.cs156.example.entities.UCSBDate;
+import edu.ucsb.cs156.example.models.CacheRegionStats;
+import edu.ucsb.cs156.example.services.HibernateCacheService;
+import edu.ucsb.cs156.example.services.JsonCacheService;
+
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@WebMvcTest(controllers = CacheController.class)
+@Import(TestConfig.class)
+public class CacheControllerTests extends ControllerTestCase {
+
+        @MockBean
+        HibernateCacheService hibernateCacheService;
+
+        @MockBean
+        JsonCacheService jsonCacheService;
+
+        @MockBean
+        UserRepository userRepository;
+
+        // Authorization tests for /api/admin/cache
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void regular_users_cannot_get_cache_statistics() throws Exception {
+                mockMvc.perform(get("/api/admin/cache"))
+                                .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void regular_users_cannot_evict_the_cache() throws Exception {
+                mockMvc.perform(delete("/api/admin/cache").with(csrf()))
+                                .andExpect(status().is(403));
+        }
+
+        // Tests with mocks for the cache service
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void an_admin_user_can_get_cache_statistics() throws Exception {
+
+                // arrange
+
+                List<CacheRegionStats> stats = List.of(CacheRegionStats.builder()
+                                .region("ucsbdates")
+                                .hitCount(5)
+                                .missCount(1)
+                                .putCount(1)
+                                .build());
+
+                when(hibernateCacheService.statistics()).thenReturn(stats);
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/admin/cache"))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+
+                assertEquals(mapper.writeValueAsString(stats), response.getResponse().getContentAsString());
+        }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void an_admin_user_can_evict_the_cache() throws Exception {
+
+                // arrange
+                tableVersionService.bump(UCSBDate.class);
+                String etag = tableVersionService.etag(UCSBDate.class);
+
+                // act
+                MvcResult response = mockMvc.perform(delete("/api/admin/cache").with(csrf()))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+
+                verify(hibernateCacheService, times(1)).evictAll();
+                verify(jsonCacheService, times(1)).evictAll();
+                assertNotEquals(etag, tableVersionService.etag(UCSBDate.class));
+                Map<String, Object> json = responseToJson(response);
+                assertEquals("Second-level cache and JSON responses evicted", json.get("message"));
+        }
+}
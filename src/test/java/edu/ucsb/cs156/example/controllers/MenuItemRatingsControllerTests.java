@@ -0,0 +1,152 @@
+package edu.ucsb.cs156.example.controllers;
+
+import edu.ucsb.cs156.example.repositories.UserRepository;
+import edu.ucsb.cs156.example.testconfig.TestConfig;
+import edu.ucsb.cs156.example.ControllerTestCase;
+import edu.ucsb.cs156.example.entities.MenuItemRatingSummary;
+import edu.ucsb.cs156.example.entities.UCSBDiningCommonsMenuItem;
+import edu.ucsb.cs156.example.models.RatedMenuItem;
+import edu.ucsb.cs156.example.services.MenuItemRatingService;
+
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@WebMvcTest(controllers = MenuItemRatingsController.class)
+@Import(TestConfig.class)
+public class MenuItemRatingsControllerTests extends ControllerTestCase {
+
+        @MockBean
+        MenuItemRatingService menuItemRatingService;
+
+        @MockBean
+        UserRepository userRepository;
+
+        // Authorization tests for /api/menuitemratings
+
+        @Test
+        public void logged_out_users_cannot_get_a_rating() throws Exception {
+                mockMvc.perform(get("/api/menuitemratings?itemId=7"))
+                                .andExpect(status().is(403));
+        }
+
+        @Test
+        public void logged_out_users_cannot_get_top_rated() throws Exception {
+                mockMvc.perform(get("/api/menuitemratings/top?diningCommonsCode=ortega"))
+                                .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_regular_users_cannot_rebuild() throws Exception {
+                mockMvc.perform(post("/api/menuitemratings/rebuild").with(csrf()))
+                                .andExpect(status().is(403));
+        }
+
+        // Tests with mocks for the rating service
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_get_the_rating_of_an_item() throws Exception {
+
+                // arrange
+
+                MenuItemRatingSummary summary = MenuItemRatingSummary.builder()
+                                .itemId(7L)
+                                .reviewCount(2)
+                                .starTotal(9)
+                                .fourStars(1)
+                                .fiveStars(1)
+                                .build();
+
+                when(menuItemRatingService.summaryFor(eq(7L))).thenReturn(summary);
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/menuitemratings?itemId=7"))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+
+                Map<String, Object> json = responseToJson(response);
+                assertEquals(4.5, json.get("averageStars"));
+                assertEquals(mapper.writeValueAsString(summary), response.getResponse().getContentAsString());
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_get_top_rated_items_of_a_commons() throws Exception {
+
+                // arrange
+
+                UCSBDiningCommonsMenuItem pizza = UCSBDiningCommonsMenuItem.builder()
+                                .id(7L)
+                                .diningCommonsCode("ortega")
+                                .name("Pizza")
+                                .station("Entrees")
+                                .build();
+                MenuItemRatingSummary rating = MenuItemRatingSummary.builder()
+                                .itemId(7L)
+                                .reviewCount(1)
+                                .starTotal(5)
+                                .fiveStars(1)
+                                .build();
+                List<RatedMenuItem> top = List.of(new RatedMenuItem(pizza, rating));
+
+                when(menuItemRatingService.topRated(eq("ortega"), eq(3))).thenReturn(top);
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/menuitemratings/top?diningCommonsCode=ortega&n=3"))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+
+                verify(menuItemRatingService, times(1)).topRated("ortega", 3);
+                assertEquals(mapper.writeValueAsString(top), response.getResponse().getContentAsString());
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void top_rated_defaults_to_ten_and_is_capped_at_the_maximum() throws Exception {
+                mockMvc.perform(get("/api/menuitemratings/top?diningCommonsCode=ortega"))
+                                .andExpect(status().isOk());
+                mockMvc.perform(get("/api/menuitemratings/top?diningCommonsCode=ortega&n=1000"))
+                                .andExpect(status().isOk());
+
+                verify(menuItemRatingService, times(1)).topRated("ortega", 10);
+                verify(menuItemRatingService, times(1)).topRated("ortega", 100);
+        }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void an_admin_user_can_rebuild_the_ratings() throws Exception {
+
+                // arrange
+
+                when(menuItemRatingService.rebuild()).thenReturn(12);
+
+                // act
+                MvcResult response = mockMvc.perform(post("/api/menuitemratings/rebuild").with(csrf()))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+
+                verify(menuItemRatingService, times(1)).rebuild();
+                Map<String, Object> json = responseToJson(response);
+                assertEquals("Rebuilt ratings for 12 menu items", json.get("message"));
+        }
+}
@@ -3,12 +3,20 @@ package edu.ucsb.cs156.example.controllers;
 import edu.ucsb.cs156.example.repositories.UserRepository;
 import edu.ucsb.cs156.example.testconfig.TestConfig;
 import edu.ucsb.cs156.example.ControllerTestCase;
+import edu.ucsb.cs156.example.models.BatchItemResult;
+import edu.ucsb.cs156.example.services.JsonStreamingService;
+import edu.ucsb.cs156.example.services.MenuItemRatingService;
+import edu.ucsb.cs156.example.models.CursorPage;
+import edu.ucsb.cs156.example.models.ReviewDateCursor;
 import edu.ucsb.cs156.example.entities.MenuItemReview;
+import edu.ucsb.cs156.example.errors.EntityNotFoundException;
 import edu.ucsb.cs156.example.repositories.MenuItemReviewRepository;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Map;
+import java.util.List;
+import java.util.function.Supplier;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
@@ -16,6 +24,8 @@ import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -31,6 +41,8 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
 
 @WebMvcTest(controllers = MenuItemReviewController.class)
 @Import(TestConfig.class)
@@ -42,6 +54,12 @@ public class MenuItemReviewControllerTests extends ControllerTestCase {
         @MockBean
         UserRepository userRepository;
 
+        @MockBean
+        JsonStreamingService jsonStreamingService;
+
+        @MockBean
+        MenuItemRatingService menuItemRatingService;
+
         @Test
         public void logged_out_users_cannot_get_all() throws Exception {
                 mockMvc.perform(get("/api/menuitemreview/all"))
@@ -180,7 +198,7 @@ public class MenuItemReviewControllerTests extends ControllerTestCase {
                                 .dateReviewed(ldt1)
                                 .build();
 
-                when(menuItemReviewRepository.save(eq(menuItemReview1))).thenReturn(menuItemReview1);
+                when(menuItemRatingService.addReview(eq(menuItemReview1))).thenReturn(menuItemReview1);
 
                 // act
                 MvcResult response = mockMvc.perform(
@@ -190,7 +208,7 @@ public class MenuItemReviewControllerTests extends ControllerTestCase {
                                 .andExpect(status().isOk()).andReturn();
 
                 // assert
-                verify(menuItemReviewRepository, times(1)).save(menuItemReview1);
+                verify(menuItemRatingService, times(1)).addReview(menuItemReview1);
                 String expectedJson = mapper.writeValueAsString(menuItemReview1);
                 String responseString = response.getResponse().getContentAsString();
                 assertEquals(expectedJson, responseString);
@@ -212,8 +230,6 @@ public class MenuItemReviewControllerTests extends ControllerTestCase {
                                 .dateReviewed(ldt1)
                                 .build();
 
-                when(menuItemReviewRepository.findById(eq(15L))).thenReturn(Optional.of(menuItemReview1));
-
                 // act
                 MvcResult response = mockMvc.perform(
                                 delete("/api/menuitemreview?id=15")
@@ -221,8 +237,7 @@ public class MenuItemReviewControllerTests extends ControllerTestCase {
                                 .andExpect(status().isOk()).andReturn();
 
                 // assert
-                verify(menuItemReviewRepository, times(1)).findById(15L);
-                verify(menuItemReviewRepository, times(1)).delete(any());
+                verify(menuItemRatingService, times(1)).removeReview(15L);
 
                 Map<String, Object> json = responseToJson(response);
                 assertEquals("MenuItemReview with id 15 deleted", json.get("message"));
@@ -236,7 +251,7 @@ public class MenuItemReviewControllerTests extends ControllerTestCase {
                         throws Exception {
                 // arrange
 
-                when(menuItemReviewRepository.findById(eq(15L))).thenReturn(Optional.empty());
+                doThrow(new EntityNotFoundException(MenuItemReview.class, 15L)).when(menuItemRatingService).removeReview(15L);
 
                 // act
                 MvcResult response = mockMvc.perform(
@@ -245,7 +260,7 @@ public class MenuItemReviewControllerTests extends ControllerTestCase {
                                 .andExpect(status().isNotFound()).andReturn();
 
                 // assert
-                verify(menuItemReviewRepository, times(1)).findById(15L);
+                verify(menuItemRatingService, times(1)).removeReview(15L);
                 Map<String, Object> json = responseToJson(response);
                 assertEquals("MenuItemReview with id 15 not found", json.get("message"));
         }
@@ -256,16 +271,6 @@ public class MenuItemReviewControllerTests extends ControllerTestCase {
         public void admin_can_edit_an_existing_review() throws Exception {
                 // arrange
 
-                LocalDateTime ldt1 = LocalDateTime.parse("2022-01-03T00:00:00");
-
-                MenuItemReview menuItemReviewOrig = MenuItemReview.builder()
-                                .itemId(1L)
-                                .reviewerEmail("cyrus899@ucsb.edu")
-                                .stars(2)
-                                .comments("npc comment")
-                                .dateReviewed(ldt1)
-                                .build();
-
                 LocalDateTime ldt2 = LocalDateTime.parse("2022-02-03T00:00:00");
 
                 MenuItemReview menuItemReviewEdited = MenuItemReview.builder()
@@ -278,7 +283,7 @@ public class MenuItemReviewControllerTests extends ControllerTestCase {
 
                 String requestBody = mapper.writeValueAsString(menuItemReviewEdited);
 
-                when(menuItemReviewRepository.findById(eq(67L))).thenReturn(Optional.of(menuItemReviewOrig));
+                when(menuItemRatingService.updateReview(eq(67L), eq(menuItemReviewEdited))).thenReturn(menuItemReviewEdited);
 
                 // act
                       MvcResult response = mockMvc.perform(
@@ -290,8 +295,7 @@ public class MenuItemReviewControllerTests extends ControllerTestCase {
                                 .andExpect(status().isOk()).andReturn();
 
                 // assert
-                verify(menuItemReviewRepository, times(1)).findById(67L);
-                verify(menuItemReviewRepository, times(1)).save(menuItemReviewEdited); // should be saved with correct user
+                verify(menuItemRatingService, times(1)).updateReview(67L, menuItemReviewEdited);
                 String responseString = response.getResponse().getContentAsString();
                 assertEquals(requestBody, responseString);
         }
@@ -314,7 +318,8 @@ public class MenuItemReviewControllerTests extends ControllerTestCase {
 
                 String requestBody = mapper.writeValueAsString(menuItemReviewEdited);
 
-                when(menuItemReviewRepository.findById(eq(67L))).thenReturn(Optional.empty());
+                when(menuItemRatingService.updateReview(eq(67L), eq(menuItemReviewEdited)))
+                                .thenThrow(new EntityNotFoundException(MenuItemReview.class, 67L));
 
                 // act
                 MvcResult response = mockMvc.perform(
@@ -326,10 +331,368 @@ public class MenuItemReviewControllerTests extends ControllerTestCase {
                                 .andExpect(status().isNotFound()).andReturn();
 
                 // assert
-                verify(menuItemReviewRepository, times(1)).findById(67L);
+                verify(menuItemRatingService, times(1)).updateReview(67L, menuItemReviewEdited);
                 Map<String, Object> json = responseToJson(response);
                 assertEquals("MenuItemReview with id 67 not found", json.get("message"));
 
         }
 
-}
\ No newline at end of file
+        // Tests for keyset pagination at /api/menuitemreview/page
+
+        @Test
+        public void logged_out_users_cannot_get_page() throws Exception {
+                mockMvc.perform(get("/api/menuitemreview/page"))
+                                .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_gets_first_page_with_next_cursor() throws Exception {
+
+                // arrange
+
+                MenuItemReview first = MenuItemReview.builder().id(1L).comments("first").build();
+                MenuItemReview second = MenuItemReview.builder().id(2L).comments("second").build();
+                MenuItemReview third = MenuItemReview.builder().id(3L).comments("third").build();
+
+                when(menuItemReviewRepository.findByIdGreaterThan(eq(0L), eq(PageRequest.of(0, 3, Sort.by("id")))))
+                                .thenReturn(new ArrayList<>(Arrays.asList(first, second, third)));
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/menuitemreview/page?size=2"))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+
+                verify(menuItemReviewRepository, times(1)).findByIdGreaterThan(eq(0L), eq(PageRequest.of(0, 3, Sort.by("id"))));
+                String expectedJson = mapper.writeValueAsString(new CursorPage<>(Arrays.asList(first, second), 2L));
+                String responseString = response.getResponse().getContentAsString();
+                assertEquals(expectedJson, responseString);
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_gets_last_page_without_next_cursor() throws Exception {
+
+                // arrange
+
+                MenuItemReview last = MenuItemReview.builder().id(6L).comments("last").build();
+
+                when(menuItemReviewRepository.findByIdGreaterThan(eq(5L), eq(PageRequest.of(0, 21, Sort.by("id")))))
+                                .thenReturn(new ArrayList<>(Arrays.asList(last)));
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/menuitemreview/page?after=5"))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+
+                verify(menuItemReviewRepository, times(1)).findByIdGreaterThan(eq(5L), eq(PageRequest.of(0, 21, Sort.by("id"))));
+                String expectedJson = mapper.writeValueAsString(new CursorPage<>(Arrays.asList(last), null));
+                String responseString = response.getResponse().getContentAsString();
+                assertEquals(expectedJson, responseString);
+        }
+
+        // Tests for the filters at /api/menuitemreview/by*
+
+        @Test
+        public void logged_out_users_cannot_filter_reviews() throws Exception {
+                mockMvc.perform(get("/api/menuitemreview/byItem?itemId=7"))
+                                .andExpect(status().is(403));
+                mockMvc.perform(get("/api/menuitemreview/byReviewer?reviewerEmail=cgaucho@ucsb.edu"))
+                                .andExpect(status().is(403));
+                mockMvc.perform(get("/api/menuitemreview/byStars"))
+                                .andExpect(status().is(403));
+                mockMvc.perform(get("/api/menuitemreview/byDateReviewed?from=2023-01-01T00:00:00&to=2023-02-01T00:00:00"))
+                                .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_filter_reviews_by_item() throws Exception {
+
+                // arrange
+
+                MenuItemReview first = MenuItemReview.builder().id(4L).itemId(7L).stars(5).build();
+                MenuItemReview second = MenuItemReview.builder().id(9L).itemId(7L).stars(3).build();
+
+                when(menuItemReviewRepository.findByItemIdAndIdGreaterThan(eq(7L), eq(0L), eq(PageRequest.of(0, 2, Sort.by("id")))))
+                                .thenReturn(new ArrayList<>(Arrays.asList(first, second)));
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/menuitemreview/byItem?itemId=7&size=1"))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+
+                String expectedJson = mapper.writeValueAsString(new CursorPage<>(Arrays.asList(first), 4L));
+                assertEquals(expectedJson, response.getResponse().getContentAsString());
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_filter_reviews_by_reviewer() throws Exception {
+
+                // arrange
+
+                MenuItemReview review = MenuItemReview.builder().id(12L).reviewerEmail("cgaucho@ucsb.edu").build();
+
+                when(menuItemReviewRepository.findByReviewerEmailAndIdGreaterThan(eq("cgaucho@ucsb.edu"), eq(10L), eq(PageRequest.of(0, 21, Sort.by("id")))))
+                                .thenReturn(new ArrayList<>(Arrays.asList(review)));
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/menuitemreview/byReviewer?reviewerEmail=cgaucho@ucsb.edu&after=10"))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+
+                String expectedJson = mapper.writeValueAsString(new CursorPage<>(Arrays.asList(review), null));
+                assertEquals(expectedJson, response.getResponse().getContentAsString());
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_filter_reviews_by_stars() throws Exception {
+
+                // arrange
+
+                MenuItemReview review = MenuItemReview.builder().id(3L).stars(2).build();
+
+                when(menuItemReviewRepository.findByStarsBetweenAndIdGreaterThan(eq(1), eq(2), eq(0L), eq(PageRequest.of(0, 21, Sort.by("id")))))
+                                .thenReturn(new ArrayList<>(Arrays.asList(review)));
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/menuitemreview/byStars?maxStars=2"))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+
+                verify(menuItemReviewRepository, times(1)).findByStarsBetweenAndIdGreaterThan(eq(1), eq(2), eq(0L), eq(PageRequest.of(0, 21, Sort.by("id"))));
+                String expectedJson = mapper.writeValueAsString(new CursorPage<>(Arrays.asList(review), null));
+                assertEquals(expectedJson, response.getResponse().getContentAsString());
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_filter_reviews_by_date_reviewed() throws Exception {
+
+                // arrange
+
+                LocalDateTime from = LocalDateTime.parse("2023-01-01T00:00:00");
+                LocalDateTime to = LocalDateTime.parse("2023-02-01T00:00:00");
+                MenuItemReview review = MenuItemReview.builder().id(5L).dateReviewed(LocalDateTime.parse("2023-01-15T12:00:00")).build();
+
+                when(menuItemReviewRepository.findByDateReviewedAfter(eq(from), eq(0L), eq(to), eq(PageRequest.of(0, 21, Sort.by("dateReviewed", "id")))))
+                                .thenReturn(new ArrayList<>(Arrays.asList(review)));
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/menuitemreview/byDateReviewed?from=2023-01-01T00:00:00&to=2023-02-01T00:00:00"))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+
+                String expectedJson = mapper.writeValueAsString(new CursorPage<>(Arrays.asList(review), null));
+                assertEquals(expectedJson, response.getResponse().getContentAsString());
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_page_reviews_by_date_reviewed_with_the_date_and_id_cursor() throws Exception {
+
+                // arrange
+
+                LocalDateTime to = LocalDateTime.parse("2023-02-01T00:00:00");
+                LocalDateTime lastDate = LocalDateTime.parse("2023-01-15T12:00:00");
+                MenuItemReview first = MenuItemReview.builder().id(9L).dateReviewed(lastDate).build();
+                MenuItemReview second = MenuItemReview.builder().id(3L).dateReviewed(LocalDateTime.parse("2023-01-16T08:00:00")).build();
+
+                when(menuItemReviewRepository.findByDateReviewedAfter(eq(lastDate), eq(4L), eq(to), eq(PageRequest.of(0, 2, Sort.by("dateReviewed", "id")))))
+                                .thenReturn(new ArrayList<>(Arrays.asList(first, second)));
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/menuitemreview/byDateReviewed?from=2023-01-01T00:00:00&to=2023-02-01T00:00:00&afterDateReviewed=2023-01-15T12:00:00&after=4&size=1"))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+
+                String expectedJson = mapper.writeValueAsString(new CursorPage<>(Arrays.asList(first), new ReviewDateCursor(lastDate, 9L)));
+                assertEquals(expectedJson, response.getResponse().getContentAsString());
+        }
+
+        // Tests for streaming /api/menuitemreview/all?stream=true
+
+        @Test
+        public void logged_out_users_cannot_stream_all() throws Exception {
+                mockMvc.perform(get("/api/menuitemreview/all?stream=true"))
+                                .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_stream_all() throws Exception {
+
+                // arrange
+
+                doAnswer(invocation -> {
+                        Supplier<?> source = invocation.getArgument(0);
+                        source.get();
+                        return null;
+                }).when(jsonStreamingService).writeJsonArray(any(), any());
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/menuitemreview/all?stream=true"))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+
+                verify(jsonStreamingService, times(1)).writeJsonArray(any(), any());
+                verify(menuItemReviewRepository, times(1)).streamAll();
+                assertEquals(MediaType.APPLICATION_JSON_VALUE, response.getResponse().getContentType());
+        }
+
+        // Tests for conditional GET on /api/menuitemreview/all and /api/menuitemreview?id=...
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_gets_etag_with_all() throws Exception {
+                String etag = tableVersionService.etag(MenuItemReview.class);
+
+                mockMvc.perform(get("/api/menuitemreview/all"))
+                                .andExpect(status().isOk())
+                                .andExpect(header().string("ETag", etag))
+                                .andExpect(header().string("Cache-Control", "no-cache, private"));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_gets_304_for_all_when_etag_matches() throws Exception {
+                String etag = tableVersionService.etag(MenuItemReview.class);
+
+                mockMvc.perform(get("/api/menuitemreview/all").header("If-None-Match", etag))
+                                .andExpect(status().isNotModified())
+                                .andExpect(content().string(""));
+
+                verify(menuItemReviewRepository, times(0)).findAll();
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_gets_304_for_get_by_id_when_etag_matches() throws Exception {
+                String etag = tableVersionService.etag(MenuItemReview.class, 7L);
+
+                mockMvc.perform(get("/api/menuitemreview?id=7").header("If-None-Match", etag))
+                                .andExpect(status().isNotModified())
+                                .andExpect(content().string(""));
+
+                verify(menuItemReviewRepository, times(0)).findById(any());
+        }
+
+        // Tests for POST, PUT and DELETE /api/menuitemreview/batch
+
+        @Test
+        public void logged_out_users_cannot_post_batch() throws Exception {
+                mockMvc.perform(post("/api/menuitemreview/batch")
+                                .with(csrf())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("[]"))
+                                .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_regular_users_cannot_delete_batch() throws Exception {
+                mockMvc.perform(delete("/api/menuitemreview/batch?ids=1")
+                                .with(csrf()))
+                                .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void an_admin_user_can_post_a_batch() throws Exception {
+                // arrange
+
+                MenuItemReview first = MenuItemReview.builder().id(99L).comments("Great").build();
+                MenuItemReview second = MenuItemReview.builder().id(98L).comments("Too salty").build();
+                MenuItemReview firstSaved = MenuItemReview.builder().id(1L).comments("Great").build();
+                MenuItemReview secondSaved = MenuItemReview.builder().id(2L).comments("Too salty").build();
+
+                when(menuItemReviewRepository.saveAll(any())).thenReturn(List.of(firstSaved, secondSaved));
+
+                String requestBody = mapper.writeValueAsString(List.of(first, second));
+
+                // act
+                MvcResult response = mockMvc.perform(
+                                post("/api/menuitemreview/batch")
+                                                .contentType(MediaType.APPLICATION_JSON)
+                                                .characterEncoding("utf-8")
+                                                .content(requestBody)
+                                                .with(csrf()))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+                // ids sent by the client are ignored; the database assigns them
+                verify(menuItemReviewRepository, times(1)).saveAll(eq(List.of(MenuItemReview.builder().comments("Great").build(), MenuItemReview.builder().comments("Too salty").build())));
+                verify(menuItemRatingService, times(1)).reviewAdded(firstSaved);
+                verify(menuItemRatingService, times(1)).reviewAdded(secondSaved);
+                String expectedJson = mapper.writeValueAsString(List.of(
+                                new BatchItemResult<>(0, 1L, BatchItemResult.Status.CREATED),
+                                new BatchItemResult<>(1, 2L, BatchItemResult.Status.CREATED)));
+                assertEquals(expectedJson, response.getResponse().getContentAsString());
+        }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void an_admin_user_can_put_a_batch_and_missing_rows_are_reported() throws Exception {
+                // arrange
+
+                MenuItemReview stored = MenuItemReview.builder().id(1L).comments("Great").build();
+                MenuItemReview edited = MenuItemReview.builder().id(1L).comments("Too salty").build();
+                MenuItemReview missing = MenuItemReview.builder().id(2L).comments("Too salty").build();
+
+                when(menuItemReviewRepository.findAllForUpdate(eq(List.of(1L, 2L)))).thenReturn(List.of(stored));
+
+                String requestBody = mapper.writeValueAsString(List.of(edited, missing));
+
+                // act
+                MvcResult response = mockMvc.perform(
+                                put("/api/menuitemreview/batch")
+                                                .contentType(MediaType.APPLICATION_JSON)
+                                                .characterEncoding("utf-8")
+                                                .content(requestBody)
+                                                .with(csrf()))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+                assertEquals(edited, stored);
+                verify(menuItemReviewRepository, times(1)).saveAll(eq(List.of(edited)));
+                verify(menuItemRatingService, times(1)).reviewChanged(0L, 0, stored);
+                String expectedJson = mapper.writeValueAsString(List.of(
+                                new BatchItemResult<>(0, 1L, BatchItemResult.Status.UPDATED),
+                                new BatchItemResult<>(1, 2L, BatchItemResult.Status.NOT_FOUND)));
+                assertEquals(expectedJson, response.getResponse().getContentAsString());
+        }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void an_admin_user_can_delete_a_batch_and_missing_rows_are_reported() throws Exception {
+                // arrange
+
+                MenuItemReview stored = MenuItemReview.builder().id(1L).comments("Great").build();
+
+                when(menuItemReviewRepository.findAllForUpdate(eq(List.of(1L, 2L)))).thenReturn(List.of(stored));
+
+                // act
+                MvcResult response = mockMvc.perform(
+                                delete("/api/menuitemreview/batch?ids=1,2")
+                                                .with(csrf()))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+                verify(menuItemReviewRepository, times(1)).deleteAll(eq(List.of(stored)));
+                verify(menuItemRatingService, times(1)).reviewRemoved(stored);
+                String expectedJson = mapper.writeValueAsString(List.of(
+                                new BatchItemResult<>(0, 1L, BatchItemResult.Status.DELETED),
+                                new BatchItemResult<>(1, 2L, BatchItemResult.Status.NOT_FOUND)));
+                assertEquals(expectedJson, response.getResponse().getContentAsString());
+        }
+}
@@ -3,19 +3,28 @@ package edu.ucsb.cs156.example.controllers;
 import edu.ucsb.cs156.example.repositories.UserRepository;
 import edu.ucsb.cs156.example.testconfig.TestConfig;
 import edu.ucsb.cs156.example.ControllerTestCase;
+import edu.ucsb.cs156.example.models.BatchItemResult;
+import edu.ucsb.cs156.example.services.JsonStreamingService;
+import edu.ucsb.cs156.example.models.CursorPage;
+import edu.ucsb.cs156.example.models.DateNeededCursor;
 import edu.ucsb.cs156.example.entities.RecommendationRequest;
 import edu.ucsb.cs156.example.repositories.RecommendationRequestRepository;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Map;
+import java.util.List;
+import java.util.function.Supplier;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -26,11 +35,13 @@ import java.time.LocalDateTime;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.doAnswer;
 
 @WebMvcTest(controllers = RecommendationRequestController.class)
 @Import(TestConfig.class)
@@ -42,6 +53,9 @@ public class RecommendationRequestControllerTests extends ControllerTestCase {
         @MockBean
         UserRepository userRepository;
 
+        @MockBean
+        JsonStreamingService jsonStreamingService;
+
         // Authorization tests for /api/RecommendationRequest/admin/all
 
         @Test
@@ -350,4 +364,354 @@ public class RecommendationRequestControllerTests extends ControllerTestCase {
                 Map<String, Object> json = responseToJson(response);
                 assertEquals("RecommendationRequest with id 123 not found", json.get("message"));
         }
+
+        // Tests for keyset pagination at /api/RecommendationRequest/page
+
+        @Test
+        public void logged_out_users_cannot_get_page() throws Exception {
+                mockMvc.perform(get("/api/RecommendationRequest/page"))
+                                .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_gets_first_page_with_next_cursor() throws Exception {
+
+                // arrange
+
+                RecommendationRequest first = RecommendationRequest.builder().id(1L).explanation("first").build();
+                RecommendationRequest second = RecommendationRequest.builder().id(2L).explanation("second").build();
+                RecommendationRequest third = RecommendationRequest.builder().id(3L).explanation("third").build();
+
+                when(recommendationRequestRepository.findByIdGreaterThan(eq(0L), eq(PageRequest.of(0, 3, Sort.by("id")))))
+                                .thenReturn(new ArrayList<>(Arrays.asList(first, second, third)));
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/RecommendationRequest/page?size=2"))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+
+                verify(recommendationRequestRepository, times(1)).findByIdGreaterThan(eq(0L), eq(PageRequest.of(0, 3, Sort.by("id"))));
+                String expectedJson = mapper.writeValueAsString(new CursorPage<>(Arrays.asList(first, second), 2L));
+                String responseString = response.getResponse().getContentAsString();
+                assertEquals(expectedJson, responseString);
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_gets_last_page_without_next_cursor() throws Exception {
+
+                // arrange
+
+                RecommendationRequest last = RecommendationRequest.builder().id(6L).explanation("last").build();
+
+                when(recommendationRequestRepository.findByIdGreaterThan(eq(5L), eq(PageRequest.of(0, 21, Sort.by("id")))))
+                                .thenReturn(new ArrayList<>(Arrays.asList(last)));
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/RecommendationRequest/page?after=5"))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+
+                verify(recommendationRequestRepository, times(1)).findByIdGreaterThan(eq(5L), eq(PageRequest.of(0, 21, Sort.by("id"))));
+                String expectedJson = mapper.writeValueAsString(new CursorPage<>(Arrays.asList(last), null));
+                String responseString = response.getResponse().getContentAsString();
+                assertEquals(expectedJson, responseString);
+        }
+
+        // Tests for /api/RecommendationRequest/open and /overdue
+
+        @Test
+        public void logged_out_users_cannot_get_open_or_overdue() throws Exception {
+                mockMvc.perform(get("/api/RecommendationRequest/open?professorEmail=phtcon@ucsb.edu"))
+                                .andExpect(status().is(403));
+                mockMvc.perform(get("/api/RecommendationRequest/overdue"))
+                                .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_get_the_first_page_of_open_requests_of_a_professor() throws Exception {
+
+                // arrange
+
+                RecommendationRequest first = RecommendationRequest.builder()
+                                .id(3L)
+                                .professorEmail("phtcon@ucsb.edu")
+                                .dateNeeded(LocalDateTime.parse("2023-12-01T00:00:00"))
+                                .done(false)
+                                .build();
+                RecommendationRequest second = RecommendationRequest.builder()
+                                .id(2L)
+                                .professorEmail("phtcon@ucsb.edu")
+                                .dateNeeded(LocalDateTime.parse("2023-12-02T00:00:00"))
+                                .done(false)
+                                .build();
+
+                when(recommendationRequestRepository.findOpenByProfessorEmailAfter(eq("phtcon@ucsb.edu"), eq(LocalDateTime.of(1, 1, 1, 0, 0)), eq(0L), eq(PageRequest.of(0, 2, Sort.by("dateNeeded", "id")))))
+                                .thenReturn(new ArrayList<>(Arrays.asList(first, second)));
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/RecommendationRequest/open?professorEmail=phtcon@ucsb.edu&after=9&size=1"))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+
+                String expectedJson = mapper.writeValueAsString(new CursorPage<>(Arrays.asList(first),
+                                new DateNeededCursor(LocalDateTime.parse("2023-12-01T00:00:00"), 3L)));
+                assertEquals(expectedJson, response.getResponse().getContentAsString());
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_get_a_later_page_of_open_requests_of_a_professor() throws Exception {
+
+                // arrange
+
+                RecommendationRequest open = RecommendationRequest.builder()
+                                .id(2L)
+                                .professorEmail("phtcon@ucsb.edu")
+                                .dateNeeded(LocalDateTime.parse("2023-12-02T00:00:00"))
+                                .done(false)
+                                .build();
+
+                when(recommendationRequestRepository.findOpenByProfessorEmailAfter(eq("phtcon@ucsb.edu"), eq(LocalDateTime.parse("2023-12-01T00:00:00")), eq(3L), eq(PageRequest.of(0, 6, Sort.by("dateNeeded", "id")))))
+                                .thenReturn(new ArrayList<>(Arrays.asList(open)));
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/RecommendationRequest/open?professorEmail=phtcon@ucsb.edu&afterDateNeeded=2023-12-01T00:00:00&after=3&size=5"))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+
+                assertEquals(mapper.writeValueAsString(new CursorPage<>(Arrays.asList(open), null)), response.getResponse().getContentAsString());
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_get_all_overdue_requests() throws Exception {
+
+                // arrange
+
+                RecommendationRequest overdue = RecommendationRequest.builder()
+                                .id(4L)
+                                .dateNeeded(LocalDateTime.parse("2022-01-01T00:00:00"))
+                                .done(false)
+                                .build();
+                LocalDateTime before = LocalDateTime.now();
+
+                when(recommendationRequestRepository.findOverdueAfter(eq(LocalDateTime.of(1, 1, 1, 0, 0)), eq(0L), any(LocalDateTime.class), eq(PageRequest.of(0, 21, Sort.by("dateNeeded", "id")))))
+                                .thenReturn(new ArrayList<>(Arrays.asList(overdue)));
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/RecommendationRequest/overdue"))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+
+                ArgumentCaptor<LocalDateTime> now = ArgumentCaptor.forClass(LocalDateTime.class);
+                verify(recommendationRequestRepository, times(1)).findOverdueAfter(eq(LocalDateTime.of(1, 1, 1, 0, 0)), eq(0L), now.capture(), eq(PageRequest.of(0, 21, Sort.by("dateNeeded", "id"))));
+                assertFalse(now.getValue().isBefore(before));
+                assertEquals(mapper.writeValueAsString(new CursorPage<>(Arrays.asList(overdue), null)), response.getResponse().getContentAsString());
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_get_a_later_page_of_overdue_requests_of_a_professor() throws Exception {
+
+                // arrange
+
+                RecommendationRequest overdue = RecommendationRequest.builder()
+                                .id(5L)
+                                .professorEmail("phtcon@ucsb.edu")
+                                .dateNeeded(LocalDateTime.parse("2022-01-01T00:00:00"))
+                                .done(false)
+                                .build();
+
+                when(recommendationRequestRepository.findOverdueByProfessorEmailAfter(eq("phtcon@ucsb.edu"), eq(LocalDateTime.parse("2021-06-01T00:00:00")), eq(4L), any(LocalDateTime.class), eq(PageRequest.of(0, 101, Sort.by("dateNeeded", "id")))))
+                                .thenReturn(new ArrayList<>(Arrays.asList(overdue)));
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/RecommendationRequest/overdue?professorEmail=phtcon@ucsb.edu&afterDateNeeded=2021-06-01T00:00:00&after=4&size=500"))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+
+                assertEquals(mapper.writeValueAsString(new CursorPage<>(Arrays.asList(overdue), null)), response.getResponse().getContentAsString());
+        }
+
+        // Tests for streaming /api/RecommendationRequest/all?stream=true
+
+        @Test
+        public void logged_out_users_cannot_stream_all() throws Exception {
+                mockMvc.perform(get("/api/RecommendationRequest/all?stream=true"))
+                                .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_stream_all() throws Exception {
+
+                // arrange
+
+                doAnswer(invocation -> {
+                        Supplier<?> source = invocation.getArgument(0);
+                        source.get();
+                        return null;
+                }).when(jsonStreamingService).writeJsonArray(any(), any());
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/RecommendationRequest/all?stream=true"))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+
+                verify(jsonStreamingService, times(1)).writeJsonArray(any(), any());
+                verify(recommendationRequestRepository, times(1)).streamAll();
+                assertEquals(MediaType.APPLICATION_JSON_VALUE, response.getResponse().getContentType());
+        }
+
+        // Tests for conditional GET on /api/RecommendationRequest/all and /api/RecommendationRequest?id=...
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_gets_etag_with_all() throws Exception {
+                String etag = tableVersionService.etag(RecommendationRequest.class);
+
+                mockMvc.perform(get("/api/RecommendationRequest/all"))
+                                .andExpect(status().isOk())
+                                .andExpect(header().string("ETag", etag))
+                                .andExpect(header().string("Cache-Control", "no-cache, private"));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_gets_304_for_all_when_etag_matches() throws Exception {
+                String etag = tableVersionService.etag(RecommendationRequest.class);
+
+                mockMvc.perform(get("/api/RecommendationRequest/all").header("If-None-Match", etag))
+                                .andExpect(status().isNotModified())
+                                .andExpect(content().string(""));
+
+                verify(recommendationRequestRepository, times(0)).findAll();
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_gets_304_for_get_by_id_when_etag_matches() throws Exception {
+                String etag = tableVersionService.etag(RecommendationRequest.class, 123L);
+
+                mockMvc.perform(get("/api/RecommendationRequest?id=123").header("If-None-Match", etag))
+                                .andExpect(status().isNotModified())
+                                .andExpect(content().string(""));
+
+                verify(recommendationRequestRepository, times(0)).findById(any());
+        }
+
+        // Tests for POST, PUT and DELETE /api/RecommendationRequest/batch
+
+        @Test
+        public void logged_out_users_cannot_post_batch() throws Exception {
+                mockMvc.perform(post("/api/RecommendationRequest/batch")
+                                .with(csrf())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("[]"))
+                                .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_regular_users_cannot_delete_batch() throws Exception {
+                mockMvc.perform(delete("/api/RecommendationRequest/batch?ids=1")
+                                .with(csrf()))
+                                .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void an_admin_user_can_post_a_batch() throws Exception {
+                // arrange
+
+                RecommendationRequest first = RecommendationRequest.builder().id(99L).explanation("PhD").build();
+                RecommendationRequest second = RecommendationRequest.builder().id(98L).explanation("Masters").build();
+                RecommendationRequest firstSaved = RecommendationRequest.builder().id(1L).explanation("PhD").build();
+                RecommendationRequest secondSaved = RecommendationRequest.builder().id(2L).explanation("Masters").build();
+
+                when(recommendationRequestRepository.saveAll(any())).thenReturn(List.of(firstSaved, secondSaved));
+
+                String requestBody = mapper.writeValueAsString(List.of(first, second));
+
+                // act
+                MvcResult response = mockMvc.perform(
+                                post("/api/RecommendationRequest/batch")
+                                                .contentType(MediaType.APPLICATION_JSON)
+                                                .characterEncoding("utf-8")
+                                                .content(requestBody)
+                                                .with(csrf()))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+                // ids sent by the client are ignored; the database assigns them
+                verify(recommendationRequestRepository, times(1)).saveAll(eq(List.of(RecommendationRequest.builder().explanation("PhD").build(), RecommendationRequest.builder().explanation("Masters").build())));
+                String expectedJson = mapper.writeValueAsString(List.of(
+                                new BatchItemResult<>(0, 1L, BatchItemResult.Status.CREATED),
+                                new BatchItemResult<>(1, 2L, BatchItemResult.Status.CREATED)));
+                assertEquals(expectedJson, response.getResponse().getContentAsString());
+        }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void an_admin_user_can_put_a_batch_and_missing_rows_are_reported() throws Exception {
+                // arrange
+
+                RecommendationRequest stored = RecommendationRequest.builder().id(1L).explanation("PhD").build();
+                RecommendationRequest edited = RecommendationRequest.builder().id(1L).explanation("Masters").build();
+                RecommendationRequest missing = RecommendationRequest.builder().id(2L).explanation("Masters").build();
+
+                when(recommendationRequestRepository.findAllById(eq(List.of(1L, 2L)))).thenReturn(List.of(stored));
+
+                String requestBody = mapper.writeValueAsString(List.of(edited, missing));
+
+                // act
+                MvcResult response = mockMvc.perform(
+                                put("/api/RecommendationRequest/batch")
+                                                .contentType(MediaType.APPLICATION_JSON)
+                                                .characterEncoding("utf-8")
+                                                .content(requestBody)
+                                                .with(csrf()))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+                assertEquals(edited, stored);
+                verify(recommendationRequestRepository, times(1)).saveAll(eq(List.of(edited)));
+                String expectedJson = mapper.writeValueAsString(List.of(
+                                new BatchItemResult<>(0, 1L, BatchItemResult.Status.UPDATED),
+                                new BatchItemResult<>(1, 2L, BatchItemResult.Status.NOT_FOUND)));
+                assertEquals(expectedJson, response.getResponse().getContentAsString());
+        }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void an_admin_user_can_delete_a_batch_and_missing_rows_are_reported() throws Exception {
+                // arrange
+
+                RecommendationRequest stored = RecommendationRequest.builder().id(1L).explanation("PhD").build();
+
+                when(recommendationRequestRepository.findAllById(eq(List.of(1L, 2L)))).thenReturn(List.of(stored));
+
+                // act
+                MvcResult response = mockMvc.perform(
+                                delete("/api/RecommendationRequest/batch?ids=1,2")
+                                                .with(csrf()))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+                verify(recommendationRequestRepository, times(1)).deleteAll(eq(List.of(stored)));
+                String expectedJson = mapper.writeValueAsString(List.of(
+                                new BatchItemResult<>(0, 1L, BatchItemResult.Status.DELETED),
+                                new BatchItemResult<>(1, 2L, BatchItemResult.Status.NOT_FOUND)));
+                assertEquals(expectedJson, response.getResponse().getContentAsString());
+        }
 }
@@ -0,0 +1,114 @@
+package edu.ucsb.cs156.example.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import javax.servlet.Filter;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackage;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.context.TypeExcludeFilter;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import edu.ucsb.cs156.example.ExampleApplication;
+import edu.ucsb.cs156.example.entities.UCSBOrganization;
+import edu.ucsb.cs156.example.repositories.UCSBOrganizationRepository;
+import edu.ucsb.cs156.example.testconfig.MockCurrentUserServiceImpl;
+
+/**
+ * Compression happens in Tomcat, not in the controllers, so this runs the
+ * real server and reads the raw response.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ResponseCompressionTests {
+
+  // The whole app, less testconfig's MockCurrentUserServiceImpl, whose bean
+  // name clashes with the real one when everything is scanned (and less
+  // ExampleApplication, which would scan again without this filter).
+  @SpringBootConfiguration
+  @EnableAutoConfiguration
+  @AutoConfigurationPackage(basePackageClasses = ExampleApplication.class)
+  @ComponentScan(basePackageClasses = ExampleApplication.class, excludeFilters = {
+      @ComponentScan.Filter(type = FilterType.CUSTOM, classes = TypeExcludeFilter.class),
+      @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = { ExampleApplication.class, MockCurrentUserServiceImpl.class }) })
+  static class App {
+  }
+
+  // Runs after the security filter chain has set up the (anonymous)
+  // context, so @PreAuthorize sees a user.
+  @TestConfiguration
+  static class SignedInUser {
+    @Bean
+    Filter signedInUser() {
+      return (request, response, chain) -> {
+        SecurityContextHolder.getContext()
+            .setAuthentication(new TestingAuthenticationToken("user", null, "ROLE_USER"));
+        chain.doFilter(request, response);
+      };
+    }
+  }
+
+  @LocalServerPort
+  int port;
+
+  @Autowired
+  UCSBOrganizationRepository ucsbOrganizationRepository;
+
+  @BeforeEach
+  void saveOrganizations() {
+    List<UCSBOrganization> orgs = IntStream.range(0, 100)
+        .mapToObj(i -> UCSBOrganization.builder()
+            .orgCode("ORG" + i)
+            .orgTranslationShort("Organization " + i)
+            .orgTranslation("Student Organization Number " + i)
+            .build())
+        .toList();
+    ucsbOrganizationRepository.saveAll(orgs);
+  }
+
+  @AfterEach
+  void deleteOrganizations() {
+    ucsbOrganizationRepository.deleteAll();
+  }
+
+  @Test
+  void test_a_large_all_response_is_gzipped_and_keeps_its_etag() throws IOException, InterruptedException {
+    HttpResponse<byte[]> response = get(null);
+
+    assertEquals(200, response.statusCode());
+    assertEquals("gzip", response.headers().firstValue("Content-Encoding").orElse(null));
+    String etag = response.headers().firstValue("ETag").orElseThrow();
+    assertTrue(etag.startsWith("W/\""), etag);
+
+    assertEquals(304, get(etag).statusCode());
+  }
+
+  private HttpResponse<byte[]> get(String ifNoneMatch) throws IOException, InterruptedException {
+    HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/UCSBOrganization/all"))
+        .header("Accept-Encoding", "gzip");
+    if (ifNoneMatch != null) {
+      request.header("If-None-Match", ifNoneMatch);
+    }
+    return HttpClient.newHttpClient().send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+  }
+}
@@ -3,12 +3,15 @@ package edu.ucsb.cs156.example.controllers;
 import edu.ucsb.cs156.example.repositories.UserRepository;
 import edu.ucsb.cs156.example.testconfig.TestConfig;
 import edu.ucsb.cs156.example.ControllerTestCase;
+import edu.ucsb.cs156.example.models.BatchItemResult;
+import edu.ucsb.cs156.example.models.CursorPage;
 import edu.ucsb.cs156.example.entities.Restaurant;
 import edu.ucsb.cs156.example.repositories.RestaurantRepository;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Map;
+import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
@@ -16,6 +19,8 @@ import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -294,4 +299,202 @@ public class RestaurantsControllerTests extends ControllerTestCase {
                 assertEquals("Restaurant with id 67 not found", json.get("message"));
 
         }
+
+        // Tests for keyset pagination at /api/restaurants/page
+
+        @Test
+        public void logged_out_users_cannot_get_page() throws Exception {
+                mockMvc.perform(get("/api/restaurants/page"))
+                                .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_gets_first_page_with_next_cursor() throws Exception {
+
+                // arrange
+
+                Restaurant first = Restaurant.builder().id(1L).name("first").build();
+                Restaurant second = Restaurant.builder().id(2L).name("second").build();
+                Restaurant third = Restaurant.builder().id(3L).name("third").build();
+
+                when(restaurantRepository.findByIdGreaterThan(eq(0L), eq(PageRequest.of(0, 3, Sort.by("id")))))
+                                .thenReturn(new ArrayList<>(Arrays.asList(first, second, third)));
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/restaurants/page?size=2"))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+
+                verify(restaurantRepository, times(1)).findByIdGreaterThan(eq(0L), eq(PageRequest.of(0, 3, Sort.by("id"))));
+                String expectedJson = mapper.writeValueAsString(new CursorPage<>(Arrays.asList(first, second), 2L));
+                String responseString = response.getResponse().getContentAsString();
+                assertEquals(expectedJson, responseString);
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_gets_last_page_without_next_cursor() throws Exception {
+
+                // arrange
+
+                Restaurant last = Restaurant.builder().id(6L).name("last").build();
+
+                when(restaurantRepository.findByIdGreaterThan(eq(5L), eq(PageRequest.of(0, 21, Sort.by("id")))))
+                                .thenReturn(new ArrayList<>(Arrays.asList(last)));
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/restaurants/page?after=5"))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+
+                verify(restaurantRepository, times(1)).findByIdGreaterThan(eq(5L), eq(PageRequest.of(0, 21, Sort.by("id"))));
+                String expectedJson = mapper.writeValueAsString(new CursorPage<>(Arrays.asList(last), null));
+                String responseString = response.getResponse().getContentAsString();
+                assertEquals(expectedJson, responseString);
+        }
+
+        // Tests for conditional GET on /api/restaurants/all and /api/restaurants?id=...
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_gets_etag_with_all() throws Exception {
+                String etag = tableVersionService.etag(Restaurant.class);
+
+                mockMvc.perform(get("/api/restaurants/all"))
+                                .andExpect(status().isOk())
+                                .andExpect(header().string("ETag", etag))
+                                .andExpect(header().string("Cache-Control", "no-cache, private"));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_gets_304_for_all_when_etag_matches() throws Exception {
+                String etag = tableVersionService.etag(Restaurant.class);
+
+                mockMvc.perform(get("/api/restaurants/all").header("If-None-Match", etag))
+                                .andExpect(status().isNotModified())
+                                .andExpect(content().string(""));
+
+                verify(restaurantRepository, times(0)).findAll();
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_gets_304_for_get_by_id_when_etag_matches() throws Exception {
+                String etag = tableVersionService.etag(Restaurant.class, 7L);
+
+                mockMvc.perform(get("/api/restaurants?id=7").header("If-None-Match", etag))
+                                .andExpect(status().isNotModified())
+                                .andExpect(content().string(""));
+
+                verify(restaurantRepository, times(0)).findById(any());
+        }
+
+        // Tests for POST, PUT and DELETE /api/restaurants/batch
+
+        @Test
+        public void logged_out_users_cannot_post_batch() throws Exception {
+                mockMvc.perform(post("/api/restaurants/batch")
+                                .with(csrf())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("[]"))
+                                .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_regular_users_cannot_delete_batch() throws Exception {
+                mockMvc.perform(delete("/api/restaurants/batch?ids=1")
+                                .with(csrf()))
+                                .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void an_admin_user_can_post_a_batch() throws Exception {
+                // arrange
+
+                Restaurant first = Restaurant.builder().id(99L).name("Taco Bell").build();
+                Restaurant second = Restaurant.builder().id(98L).name("Freebirds").build();
+                Restaurant firstSaved = Restaurant.builder().id(1L).name("Taco Bell").build();
+                Restaurant secondSaved = Restaurant.builder().id(2L).name("Freebirds").build();
+
+                when(restaurantRepository.saveAll(any())).thenReturn(List.of(firstSaved, secondSaved));
+
+                String requestBody = mapper.writeValueAsString(List.of(first, second));
+
+                // act
+                MvcResult response = mockMvc.perform(
+                                post("/api/restaurants/batch")
+                                                .contentType(MediaType.APPLICATION_JSON)
+                                                .characterEncoding("utf-8")
+                                                .content(requestBody)
+                                                .with(csrf()))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+                // ids sent by the client are ignored; the database assigns them
+                verify(restaurantRepository, times(1)).saveAll(eq(List.of(Restaurant.builder().name("Taco Bell").build(), Restaurant.builder().name("Freebirds").build())));
+                String expectedJson = mapper.writeValueAsString(List.of(
+                                new BatchItemResult<>(0, 1L, BatchItemResult.Status.CREATED),
+                                new BatchItemResult<>(1, 2L, BatchItemResult.Status.CREATED)));
+                assertEquals(expectedJson, response.getResponse().getContentAsString());
+        }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void an_admin_user_can_put_a_batch_and_missing_rows_are_reported() throws Exception {
+                // arrange
+
+                Restaurant stored = Restaurant.builder().id(1L).name("Taco Bell").build();
+                Restaurant edited = Restaurant.builder().id(1L).name("Freebirds").build();
+                Restaurant missing = Restaurant.builder().id(2L).name("Freebirds").build();
+
+                when(restaurantRepository.findAllById(eq(List.of(1L, 2L)))).thenReturn(List.of(stored));
+
+                String requestBody = mapper.writeValueAsString(List.of(edited, missing));
+
+                // act
+                MvcResult response = mockMvc.perform(
+                                put("/api/restaurants/batch")
+                                                .contentType(MediaType.APPLICATION_JSON)
+                                                .characterEncoding("utf-8")
+                                                .content(requestBody)
+                                                .with(csrf()))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+                assertEquals(edited, stored);
+                verify(restaurantRepository, times(1)).saveAll(eq(List.of(edited)));
+                String expectedJson = mapper.writeValueAsString(List.of(
+                                new BatchItemResult<>(0, 1L, BatchItemResult.Status.UPDATED),
+                                new BatchItemResult<>(1, 2L, BatchItemResult.Status.NOT_FOUND)));
+                assertEquals(expectedJson, response.getResponse().getContentAsString());
+        }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void an_admin_user_can_delete_a_batch_and_missing_rows_are_reported() throws Exception {
+                // arrange
+
+                Restaurant stored = Restaurant.builder().id(1L).name("Taco Bell").build();
+
+                when(restaurantRepository.findAllById(eq(List.of(1L, 2L)))).thenReturn(List.of(stored));
+
+                // act
+                MvcResult response = mockMvc.perform(
+                                delete("/api/restaurants/batch?ids=1,2")
+                                                .with(csrf()))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+                verify(restaurantRepository, times(1)).deleteAll(eq(List.of(stored)));
+                String expectedJson = mapper.writeValueAsString(List.of(
+                                new BatchItemResult<>(0, 1L, BatchItemResult.Status.DELETED),
+                                new BatchItemResult<>(1, 2L, BatchItemResult.Status.NOT_FOUND)));
+                assertEquals(expectedJson, response.getResponse().getContentAsString());
+        }
 }
@@ -0,0 +1,102 @@
+package edu.ucsb.cs156.example.controllers;
+
+import edu.ucsb.cs156.example.repositories.UserRepository;
+import edu.ucsb.cs156.example.testconfig.TestConfig;
+import edu.ucsb.cs156.example.ControllerTestCase;
+import edu.ucsb.cs156.example.models.SearchHit;
+import edu.ucsb.cs156.example.services.SearchService;
+
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@WebMvcTest(controllers = SearchController.class)
+@Import(TestConfig.class)
+public class SearchControllerTests extends ControllerTestCase {
+
+        @MockBean
+        SearchService searchService;
+
+        @MockBean
+        UserRepository userRepository;
+
+        // Authorization tests for /api/search
+
+        @Test
+        public void logged_out_users_cannot_search() throws Exception {
+                mockMvc.perform(get("/api/search?q=burr"))
+                                .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_regular_users_cannot_rebuild() throws Exception {
+                mockMvc.perform(post("/api/search/rebuild").with(csrf()))
+                                .andExpect(status().is(403));
+        }
+
+        // Tests with mocks for the search service
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_search() throws Exception {
+
+                // arrange
+
+                List<SearchHit> hits = List.of(new SearchHit(SearchService.RESTAURANT, "1", "Freebirds", "Burritos"));
+
+                when(searchService.search(eq("burr"), eq(5))).thenReturn(hits);
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/search?q=burr&n=5"))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+
+                verify(searchService, times(1)).search("burr", 5);
+                assertEquals(mapper.writeValueAsString(hits), response.getResponse().getContentAsString());
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void search_defaults_to_ten_results() throws Exception {
+                mockMvc.perform(get("/api/search?q=burr"))
+                                .andExpect(status().isOk());
+
+                verify(searchService, times(1)).search("burr", 10);
+        }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void an_admin_user_can_rebuild_the_index() throws Exception {
+
+                // arrange
+
+                when(searchService.rebuild()).thenReturn(42);
+
+                // act
+                MvcResult response = mockMvc.perform(post("/api/search/rebuild").with(csrf()))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+
+                verify(searchService, times(1)).rebuild();
+                Map<String, Object> json = responseToJson(response);
+                assertEquals("Rebuilt search index with 42 documents", json.get("message"));
+        }
+}
@@ -3,12 +3,16 @@ package edu.ucsb.cs156.example.controllers;
 import edu.ucsb.cs156.example.repositories.UserRepository;
 import edu.ucsb.cs156.example.testconfig.TestConfig;
 import edu.ucsb.cs156.example.ControllerTestCase;
+import edu.ucsb.cs156.example.models.BatchItemResult;
+import edu.ucsb.cs156.example.models.CursorPage;
 import edu.ucsb.cs156.example.entities.UCSBDate;
 import edu.ucsb.cs156.example.repositories.UCSBDateRepository;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Map;
+import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
@@ -16,6 +20,8 @@ import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -315,4 +321,255 @@ public class UCSBDatesControllerTests extends ControllerTestCase {
                 assertEquals("UCSBDate with id 67 not found", json.get("message"));
 
         }
+
+        // Tests for keyset pagination at /api/ucsbdates/page
+
+        @Test
+        public void logged_out_users_cannot_get_page() throws Exception {
+                mockMvc.perform(get("/api/ucsbdates/page"))
+                                .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_gets_first_page_with_next_cursor() throws Exception {
+
+                // arrange
+
+                UCSBDate first = UCSBDate.builder().id(1L).name("first").build();
+                UCSBDate second = UCSBDate.builder().id(2L).name("second").build();
+                UCSBDate third = UCSBDate.builder().id(3L).name("third").build();
+
+                when(ucsbDateRepository.findByIdGreaterThan(eq(0L), eq(PageRequest.of(0, 3, Sort.by("id")))))
+                                .thenReturn(new ArrayList<>(Arrays.asList(first, second, third)));
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/ucsbdates/page?size=2"))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+
+                verify(ucsbDateRepository, times(1)).findByIdGreaterThan(eq(0L), eq(PageRequest.of(0, 3, Sort.by("id"))));
+                String expectedJson = mapper.writeValueAsString(new CursorPage<>(Arrays.asList(first, second), 2L));
+                String responseString = response.getResponse().getContentAsString();
+                assertEquals(expectedJson, responseString);
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_gets_last_page_without_next_cursor() throws Exception {
+
+                // arrange
+
+                UCSBDate last = UCSBDate.builder().id(6L).name("last").build();
+
+                when(ucsbDateRepository.findByIdGreaterThan(eq(5L), eq(PageRequest.of(0, 21, Sort.by("id")))))
+                                .thenReturn(new ArrayList<>(Arrays.asList(last)));
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/ucsbdates/page?after=5"))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+
+                verify(ucsbDateRepository, times(1)).findByIdGreaterThan(eq(5L), eq(PageRequest.of(0, 21, Sort.by("id"))));
+                String expectedJson = mapper.writeValueAsString(new CursorPage<>(Arrays.asList(last), null));
+                String responseString = response.getResponse().getContentAsString();
+                assertEquals(expectedJson, responseString);
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void page_size_is_capped_at_the_maximum() throws Exception {
+                // act
+                mockMvc.perform(get("/api/ucsbdates/page?size=1000"))
+                                .andExpect(status().isOk());
+
+                // assert
+                verify(ucsbDateRepository, times(1)).findByIdGreaterThan(eq(0L), eq(PageRequest.of(0, 101, Sort.by("id"))));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void page_size_is_at_least_one() throws Exception {
+                // act
+                MvcResult response = mockMvc.perform(get("/api/ucsbdates/page?size=0"))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+                verify(ucsbDateRepository, times(1)).findByIdGreaterThan(eq(0L), eq(PageRequest.of(0, 2, Sort.by("id"))));
+                String expectedJson = mapper.writeValueAsString(new CursorPage<>(new ArrayList<>(), null));
+                String responseString = response.getResponse().getContentAsString();
+                assertEquals(expectedJson, responseString);
+        }
+
+        // Tests for conditional GET on /api/ucsbdates/all and /api/ucsbdates?id=...
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_gets_etag_with_all() throws Exception {
+                String etag = tableVersionService.etag(UCSBDate.class);
+
+                mockMvc.perform(get("/api/ucsbdates/all"))
+                                .andExpect(status().isOk())
+                                .andExpect(header().string("ETag", etag))
+                                .andExpect(header().string("Cache-Control", "no-cache, private"));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_gets_304_for_all_when_etag_matches() throws Exception {
+                String etag = tableVersionService.etag(UCSBDate.class);
+
+                mockMvc.perform(get("/api/ucsbdates/all").header("If-None-Match", etag))
+                                .andExpect(status().isNotModified())
+                                .andExpect(content().string(""));
+
+                verify(ucsbDateRepository, times(0)).findAll();
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_gets_304_for_get_by_id_when_etag_matches() throws Exception {
+                String etag = tableVersionService.etag(UCSBDate.class, 7L);
+
+                mockMvc.perform(get("/api/ucsbdates?id=7").header("If-None-Match", etag))
+                                .andExpect(status().isNotModified())
+                                .andExpect(content().string(""));
+
+                verify(ucsbDateRepository, times(0)).findById(any());
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_gets_200_for_all_after_the_table_changes() throws Exception {
+                String staleEtag = tableVersionService.etag(UCSBDate.class);
+                tableVersionService.bump(UCSBDate.class);
+
+                mockMvc.perform(get("/api/ucsbdates/all").header("If-None-Match", staleEtag))
+                                .andExpect(status().isOk())
+                                .andExpect(header().string("ETag", tableVersionService.etag(UCSBDate.class)));
+
+                verify(ucsbDateRepository, times(1)).findAll();
+        }
+
+        // Tests for POST, PUT and DELETE /api/ucsbdates/batch
+
+        @Test
+        public void logged_out_users_cannot_post_batch() throws Exception {
+                mockMvc.perform(post("/api/ucsbdates/batch")
+                                .with(csrf())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("[]"))
+                                .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_regular_users_cannot_delete_batch() throws Exception {
+                mockMvc.perform(delete("/api/ucsbdates/batch?ids=1")
+                                .with(csrf()))
+                                .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void an_admin_user_can_post_a_batch() throws Exception {
+                // arrange
+
+                UCSBDate first = UCSBDate.builder().id(99L).name("firstDayOfClasses").build();
+                UCSBDate second = UCSBDate.builder().id(98L).name("lastDayOfClasses").build();
+                UCSBDate firstSaved = UCSBDate.builder().id(1L).name("firstDayOfClasses").build();
+                UCSBDate secondSaved = UCSBDate.builder().id(2L).name("lastDayOfClasses").build();
+
+                when(ucsbDateRepository.saveAll(any())).thenReturn(List.of(firstSaved, secondSaved));
+
+                String requestBody = mapper.writeValueAsString(List.of(first, second));
+
+                // act
+                MvcResult response = mockMvc.perform(
+                                post("/api/ucsbdates/batch")
+                                                .contentType(MediaType.APPLICATION_JSON)
+                                                .characterEncoding("utf-8")
+                                                .content(requestBody)
+                                                .with(csrf()))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+                // ids sent by the client are ignored; the database assigns them
+                verify(ucsbDateRepository, times(1)).saveAll(eq(List.of(UCSBDate.builder().name("firstDayOfClasses").build(), UCSBDate.builder().name("lastDayOfClasses").build())));
+                String expectedJson = mapper.writeValueAsString(List.of(
+                                new BatchItemResult<>(0, 1L, BatchItemResult.Status.CREATED),
+                                new BatchItemResult<>(1, 2L, BatchItemResult.Status.CREATED)));
+                assertEquals(expectedJson, response.getResponse().getContentAsString());
+        }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void an_admin_user_can_put_a_batch_and_missing_rows_are_reported() throws Exception {
+                // arrange
+
+                UCSBDate stored = UCSBDate.builder().id(1L).name("firstDayOfClasses").build();
+                UCSBDate edited = UCSBDate.builder().id(1L).name("lastDayOfClasses").build();
+                UCSBDate missing = UCSBDate.builder().id(2L).name("lastDayOfClasses").build();
+
+                when(ucsbDateRepository.findAllById(eq(List.of(1L, 2L)))).thenReturn(List.of(stored));
+
+                String requestBody = mapper.writeValueAsString(List.of(edited, missing));
+
+                // act
+                MvcResult response = mockMvc.perform(
+                                put("/api/ucsbdates/batch")
+                                                .contentType(MediaType.APPLICATION_JSON)
+                                                .characterEncoding("utf-8")
+                                                .content(requestBody)
+                                                .with(csrf()))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+                assertEquals(edited, stored);
+                verify(ucsbDateRepository, times(1)).saveAll(eq(List.of(edited)));
+                String expectedJson = mapper.writeValueAsString(List.of(
+                                new BatchItemResult<>(0, 1L, BatchItemResult.Status.UPDATED),
+                                new BatchItemResult<>(1, 2L, BatchItemResult.Status.NOT_FOUND)));
+                assertEquals(expectedJson, response.getResponse().getContentAsString());
+        }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void an_admin_user_can_delete_a_batch_and_missing_rows_are_reported() throws Exception {
+                // arrange
+
+                UCSBDate stored = UCSBDate.builder().id(1L).name("firstDayOfClasses").build();
+
+                when(ucsbDateRepository.findAllById(eq(List.of(1L, 2L)))).thenReturn(List.of(stored));
+
+                // act
+                MvcResult response = mockMvc.perform(
+                                delete("/api/ucsbdates/batch?ids=1,2")
+                                                .with(csrf()))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+                verify(ucsbDateRepository, times(1)).deleteAll(eq(List.of(stored)));
+                String expectedJson = mapper.writeValueAsString(List.of(
+                                new BatchItemResult<>(0, 1L, BatchItemResult.Status.DELETED),
+                                new BatchItemResult<>(1, 2L, BatchItemResult.Status.NOT_FOUND)));
+                assertEquals(expectedJson, response.getResponse().getContentAsString());
+        }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void an_admin_user_cannot_send_more_than_the_maximum_batch_size() throws Exception {
+                String requestBody = "[" + String.join(",", Collections.nCopies(1001, "{}")) + "]";
+
+                mockMvc.perform(
+                                post("/api/ucsbdates/batch")
+                                                .contentType(MediaType.APPLICATION_JSON)
+                                                .content(requestBody)
+                                                .with(csrf()))
+                                .andExpect(status().isPayloadTooLarge());
+
+                verify(ucsbDateRepository, times(0)).saveAll(any());
+        }
 }
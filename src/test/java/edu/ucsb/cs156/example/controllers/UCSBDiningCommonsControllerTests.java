@@ -3,12 +3,17 @@ package edu.ucsb.cs156.example.controllers;
 import edu.ucsb.cs156.example.repositories.UserRepository;
 import edu.ucsb.cs156.example.testconfig.TestConfig;
 import edu.ucsb.cs156.example.ControllerTestCase;
+import edu.ucsb.cs156.example.models.BatchItemResult;
+import edu.ucsb.cs156.example.models.CursorPage;
+import edu.ucsb.cs156.example.models.NearbyDiningCommons;
+import edu.ucsb.cs156.example.services.DiningCommonsLocationService;
 import edu.ucsb.cs156.example.entities.UCSBDiningCommons;
 import edu.ucsb.cs156.example.repositories.UCSBDiningCommonsRepository;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Map;
+import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
@@ -16,6 +21,8 @@ import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -25,9 +32,12 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.when;
 
 @WebMvcTest(controllers = UCSBDiningCommonsController.class)
@@ -40,6 +50,9 @@ public class UCSBDiningCommonsControllerTests extends ControllerTestCase {
         @MockBean
         UserRepository userRepository;
 
+        @MockBean
+        DiningCommonsLocationService diningCommonsLocationService;
+
         // Authorization tests for /api/ucsbdiningcommons/admin/all
 
         @Test
@@ -332,4 +345,287 @@ public class UCSBDiningCommonsControllerTests extends ControllerTestCase {
                 assertEquals("UCSBDiningCommons with id munger-hall not found", json.get("message"));
 
         }
+
+        // Tests for keyset pagination at /api/ucsbdiningcommons/page
+
+        @Test
+        public void logged_out_users_cannot_get_page() throws Exception {
+                mockMvc.perform(get("/api/ucsbdiningcommons/page"))
+                                .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_gets_first_page_with_next_cursor() throws Exception {
+
+                // arrange
+
+                UCSBDiningCommons first = UCSBDiningCommons.builder().code("alpha").name("first").build();
+                UCSBDiningCommons second = UCSBDiningCommons.builder().code("bravo").name("second").build();
+                UCSBDiningCommons third = UCSBDiningCommons.builder().code("charlie").name("third").build();
+
+                when(ucsbDiningCommonsRepository.findByCodeGreaterThan(eq(""), eq(PageRequest.of(0, 3, Sort.by("code")))))
+                                .thenReturn(new ArrayList<>(Arrays.asList(first, second, third)));
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/ucsbdiningcommons/page?size=2"))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+
+                verify(ucsbDiningCommonsRepository, times(1)).findByCodeGreaterThan(eq(""), eq(PageRequest.of(0, 3, Sort.by("code"))));
+                String expectedJson = mapper.writeValueAsString(new CursorPage<>(Arrays.asList(first, second), "bravo"));
+                String responseString = response.getResponse().getContentAsString();
+                assertEquals(expectedJson, responseString);
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_gets_last_page_without_next_cursor() throws Exception {
+
+                // arrange
+
+                UCSBDiningCommons last = UCSBDiningCommons.builder().code("delta").name("last").build();
+
+                when(ucsbDiningCommonsRepository.findByCodeGreaterThan(eq("charlie"), eq(PageRequest.of(0, 21, Sort.by("code")))))
+                                .thenReturn(new ArrayList<>(Arrays.asList(last)));
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/ucsbdiningcommons/page?after=charlie"))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+
+                verify(ucsbDiningCommonsRepository, times(1)).findByCodeGreaterThan(eq("charlie"), eq(PageRequest.of(0, 21, Sort.by("code"))));
+                String expectedJson = mapper.writeValueAsString(new CursorPage<>(Arrays.asList(last), null));
+                String responseString = response.getResponse().getContentAsString();
+                assertEquals(expectedJson, responseString);
+        }
+
+        // Tests for conditional GET on /api/ucsbdiningcommons/all and /api/ucsbdiningcommons?code=...
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_gets_etag_with_all() throws Exception {
+                String etag = tableVersionService.etag(UCSBDiningCommons.class);
+
+                mockMvc.perform(get("/api/ucsbdiningcommons/all"))
+                                .andExpect(status().isOk())
+                                .andExpect(header().string("ETag", etag))
+                                .andExpect(header().string("Cache-Control", "no-cache, private"));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_gets_304_for_all_when_etag_matches() throws Exception {
+                String etag = tableVersionService.etag(UCSBDiningCommons.class);
+
+                mockMvc.perform(get("/api/ucsbdiningcommons/all").header("If-None-Match", etag))
+                                .andExpect(status().isNotModified())
+                                .andExpect(content().string(""));
+
+                verify(ucsbDiningCommonsRepository, times(0)).findAll();
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_gets_304_for_get_by_id_when_etag_matches() throws Exception {
+                String etag = tableVersionService.etag(UCSBDiningCommons.class, "carrillo");
+
+                mockMvc.perform(get("/api/ucsbdiningcommons?code=carrillo").header("If-None-Match", etag))
+                                .andExpect(status().isNotModified())
+                                .andExpect(content().string(""));
+
+                verify(ucsbDiningCommonsRepository, times(0)).findById(any());
+        }
+
+        // Tests for POST, PUT and DELETE /api/ucsbdiningcommons/batch
+
+        @Test
+        public void logged_out_users_cannot_post_batch() throws Exception {
+                mockMvc.perform(post("/api/ucsbdiningcommons/batch")
+                                .with(csrf())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("[]"))
+                                .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_regular_users_cannot_delete_batch() throws Exception {
+                mockMvc.perform(delete("/api/ucsbdiningcommons/batch?codes=carrillo")
+                                .with(csrf()))
+                                .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void an_admin_user_can_post_a_batch() throws Exception {
+                // arrange
+
+                UCSBDiningCommons first = UCSBDiningCommons.builder().code("carrillo").name("Carrillo").build();
+                UCSBDiningCommons second = UCSBDiningCommons.builder().code("dlg").name("De La Guerra").build();
+
+                when(ucsbDiningCommonsRepository.saveAll(any())).thenReturn(List.of(first, second));
+
+                String requestBody = mapper.writeValueAsString(List.of(first, second));
+
+                // act
+                MvcResult response = mockMvc.perform(
+                                post("/api/ucsbdiningcommons/batch")
+                                                .contentType(MediaType.APPLICATION_JSON)
+                                                .characterEncoding("utf-8")
+                                                .content(requestBody)
+                                                .with(csrf()))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+                verify(ucsbDiningCommonsRepository, times(1)).saveAll(eq(List.of(first, second)));
+                String expectedJson = mapper.writeValueAsString(List.of(
+                                new BatchItemResult<>(0, "carrillo", BatchItemResult.Status.CREATED),
+                                new BatchItemResult<>(1, "dlg", BatchItemResult.Status.CREATED)));
+                assertEquals(expectedJson, response.getResponse().getContentAsString());
+        }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void an_admin_user_cannot_overwrite_commons_with_a_post_batch() throws Exception {
+                // arrange
+
+                UCSBDiningCommons stored = UCSBDiningCommons.builder().code("carrillo").name("Carrillo").build();
+                UCSBDiningCommons existing = UCSBDiningCommons.builder().code("carrillo").name("Not Carrillo").build();
+                UCSBDiningCommons fresh = UCSBDiningCommons.builder().code("dlg").name("De La Guerra").build();
+                UCSBDiningCommons repeated = UCSBDiningCommons.builder().code("dlg").name("Not De La Guerra").build();
+
+                when(ucsbDiningCommonsRepository.findAllById(eq(List.of("carrillo", "dlg", "dlg")))).thenReturn(List.of(stored));
+
+                String requestBody = mapper.writeValueAsString(List.of(existing, fresh, repeated));
+
+                // act
+                MvcResult response = mockMvc.perform(
+                                post("/api/ucsbdiningcommons/batch")
+                                                .contentType(MediaType.APPLICATION_JSON)
+                                                .characterEncoding("utf-8")
+                                                .content(requestBody)
+                                                .with(csrf()))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+                verify(ucsbDiningCommonsRepository, times(1)).saveAll(eq(List.of(fresh)));
+                String expectedJson = mapper.writeValueAsString(List.of(
+                                new BatchItemResult<>(0, "carrillo", BatchItemResult.Status.CONFLICT),
+                                new BatchItemResult<>(1, "dlg", BatchItemResult.Status.CREATED),
+                                new BatchItemResult<>(2, "dlg", BatchItemResult.Status.CONFLICT)));
+                assertEquals(expectedJson, response.getResponse().getContentAsString());
+        }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void an_admin_user_can_put_a_batch_and_missing_rows_are_reported() throws Exception {
+                // arrange
+
+                UCSBDiningCommons stored = UCSBDiningCommons.builder().code("carrillo").name("Carrillo").build();
+                UCSBDiningCommons edited = UCSBDiningCommons.builder().code("carrillo").name("De La Guerra").build();
+                UCSBDiningCommons missing = UCSBDiningCommons.builder().code("dlg").name("De La Guerra").build();
+
+                when(ucsbDiningCommonsRepository.findAllById(eq(List.of("carrillo", "dlg")))).thenReturn(List.of(stored));
+
+                String requestBody = mapper.writeValueAsString(List.of(edited, missing));
+
+                // act
+                MvcResult response = mockMvc.perform(
+                                put("/api/ucsbdiningcommons/batch")
+                                                .contentType(MediaType.APPLICATION_JSON)
+                                                .characterEncoding("utf-8")
+                                                .content(requestBody)
+                                                .with(csrf()))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+                assertEquals(edited, stored);
+                verify(ucsbDiningCommonsRepository, times(1)).saveAll(eq(List.of(edited)));
+                String expectedJson = mapper.writeValueAsString(List.of(
+                                new BatchItemResult<>(0, "carrillo", BatchItemResult.Status.UPDATED),
+                                new BatchItemResult<>(1, "dlg", BatchItemResult.Status.NOT_FOUND)));
+                assertEquals(expectedJson, response.getResponse().getContentAsString());
+        }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void an_admin_user_can_delete_a_batch_and_missing_rows_are_reported() throws Exception {
+                // arrange
+
+                UCSBDiningCommons stored = UCSBDiningCommons.builder().code("carrillo").name("Carrillo").build();
+
+                when(ucsbDiningCommonsRepository.findAllById(eq(List.of("carrillo", "dlg")))).thenReturn(List.of(stored));
+
+                // act
+                MvcResult response = mockMvc.perform(
+                                delete("/api/ucsbdiningcommons/batch?codes=carrillo,dlg")
+                                                .with(csrf()))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+                verify(ucsbDiningCommonsRepository, times(1)).deleteAll(eq(List.of(stored)));
+                String expectedJson = mapper.writeValueAsString(List.of(
+                                new BatchItemResult<>(0, "carrillo", BatchItemResult.Status.DELETED),
+                                new BatchItemResult<>(1, "dlg", BatchItemResult.Status.NOT_FOUND)));
+                assertEquals(expectedJson, response.getResponse().getContentAsString());
+        }
+
+        // Tests for /api/ucsbdiningcommons/nearest
+
+        @Test
+        public void logged_out_users_cannot_get_nearest() throws Exception {
+                mockMvc.perform(get("/api/ucsbdiningcommons/nearest?lat=34.41&lon=-119.85"))
+                                .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_get_nearest_commons() throws Exception {
+
+                // arrange
+
+                UCSBDiningCommons ortega = UCSBDiningCommons.builder()
+                                .code("ortega")
+                                .name("Ortega")
+                                .latitude(34.410987)
+                                .longitude(-119.84709)
+                                .build();
+                List<NearbyDiningCommons> nearest = List.of(new NearbyDiningCommons(ortega, 120.5));
+
+                when(diningCommonsLocationService.nearest(eq(34.41), eq(-119.85), eq(1))).thenReturn(nearest);
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/ucsbdiningcommons/nearest?lat=34.41&lon=-119.85&k=1"))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+
+                verify(diningCommonsLocationService, times(1)).nearest(34.41, -119.85, 1);
+                assertEquals(mapper.writeValueAsString(nearest), response.getResponse().getContentAsString());
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void nearest_defaults_to_three_commons() throws Exception {
+                mockMvc.perform(get("/api/ucsbdiningcommons/nearest?lat=-90&lon=180"))
+                                .andExpect(status().isOk());
+
+                verify(diningCommonsLocationService, times(1)).nearest(-90, 180, 3);
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void nearest_rejects_points_that_are_not_on_the_earth() throws Exception {
+                mockMvc.perform(get("/api/ucsbdiningcommons/nearest?lat=90.5&lon=0"))
+                                .andExpect(status().isBadRequest());
+                mockMvc.perform(get("/api/ucsbdiningcommons/nearest?lat=0&lon=-180.5"))
+                                .andExpect(status().isBadRequest());
+                mockMvc.perform(get("/api/ucsbdiningcommons/nearest?lat=NaN&lon=0"))
+                                .andExpect(status().isBadRequest());
+
+                verify(diningCommonsLocationService, never()).nearest(anyDouble(), anyDouble(), anyInt());
+        }
 }
@@ -3,12 +3,15 @@ package edu.ucsb.cs156.example.controllers;
 import edu.ucsb.cs156.example.repositories.UserRepository;
 import edu.ucsb.cs156.example.testconfig.TestConfig;
 import edu.ucsb.cs156.example.ControllerTestCase;
+import edu.ucsb.cs156.example.models.BatchItemResult;
+import edu.ucsb.cs156.example.models.CursorPage;
 import edu.ucsb.cs156.example.entities.UCSBOrganization;
 import edu.ucsb.cs156.example.repositories.UCSBOrganizationRepository;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Map;
+import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
@@ -16,6 +19,8 @@ import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -350,4 +355,230 @@ public class UCSBOrganizationControllerTests extends ControllerTestCase{
         assertEquals("UCSBOrganization with id pickleball not found", json.get("message"));
     }
 
-}   
\ No newline at end of file
+    // Tests for keyset pagination at /api/UCSBOrganization/page
+
+    @Test
+    public void logged_out_users_cannot_get_page() throws Exception {
+        mockMvc.perform(get("/api/UCSBOrganization/page"))
+                .andExpect(status().is(403));
+    }
+
+    @WithMockUser(roles = { "USER" })
+    @Test
+    public void logged_in_user_gets_first_page_with_next_cursor() throws Exception {
+
+        // arrange
+
+        UCSBOrganization first = UCSBOrganization.builder().orgCode("alpha").orgTranslationShort("first").build();
+        UCSBOrganization second = UCSBOrganization.builder().orgCode("bravo").orgTranslationShort("second").build();
+        UCSBOrganization third = UCSBOrganization.builder().orgCode("charlie").orgTranslationShort("third").build();
+
+        when(ucsbOrganizationRepository.findByOrgCodeGreaterThan(eq(""), eq(PageRequest.of(0, 3, Sort.by("orgCode")))))
+                .thenReturn(new ArrayList<>(Arrays.asList(first, second, third)));
+
+        // act
+        MvcResult response = mockMvc.perform(get("/api/UCSBOrganization/page?size=2"))
+                .andExpect(status().isOk()).andReturn();
+
+        // assert
+
+        verify(ucsbOrganizationRepository, times(1)).findByOrgCodeGreaterThan(eq(""), eq(PageRequest.of(0, 3, Sort.by("orgCode"))));
+        String expectedJson = mapper.writeValueAsString(new CursorPage<>(Arrays.asList(first, second), "bravo"));
+        String responseString = response.getResponse().getContentAsString();
+        assertEquals(expectedJson, responseString);
+    }
+
+    @WithMockUser(roles = { "USER" })
+    @Test
+    public void logged_in_user_gets_last_page_without_next_cursor() throws Exception {
+
+        // arrange
+
+        UCSBOrganization last = UCSBOrganization.builder().orgCode("delta").orgTranslationShort("last").build();
+
+        when(ucsbOrganizationRepository.findByOrgCodeGreaterThan(eq("charlie"), eq(PageRequest.of(0, 21, Sort.by("orgCode")))))
+                .thenReturn(new ArrayList<>(Arrays.asList(last)));
+
+        // act
+        MvcResult response = mockMvc.perform(get("/api/UCSBOrganization/page?after=charlie"))
+                .andExpect(status().isOk()).andReturn();
+
+        // assert
+
+        verify(ucsbOrganizationRepository, times(1)).findByOrgCodeGreaterThan(eq("charlie"), eq(PageRequest.of(0, 21, Sort.by("orgCode"))));
+        String expectedJson = mapper.writeValueAsString(new CursorPage<>(Arrays.asList(last), null));
+        String responseString = response.getResponse().getContentAsString();
+        assertEquals(expectedJson, responseString);
+    }
+
+    // Tests for conditional GET on /api/UCSBOrganization/all and /api/UCSBOrganization?orgCode=...
+
+    @WithMockUser(roles = { "USER" })
+    @Test
+    public void logged_in_user_gets_etag_with_all() throws Exception {
+        String etag = tableVersionService.etag(UCSBOrganization.class);
+
+        mockMvc.perform(get("/api/UCSBOrganization/all"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(header().string("Cache-Control", "no-cache, private"));
+    }
+
+    @WithMockUser(roles = { "USER" })
+    @Test
+    public void logged_in_user_gets_304_for_all_when_etag_matches() throws Exception {
+        String etag = tableVersionService.etag(UCSBOrganization.class);
+
+        mockMvc.perform(get("/api/UCSBOrganization/all").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(ucsbOrganizationRepository, times(0)).findAll();
+    }
+
+    @WithMockUser(roles = { "USER" })
+    @Test
+    public void logged_in_user_gets_304_for_get_by_id_when_etag_matches() throws Exception {
+        String etag = tableVersionService.etag(UCSBOrganization.class, "SKY");
+
+        mockMvc.perform(get("/api/UCSBOrganization?orgCode=SKY").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(ucsbOrganizationRepository, times(0)).findById(any());
+    }
+
+    // Tests for POST, PUT and DELETE /api/UCSBOrganization/batch
+
+    @Test
+    public void logged_out_users_cannot_post_batch() throws Exception {
+        mockMvc.perform(post("/api/UCSBOrganization/batch")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[]"))
+                .andExpect(status().is(403));
+    }
+
+    @WithMockUser(roles = { "USER" })
+    @Test
+    public void logged_in_regular_users_cannot_delete_batch() throws Exception {
+        mockMvc.perform(delete("/api/UCSBOrganization/batch?orgCodes=SKY")
+                .with(csrf()))
+                .andExpect(status().is(403));
+    }
+
+    @WithMockUser(roles = { "ADMIN", "USER" })
+    @Test
+    public void an_admin_user_can_post_a_batch() throws Exception {
+        // arrange
+
+        UCSBOrganization first = UCSBOrganization.builder().orgCode("SKY").orgTranslationShort("SKYDIVING CLUB").build();
+        UCSBOrganization second = UCSBOrganization.builder().orgCode("OSLI").orgTranslationShort("OSLI").build();
+
+        when(ucsbOrganizationRepository.saveAll(any())).thenReturn(List.of(first, second));
+
+        String requestBody = mapper.writeValueAsString(List.of(first, second));
+
+        // act
+        MvcResult response = mockMvc.perform(
+                post("/api/UCSBOrganization/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .characterEncoding("utf-8")
+                        .content(requestBody)
+                        .with(csrf()))
+                .andExpect(status().isOk()).andReturn();
+
+        // assert
+        verify(ucsbOrganizationRepository, times(1)).saveAll(eq(List.of(first, second)));
+        String expectedJson = mapper.writeValueAsString(List.of(
+                new BatchItemResult<>(0, "SKY", BatchItemResult.Status.CREATED),
+                new BatchItemResult<>(1, "OSLI", BatchItemResult.Status.CREATED)));
+        assertEquals(expectedJson, response.getResponse().getContentAsString());
+    }
+
+    @WithMockUser(roles = { "ADMIN", "USER" })
+    @Test
+    public void an_admin_user_cannot_overwrite_orgs_with_a_post_batch() throws Exception {
+        // arrange
+
+        UCSBOrganization stored = UCSBOrganization.builder().orgCode("SKY").orgTranslationShort("SKYDIVING CLUB").build();
+        UCSBOrganization existing = UCSBOrganization.builder().orgCode("SKY").orgTranslationShort("SKY").build();
+        UCSBOrganization fresh = UCSBOrganization.builder().orgCode("OSLI").orgTranslationShort("OSLI").build();
+        UCSBOrganization repeated = UCSBOrganization.builder().orgCode("OSLI").orgTranslationShort("NOT OSLI").build();
+
+        when(ucsbOrganizationRepository.findAllById(eq(List.of("SKY", "OSLI", "OSLI")))).thenReturn(List.of(stored));
+
+        String requestBody = mapper.writeValueAsString(List.of(existing, fresh, repeated));
+
+        // act
+        MvcResult response = mockMvc.perform(
+                post("/api/UCSBOrganization/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .characterEncoding("utf-8")
+                        .content(requestBody)
+                        .with(csrf()))
+                .andExpect(status().isOk()).andReturn();
+
+        // assert
+        verify(ucsbOrganizationRepository, times(1)).saveAll(eq(List.of(fresh)));
+        String expectedJson = mapper.writeValueAsString(List.of(
+                new BatchItemResult<>(0, "SKY", BatchItemResult.Status.CONFLICT),
+                new BatchItemResult<>(1, "OSLI", BatchItemResult.Status.CREATED),
+                new BatchItemResult<>(2, "OSLI", BatchItemResult.Status.CONFLICT)));
+        assertEquals(expectedJson, response.getResponse().getContentAsString());
+    }
+
+    @WithMockUser(roles = { "ADMIN", "USER" })
+    @Test
+    public void an_admin_user_can_put_a_batch_and_missing_rows_are_reported() throws Exception {
+        // arrange
+
+        UCSBOrganization stored = UCSBOrganization.builder().orgCode("SKY").orgTranslationShort("SKYDIVING CLUB").build();
+        UCSBOrganization edited = UCSBOrganization.builder().orgCode("SKY").orgTranslationShort("OSLI").build();
+        UCSBOrganization missing = UCSBOrganization.builder().orgCode("OSLI").orgTranslationShort("OSLI").build();
+
+        when(ucsbOrganizationRepository.findAllById(eq(List.of("SKY", "OSLI")))).thenReturn(List.of(stored));
+
+        String requestBody = mapper.writeValueAsString(List.of(edited, missing));
+
+        // act
+        MvcResult response = mockMvc.perform(
+                put("/api/UCSBOrganization/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .characterEncoding("utf-8")
+                        .content(requestBody)
+                        .with(csrf()))
+                .andExpect(status().isOk()).andReturn();
+
+        // assert
+        assertEquals(edited, stored);
+        verify(ucsbOrganizationRepository, times(1)).saveAll(eq(List.of(edited)));
+        String expectedJson = mapper.writeValueAsString(List.of(
+                new BatchItemResult<>(0, "SKY", BatchItemResult.Status.UPDATED),
+                new BatchItemResult<>(1, "OSLI", BatchItemResult.Status.NOT_FOUND)));
+        assertEquals(expectedJson, response.getResponse().getContentAsString());
+    }
+
+    @WithMockUser(roles = { "ADMIN", "USER" })
+    @Test
+    public void an_admin_user_can_delete_a_batch_and_missing_rows_are_reported() throws Exception {
+        // arrange
+
+        UCSBOrganization stored = UCSBOrganization.builder().orgCode("SKY").orgTranslationShort("SKYDIVING CLUB").build();
+
+        when(ucsbOrganizationRepository.findAllById(eq(List.of("SKY", "OSLI")))).thenReturn(List.of(stored));
+
+        // act
+        MvcResult response = mockMvc.perform(
+                delete("/api/UCSBOrganization/batch?orgCodes=SKY,OSLI")
+                        .with(csrf()))
+                .andExpect(status().isOk()).andReturn();
+
+        // assert
+        verify(ucsbOrganizationRepository, times(1)).deleteAll(eq(List.of(stored)));
+        String expectedJson = mapper.writeValueAsString(List.of(
+                new BatchItemResult<>(0, "SKY", BatchItemResult.Status.DELETED),
+                new BatchItemResult<>(1, "OSLI", BatchItemResult.Status.NOT_FOUND)));
+        assertEquals(expectedJson, response.getResponse().getContentAsString());
+    }
+}
@@ -0,0 +1,39 @@
+package edu.ucsb.cs156.example.entities;
+
+import static org.mockito.Mockito.verify;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import edu.ucsb.cs156.example.services.DiningCommonsLocationService;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = DiningCommonsLocationListener.class)
+class DiningCommonsLocationListenerTests {
+
+  @MockBean
+  DiningCommonsLocationService diningCommonsLocationService;
+
+  @Autowired
+  DiningCommonsLocationListener diningCommonsLocationListener;
+
+  UCSBDiningCommons ortega = UCSBDiningCommons.builder().code("ortega").latitude(34.41).longitude(-119.85).build();
+
+  @Test
+  void test_saved_indexes_the_commons() {
+    diningCommonsLocationListener.saved(ortega);
+
+    verify(diningCommonsLocationService).saved(ortega);
+  }
+
+  @Test
+  void test_removed_removes_the_commons() {
+    diningCommonsLocationListener.removed(ortega);
+
+    verify(diningCommonsLocationService).removed(ortega);
+  }
+}
@@ -0,0 +1,41 @@
+package edu.ucsb.cs156.example.entities;
+
+import static org.mockito.Mockito.verify;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import edu.ucsb.cs156.example.services.SearchService;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = SearchIndexListener.class)
+class SearchIndexListenerTests {
+
+  @MockBean
+  SearchService searchService;
+
+  @Autowired
+  SearchIndexListener searchIndexListener;
+
+  @Test
+  void test_saved_indexes_the_entity() {
+    Restaurant restaurant = Restaurant.builder().id(1L).name("Freebirds").build();
+
+    searchIndexListener.saved(restaurant);
+
+    verify(searchService).indexed(restaurant);
+  }
+
+  @Test
+  void test_removed_removes_the_entity() {
+    Restaurant restaurant = Restaurant.builder().id(1L).name("Freebirds").build();
+
+    searchIndexListener.removed(restaurant);
+
+    verify(searchService).removed(restaurant);
+  }
+}
@@ -0,0 +1,30 @@
+package edu.ucsb.cs156.example.entities;
+
+import static org.mockito.Mockito.verify;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import edu.ucsb.cs156.example.services.TableVersionService;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = TableVersionListener.class)
+class TableVersionListenerTests {
+
+  @MockBean
+  TableVersionService tableVersionService;
+
+  @Autowired
+  TableVersionListener tableVersionListener;
+
+  @Test
+  void test_changed_bumps_the_entity_class() {
+    tableVersionListener.changed(new UCSBDate());
+
+    verify(tableVersionService).bump(UCSBDate.class);
+  }
+}
@@ -0,0 +1,36 @@
+package edu.ucsb.cs156.example.entities;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import edu.ucsb.cs156.example.models.UserChangedEvent;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = UserChangeListener.class)
+@RecordApplicationEvents
+class UserChangeListenerTests {
+
+  @Autowired
+  UserChangeListener userChangeListener;
+
+  @Autowired
+  ApplicationEvents events;
+
+  @Test
+  void test_changed_publishes_the_users_sub_and_email() {
+    userChangeListener.changed(User.builder().googleSub("115856948234298493496").email("cgaucho@ucsb.edu").build());
+
+    List<UserChangedEvent> published = events.stream(UserChangedEvent.class).collect(Collectors.toList());
+    assertEquals(List.of(new UserChangedEvent("115856948234298493496", "cgaucho@ucsb.edu")), published);
+  }
+}
@@ -0,0 +1,70 @@
+package edu.ucsb.cs156.example.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import edu.ucsb.cs156.example.services.DiningCommonsLocationService;
+import edu.ucsb.cs156.example.services.SearchService;
+import edu.ucsb.cs156.example.services.TableVersionService;
+
+/**
+ * Checks that data-h2.sql, which runs at every startup, moves each id
+ * sequence above the rows already in its table and never moves it back.
+ */
+@DataJpaTest
+@Import({ TableVersionService.class, SearchService.class, DiningCommonsLocationService.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class IdSequenceTests {
+
+  @Autowired
+  JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  DataSource dataSource;
+
+  private void runStartupScript() {
+    new ResourceDatabasePopulator(new ClassPathResource("data-h2.sql")).execute(dataSource);
+  }
+
+  private long nextBlockStart() {
+    // the pooled optimizer hands out the 50 ids ending at the value it reads
+    return jdbcTemplate.queryForObject("select next value for ucsbdates_seq", Long.class) - 49;
+  }
+
+  @AfterEach
+  void deleteRows() {
+    jdbcTemplate.update("delete from ucsbdates");
+  }
+
+  @Test
+  void test_the_sequence_is_moved_above_rows_inserted_without_it() {
+    jdbcTemplate.update("insert into ucsbdates (id, name, quarteryyyyq) values (5000, 'a', '20221'), (5001, 'b', '20221')");
+
+    runStartupScript();
+
+    assertTrue(nextBlockStart() > 5001);
+  }
+
+  @Test
+  void test_the_sequence_is_never_moved_back() {
+    runStartupScript();
+    long first = nextBlockStart();
+
+    runStartupScript();
+
+    assertEquals(first + 50, nextBlockStart());
+  }
+}
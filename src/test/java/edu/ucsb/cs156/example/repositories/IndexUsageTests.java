@@ -0,0 +1,113 @@
+package edu.ucsb.cs156.example.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import edu.ucsb.cs156.example.services.DiningCommonsLocationService;
+import edu.ucsb.cs156.example.services.SearchService;
+import edu.ucsb.cs156.example.services.TableVersionService;
+
+/**
+ * Checks that the queries behind the repository lookups use the indexes
+ * declared on the entities with @Table(indexes = ...), by running EXPLAIN
+ * against the H2 schema built from the mappings.
+ */
+@DataJpaTest
+@Import({ TableVersionService.class, SearchService.class, DiningCommonsLocationService.class })
+class IndexUsageTests {
+
+  @Autowired
+  JdbcTemplate jdbcTemplate;
+
+  private String plan(String sql) {
+    List<String> rows = jdbcTemplate.queryForList("EXPLAIN " + sql, String.class);
+    return String.join("\n", rows).toLowerCase();
+  }
+
+  private void assertUsesIndex(String index, String sql) {
+    String plan = plan(sql);
+    assertTrue(plan.contains(index), () -> "expected " + index + " in plan:\n" + plan);
+  }
+
+  // The index also gives the ORDER BY, so the page needs no sort
+  private void assertReadsInOrder(String index, String sql) {
+    String plan = plan(sql);
+    assertTrue(plan.contains(index) && plan.contains("index sorted"),
+        () -> "expected a sorted read of " + index + " in plan:\n" + plan);
+  }
+
+  @Test
+  void findByEmail_uses_idx_users_email() {
+    assertUsesIndex("idx_users_email",
+        "SELECT * FROM users WHERE email = 'phtcon@ucsb.edu'");
+  }
+
+  @Test
+  void findAllByQuarterYYYYQ_uses_idx_ucsbdates_quarteryyyyq() {
+    assertUsesIndex("idx_ucsbdates_quarteryyyyq",
+        "SELECT * FROM ucsbdates WHERE quarteryyyyq = '20231'");
+  }
+
+  @Test
+  void reviews_by_item_use_idx_menuitemreview_item_id() {
+    assertUsesIndex("idx_menuitemreview_item_id",
+        "SELECT * FROM menuitemreview WHERE item_id = 7");
+  }
+
+  @Test
+  void reviews_of_an_item_are_paged_by_id_off_idx_menuitemreview_item_id() {
+    // H2 does not report "index sorted" past an equality prefix, but it
+    // shows both columns used as the index condition
+    String plan = plan("SELECT * FROM menuitemreview WHERE item_id = 7 AND id > 40 ORDER BY id LIMIT 21")
+        .replaceAll("\\s+", " ");
+    assertTrue(plan.contains("idx_menuitemreview_item_id: item_id = 7 and id > 40"), plan);
+  }
+
+  @Test
+  void reviews_by_date_are_paged_by_date_and_id_off_idx_menuitemreview_date_reviewed() {
+    assertReadsInOrder("idx_menuitemreview_date_reviewed",
+        "SELECT * FROM menuitemreview WHERE date_reviewed >= '2023-01-15 12:00:00' AND date_reviewed <= '2023-02-01 00:00:00'"
+            + " AND (date_reviewed > '2023-01-15 12:00:00' OR id > 40) ORDER BY date_reviewed, id LIMIT 21");
+  }
+
+  @Test
+  void reviews_by_reviewer_use_idx_menuitemreview_reviewer_email() {
+    assertUsesIndex("idx_menuitemreview_reviewer_email",
+        "SELECT * FROM menuitemreview WHERE reviewer_email = 'cgaucho@ucsb.edu'");
+  }
+
+  @Test
+  void reviews_by_date_use_idx_menuitemreview_date_reviewed() {
+    assertUsesIndex("idx_menuitemreview_date_reviewed",
+        "SELECT * FROM menuitemreview WHERE date_reviewed BETWEEN '2023-01-01 00:00:00' AND '2023-02-01 00:00:00'");
+  }
+
+  @Test
+  void open_requests_of_a_professor_are_paged_off_idx_recommendationrequest_professor_open() {
+    assertUsesIndex("idx_recommendationrequest_professor_open",
+        "SELECT * FROM recommendation_request WHERE professor_email = 'phtcon@ucsb.edu' AND done = FALSE"
+            + " AND date_needed >= '2023-01-01 00:00:00' AND (date_needed > '2023-01-01 00:00:00' OR id > 40)"
+            + " ORDER BY date_needed, id LIMIT 21");
+  }
+
+  @Test
+  void overdue_requests_are_paged_off_idx_recommendationrequest_open_date_needed() {
+    assertUsesIndex("idx_recommendationrequest_open_date_needed",
+        "SELECT * FROM recommendation_request WHERE done = FALSE"
+            + " AND date_needed >= '2022-01-01 00:00:00' AND date_needed < '2023-01-01 00:00:00'"
+            + " AND (date_needed > '2022-01-01 00:00:00' OR id > 40) ORDER BY date_needed, id LIMIT 21");
+  }
+
+  @Test
+  void menu_items_by_commons_use_idx_ucsbdiningcommonsmenuitems_dining_commons_code() {
+    assertUsesIndex("idx_ucsbdiningcommonsmenuitems_dining_commons_code",
+        "SELECT * FROM ucsbdiningcommonsmenuitems WHERE dining_commons_code = 'ortega'");
+  }
+}
@@ -0,0 +1,65 @@
+package edu.ucsb.cs156.example.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import edu.ucsb.cs156.example.entities.MenuItemReview;
+import edu.ucsb.cs156.example.services.DiningCommonsLocationService;
+import edu.ucsb.cs156.example.services.SearchService;
+import edu.ucsb.cs156.example.services.TableVersionService;
+
+@DataJpaTest
+@Import({ TableVersionService.class, SearchService.class, DiningCommonsLocationService.class })
+class MenuItemReviewRepositoryTests {
+
+  private static final LocalDateTime NOON = LocalDateTime.parse("2023-01-15T12:00:00");
+
+  @Autowired
+  MenuItemReviewRepository menuItemReviewRepository;
+
+  private MenuItemReview review(LocalDateTime dateReviewed) {
+    return menuItemReviewRepository.save(MenuItemReview.builder().itemId(7L).stars(4).dateReviewed(dateReviewed).build());
+  }
+
+  private List<Long> page(LocalDateTime afterDate, long afterId, LocalDateTime to) {
+    return menuItemReviewRepository
+        .findByDateReviewedAfter(afterDate, afterId, to, PageRequest.of(0, 2, Sort.by("dateReviewed", "id")))
+        .stream().map(MenuItemReview::getId).collect(Collectors.toList());
+  }
+
+  @Test
+  void findByDateReviewedAfter_pages_through_reviews_that_share_a_date() {
+    MenuItemReview later = review(NOON.plusDays(1));
+    MenuItemReview first = review(NOON);
+    MenuItemReview second = review(NOON);
+    MenuItemReview third = review(NOON);
+    review(NOON.minusDays(1));
+    review(NOON.plusDays(30));
+    LocalDateTime to = NOON.plusDays(7);
+
+    assertEquals(List.of(first.getId(), second.getId()), page(NOON, 0, to));
+    assertEquals(List.of(third.getId(), later.getId()), page(NOON, second.getId(), to));
+    assertEquals(List.of(), page(later.getDateReviewed(), later.getId(), to));
+  }
+
+  @Test
+  void findAllForUpdate_returns_the_stored_rows_in_id_order() {
+    MenuItemReview first = review(NOON);
+    review(NOON);
+    MenuItemReview third = review(NOON);
+
+    assertEquals(List.of(first.getId(), third.getId()),
+        menuItemReviewRepository.findAllForUpdate(List.of(third.getId(), first.getId(), third.getId() + 100)).stream()
+            .map(MenuItemReview::getId).collect(Collectors.toList()));
+  }
+}
@@ -0,0 +1,79 @@
+package edu.ucsb.cs156.example.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import edu.ucsb.cs156.example.entities.RecommendationRequest;
+import edu.ucsb.cs156.example.services.DiningCommonsLocationService;
+import edu.ucsb.cs156.example.services.SearchService;
+import edu.ucsb.cs156.example.services.TableVersionService;
+
+@DataJpaTest
+@Import({ TableVersionService.class, SearchService.class, DiningCommonsLocationService.class })
+class RecommendationRequestRepositoryTests {
+
+  private static final LocalDateTime NOON = LocalDateTime.parse("2023-01-15T12:00:00");
+  private static final LocalDateTime EARLIEST = LocalDateTime.of(1, 1, 1, 0, 0);
+  private static final PageRequest PAGE = PageRequest.of(0, 2, Sort.by("dateNeeded", "id"));
+
+  @Autowired
+  RecommendationRequestRepository recommendationRequestRepository;
+
+  private RecommendationRequest request(String professorEmail, LocalDateTime dateNeeded, boolean done) {
+    return recommendationRequestRepository.save(RecommendationRequest.builder()
+        .professorEmail(professorEmail).dateNeeded(dateNeeded).done(done).build());
+  }
+
+  private static List<Long> ids(List<RecommendationRequest> requests) {
+    return requests.stream().map(RecommendationRequest::getId).collect(Collectors.toList());
+  }
+
+  @Test
+  void findOpenByProfessorEmailAfter_pages_through_requests_that_share_a_date() {
+    RecommendationRequest later = request("phtcon@ucsb.edu", NOON.plusDays(1), false);
+    RecommendationRequest first = request("phtcon@ucsb.edu", NOON, false);
+    RecommendationRequest second = request("phtcon@ucsb.edu", NOON, false);
+    request("phtcon@ucsb.edu", NOON.minusDays(1), true);
+    request("phtcon@ucsb.edu", null, false);
+    request("ziad@ucsb.edu", NOON, false);
+
+    assertEquals(List.of(first.getId(), second.getId()),
+        ids(recommendationRequestRepository.findOpenByProfessorEmailAfter("phtcon@ucsb.edu", EARLIEST, 0, PAGE)));
+    assertEquals(List.of(later.getId()),
+        ids(recommendationRequestRepository.findOpenByProfessorEmailAfter("phtcon@ucsb.edu", NOON, second.getId(), PAGE)));
+  }
+
+  @Test
+  void findOverdueAfter_stops_at_now() {
+    RecommendationRequest first = request("phtcon@ucsb.edu", NOON.minusDays(2), false);
+    RecommendationRequest second = request("ziad@ucsb.edu", NOON.minusDays(1), false);
+    RecommendationRequest third = request("ziad@ucsb.edu", NOON.minusDays(1), false);
+    request("ziad@ucsb.edu", NOON.minusDays(3), true);
+    request("ziad@ucsb.edu", NOON, false);
+
+    assertEquals(List.of(first.getId(), second.getId()),
+        ids(recommendationRequestRepository.findOverdueAfter(EARLIEST, 0, NOON, PAGE)));
+    assertEquals(List.of(third.getId()),
+        ids(recommendationRequestRepository.findOverdueAfter(NOON.minusDays(1), second.getId(), NOON, PAGE)));
+  }
+
+  @Test
+  void findOverdueByProfessorEmailAfter_keeps_to_one_professor() {
+    RecommendationRequest overdue = request("ziad@ucsb.edu", NOON.minusDays(1), false);
+    request("phtcon@ucsb.edu", NOON.minusDays(1), false);
+    request("ziad@ucsb.edu", NOON.plusDays(1), false);
+
+    assertEquals(List.of(overdue.getId()),
+        ids(recommendationRequestRepository.findOverdueByProfessorEmailAfter("ziad@ucsb.edu", EARLIEST, 0, NOON, PAGE)));
+  }
+}
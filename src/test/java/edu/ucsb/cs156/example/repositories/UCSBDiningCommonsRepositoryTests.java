@@ -0,0 +1,52 @@
+package edu.ucsb.cs156.example.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import edu.ucsb.cs156.example.entities.UCSBDiningCommons;
+import edu.ucsb.cs156.example.services.DiningCommonsLocationService;
+import edu.ucsb.cs156.example.services.SearchService;
+import edu.ucsb.cs156.example.services.TableVersionService;
+
+@DataJpaTest
+@Import({ TableVersionService.class, SearchService.class, DiningCommonsLocationService.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UCSBDiningCommonsRepositoryTests {
+
+  @Autowired
+  UCSBDiningCommonsRepository ucsbDiningCommonsRepository;
+
+  @Autowired
+  JdbcTemplate jdbcTemplate;
+
+  private static List<String> names(Iterable<UCSBDiningCommons> commons) {
+    return StreamSupport.stream(commons.spliterator(), false)
+        .map(UCSBDiningCommons::getName)
+        .collect(Collectors.toList());
+  }
+
+  @Test
+  void findAllUncached_reads_past_the_second_level_and_query_caches() {
+    ucsbDiningCommonsRepository.save(UCSBDiningCommons.builder().code("ortega").name("old").build());
+    assertEquals(List.of("old"), names(ucsbDiningCommonsRepository.findAll()));
+
+    // as another instance would, behind this instance's caches
+    jdbcTemplate.update("update ucsbdiningcommons set name = 'new'");
+
+    assertEquals(List.of("old"), names(ucsbDiningCommonsRepository.findAll()));
+    assertEquals(List.of("new"), names(ucsbDiningCommonsRepository.findAllUncached()));
+
+    ucsbDiningCommonsRepository.deleteAll();
+  }
+}
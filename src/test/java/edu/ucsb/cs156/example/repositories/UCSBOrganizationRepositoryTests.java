@@ -0,0 +1,52 @@
+package edu.ucsb.cs156.example.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import edu.ucsb.cs156.example.entities.UCSBOrganization;
+import edu.ucsb.cs156.example.services.DiningCommonsLocationService;
+import edu.ucsb.cs156.example.services.SearchService;
+import edu.ucsb.cs156.example.services.TableVersionService;
+
+@DataJpaTest
+@Import({ TableVersionService.class, SearchService.class, DiningCommonsLocationService.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UCSBOrganizationRepositoryTests {
+
+  @Autowired
+  UCSBOrganizationRepository ucsbOrganizationRepository;
+
+  @Autowired
+  JdbcTemplate jdbcTemplate;
+
+  private static List<String> names(Iterable<UCSBOrganization> organizations) {
+    return StreamSupport.stream(organizations.spliterator(), false)
+        .map(UCSBOrganization::getOrgTranslationShort)
+        .collect(Collectors.toList());
+  }
+
+  @Test
+  void findAllUncached_reads_past_the_second_level_and_query_caches() {
+    ucsbOrganizationRepository.save(UCSBOrganization.builder().orgCode("KRC").orgTranslationShort("old").build());
+    assertEquals(List.of("old"), names(ucsbOrganizationRepository.findAll()));
+
+    // as another instance would, behind this instance's caches
+    jdbcTemplate.update("update ucsborgs set org_translation_short = 'new'");
+
+    assertEquals(List.of("old"), names(ucsbOrganizationRepository.findAll()));
+    assertEquals(List.of("new"), names(ucsbOrganizationRepository.findAllUncached()));
+
+    ucsbOrganizationRepository.deleteAll();
+  }
+}
@@ -0,0 +1,147 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import edu.ucsb.cs156.example.entities.User;
+import edu.ucsb.cs156.example.models.UserChangedEvent;
+import edu.ucsb.cs156.example.repositories.UserRepository;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = AdminRoleService.class)
+@TestPropertySource(properties = "app.admin.emails=admin@ucsb.edu")
+class AdminRoleServiceTests {
+
+  @MockBean
+  UserRepository userRepository;
+
+  @Autowired
+  AdminRoleService adminRoleService;
+
+  @Autowired
+  ApplicationEventPublisher publisher;
+
+  @Test
+  void test_isAdminEmail() {
+    assertTrue(adminRoleService.isAdminEmail("admin@ucsb.edu"));
+    assertFalse(adminRoleService.isAdminEmail("student@ucsb.edu"));
+    assertFalse(adminRoleService.isAdminEmail(null));
+  }
+
+  @Test
+  void test_isAdmin_for_listed_email_does_not_query_database() {
+    assertTrue(adminRoleService.isAdmin("admin@ucsb.edu"));
+    verify(userRepository, never()).findByEmail(any());
+  }
+
+  @Test
+  void test_isAdmin_for_null_email() {
+    assertFalse(adminRoleService.isAdmin(null));
+    verify(userRepository, never()).findByEmail(any());
+  }
+
+  @Test
+  void test_isAdmin_reads_database_flag_once() {
+    User user = User.builder().email("prof@ucsb.edu").admin(true).build();
+    when(userRepository.findByEmail(eq("prof@ucsb.edu"))).thenReturn(Optional.of(user));
+
+    assertTrue(adminRoleService.isAdmin("prof@ucsb.edu"));
+    assertTrue(adminRoleService.isAdmin("prof@ucsb.edu"));
+
+    verify(userRepository, times(1)).findByEmail(eq("prof@ucsb.edu"));
+  }
+
+  @Test
+  void test_isAdmin_false_for_non_admin_and_unknown_users() {
+    User user = User.builder().email("student@ucsb.edu").admin(false).build();
+    when(userRepository.findByEmail(eq("student@ucsb.edu"))).thenReturn(Optional.of(user));
+    when(userRepository.findByEmail(eq("stranger@ucsb.edu"))).thenReturn(Optional.empty());
+
+    assertFalse(adminRoleService.isAdmin("student@ucsb.edu"));
+    assertFalse(adminRoleService.isAdmin("stranger@ucsb.edu"));
+  }
+
+  @Test
+  void test_invalidate_forces_database_read() {
+    User before = User.builder().email("ta@ucsb.edu").admin(false).build();
+    User after = User.builder().email("ta@ucsb.edu").admin(true).build();
+    when(userRepository.findByEmail(eq("ta@ucsb.edu"))).thenReturn(Optional.of(before), Optional.of(after));
+
+    assertFalse(adminRoleService.isAdmin("ta@ucsb.edu"));
+    adminRoleService.invalidate("ta@ucsb.edu");
+    adminRoleService.invalidate(null);
+    assertTrue(adminRoleService.isAdmin("ta@ucsb.edu"));
+
+    verify(userRepository, times(2)).findByEmail(eq("ta@ucsb.edu"));
+  }
+
+  @Test
+  void test_invalidateAll_forces_database_read() {
+    User user = User.builder().email("grader@ucsb.edu").admin(true).build();
+    when(userRepository.findByEmail(eq("grader@ucsb.edu"))).thenReturn(Optional.of(user));
+
+    assertTrue(adminRoleService.isAdmin("grader@ucsb.edu"));
+    adminRoleService.invalidateAll();
+    assertTrue(adminRoleService.isAdmin("grader@ucsb.edu"));
+
+    verify(userRepository, times(2)).findByEmail(eq("grader@ucsb.edu"));
+  }
+
+  @Test
+  void test_a_user_changed_event_invalidates_that_email() {
+    User before = User.builder().email("reader@ucsb.edu").admin(true).build();
+    User after = User.builder().email("reader@ucsb.edu").admin(false).build();
+    when(userRepository.findByEmail(eq("reader@ucsb.edu"))).thenReturn(Optional.of(before), Optional.of(after));
+
+    assertTrue(adminRoleService.isAdmin("reader@ucsb.edu"));
+    publisher.publishEvent(new UserChangedEvent("sub", "reader@ucsb.edu"));
+    assertFalse(adminRoleService.isAdmin("reader@ucsb.edu"));
+  }
+
+  @Test
+  void test_flags_are_read_again_once_the_ttl_expires() {
+    User user = User.builder().email("tutor@ucsb.edu").admin(true).build();
+    when(userRepository.findByEmail(eq("tutor@ucsb.edu"))).thenReturn(Optional.of(user));
+
+    adminRoleService.setCacheTtlSeconds(0);
+    try {
+      adminRoleService.isAdmin("tutor@ucsb.edu");
+      adminRoleService.isAdmin("tutor@ucsb.edu");
+    } finally {
+      adminRoleService.setCacheTtlSeconds(60);
+    }
+
+    verify(userRepository, times(2)).findByEmail(eq("tutor@ucsb.edu"));
+  }
+
+  @Test
+  void test_admin_emails_are_copied() {
+    List<String> emails = new ArrayList<>(List.of("chair@ucsb.edu"));
+    AdminRoleService service = new AdminRoleService();
+    service.setAdminEmails(emails);
+
+    emails.add("intruder@ucsb.edu");
+
+    assertTrue(service.isAdminEmail("chair@ucsb.edu"));
+    assertFalse(service.isAdminEmail("intruder@ucsb.edu"));
+  }
+}
@@ -0,0 +1,158 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import edu.ucsb.cs156.example.entities.User;
+import edu.ucsb.cs156.example.models.UserChangedEvent;
+import edu.ucsb.cs156.example.repositories.UserRepository;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = CurrentUserServiceImpl.class)
+@TestPropertySource(properties = "app.currentUser.cacheTtlSeconds=300")
+class CurrentUserServiceImplTests {
+
+  static final String SUB = "115856948234298493496";
+  static final String EMAIL = "cgaucho@ucsb.edu";
+
+  @MockBean
+  UserRepository userRepository;
+
+  @MockBean
+  GrantedAuthoritiesService grantedAuthoritiesService;
+
+  @MockBean
+  AdminRoleService adminRoleService;
+
+  @Autowired
+  CurrentUserServiceImpl currentUserService;
+
+  @Autowired
+  ApplicationEventPublisher publisher;
+
+  User stored = User.builder().id(1L).googleSub(SUB).email(EMAIL).fullName("Chris Gaucho").build();
+
+  @BeforeEach
+  void logInWithGoogle() {
+    Map<String, Object> attributes = Map.of(
+        "sub", SUB, "email", EMAIL, "email_verified", true, "name", "Chris Gaucho",
+        "given_name", "Chris", "family_name", "Gaucho", "picture", "https://example.org/cg.jpg",
+        "locale", "en", "hd", "ucsb.edu");
+    DefaultOAuth2User principal = new DefaultOAuth2User(
+        List.of(new SimpleGrantedAuthority("ROLE_USER")), attributes, "sub");
+    SecurityContextHolder.getContext().setAuthentication(
+        new OAuth2AuthenticationToken(principal, principal.getAuthorities(), "google"));
+    when(userRepository.findByEmail(eq(EMAIL))).thenReturn(Optional.of(stored));
+  }
+
+  @AfterEach
+  void logOut() {
+    SecurityContextHolder.clearContext();
+    currentUserService.evictAllUsers();
+    ReflectionTestUtils.setField(currentUserService, "cacheTtlSeconds", 300L);
+  }
+
+  @Test
+  void test_getUser_is_null_without_a_google_login() {
+    SecurityContextHolder.clearContext();
+
+    assertNull(currentUserService.getUser());
+  }
+
+  @Test
+  void test_getUser_reads_the_database_once_per_ttl() {
+    assertSame(stored, currentUserService.getUser());
+    assertSame(stored, currentUserService.getUser());
+
+    verify(userRepository, times(1)).findByEmail(eq(EMAIL));
+  }
+
+  @Test
+  void test_getUser_reads_the_database_again_once_the_entry_expires() {
+    ReflectionTestUtils.setField(currentUserService, "cacheTtlSeconds", 0L);
+
+    currentUserService.getUser();
+    currentUserService.getUser();
+
+    verify(userRepository, times(2)).findByEmail(eq(EMAIL));
+  }
+
+  @Test
+  void test_evictUser_and_evictAllUsers_force_a_database_read() {
+    currentUserService.getUser();
+    currentUserService.evictUser(SUB);
+    currentUserService.evictUser(null);
+    currentUserService.getUser();
+    currentUserService.evictAllUsers();
+    currentUserService.getUser();
+
+    verify(userRepository, times(3)).findByEmail(eq(EMAIL));
+  }
+
+  @Test
+  void test_a_user_changed_event_evicts_that_user() {
+    currentUserService.getUser();
+
+    publisher.publishEvent(new UserChangedEvent(SUB, EMAIL));
+    currentUserService.getUser();
+
+    verify(userRepository, times(2)).findByEmail(eq(EMAIL));
+  }
+
+  @Test
+  void test_first_login_creates_the_user() {
+    when(userRepository.findByEmail(eq(EMAIL))).thenReturn(Optional.empty());
+    when(adminRoleService.isAdminEmail(eq(EMAIL))).thenReturn(true);
+
+    User created = currentUserService.getUser();
+
+    assertEquals(SUB, created.getGoogleSub());
+    assertEquals("ucsb.edu", created.getHostedDomain());
+    assertTrue(created.getAdmin());
+    verify(userRepository).save(created);
+  }
+
+  @Test
+  void test_login_with_a_listed_admin_email_sets_the_admin_flag() {
+    when(adminRoleService.isAdminEmail(eq(EMAIL))).thenReturn(true);
+
+    assertTrue(currentUserService.getUser().getAdmin());
+
+    verify(userRepository).save(stored);
+  }
+
+  @Test
+  void test_login_of_a_regular_user_writes_nothing() {
+    currentUserService.getUser();
+
+    verify(userRepository, never()).save(any());
+  }
+}
@@ -0,0 +1,213 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import edu.ucsb.cs156.example.entities.UCSBDate;
+import edu.ucsb.cs156.example.entities.UCSBDiningCommons;
+import edu.ucsb.cs156.example.models.NearbyDiningCommons;
+import edu.ucsb.cs156.example.models.TableChangedElsewhereEvent;
+import edu.ucsb.cs156.example.repositories.UCSBDiningCommonsRepository;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = DiningCommonsLocationService.class)
+class DiningCommonsLocationServiceTests {
+
+  @MockBean
+  UCSBDiningCommonsRepository ucsbDiningCommonsRepository;
+
+  @MockBean
+  TableVersionService tableVersionService;
+
+  @Autowired
+  DiningCommonsLocationService diningCommonsLocationService;
+
+  static final double CELL = DiningCommonsLocationService.CELL_DEGREES;
+
+  // A point in the middle of a grid cell near campus
+  static final double LAT = 34.415;
+  static final double LON = -119.845;
+
+  private static UCSBDiningCommons commons(String code, Double latitude, Double longitude) {
+    return UCSBDiningCommons.builder().code(code).name(code).latitude(latitude).longitude(longitude).build();
+  }
+
+  // Nine commons, one in the middle of each cell of the 3x3 block around
+  // (LAT, LON), plus one more in the centre cell and one without a location
+  private List<UCSBDiningCommons> block() {
+    List<UCSBDiningCommons> block = new ArrayList<>();
+    for (int dRow = -1; dRow <= 1; dRow++) {
+      for (int dColumn = -1; dColumn <= 1; dColumn++) {
+        block.add(commons("c" + (dRow + 1) + (dColumn + 1), LAT + dRow * CELL, LON + dColumn * CELL));
+      }
+    }
+    block.add(commons("centre", LAT + CELL / 4, LON));
+    block.add(commons("nowhere", null, null));
+    return block;
+  }
+
+  private int load(List<UCSBDiningCommons> commons) {
+    when(ucsbDiningCommonsRepository.findAllUncached()).thenReturn(commons);
+    return diningCommonsLocationService.rebuild();
+  }
+
+  private static List<String> codes(List<NearbyDiningCommons> nearest) {
+    return nearest.stream().map(n -> n.getCommons().getCode()).collect(Collectors.toList());
+  }
+
+  @Test
+  void test_nearest_with_nothing_indexed_is_empty() {
+    load(List.of());
+
+    assertEquals(List.of(), diningCommonsLocationService.nearest(LAT, LON, 3));
+  }
+
+  @Test
+  void test_nearest_returns_the_closest_commons_first() {
+    assertEquals(10, load(block()));
+
+    List<NearbyDiningCommons> nearest = diningCommonsLocationService.nearest(LAT, LON, 2);
+
+    assertEquals(List.of("c11", "centre"), codes(nearest));
+    assertEquals(0.0, nearest.get(0).getDistanceMeters(), 0.001);
+    assertEquals(278.0, nearest.get(1).getDistanceMeters(), 1.0);
+  }
+
+  @Test
+  void test_nearest_searches_further_rings_when_needed() {
+    load(block());
+
+    // a little east of the middle, so c12 is closer than c10
+    List<NearbyDiningCommons> nearest = diningCommonsLocationService.nearest(LAT, LON + CELL / 10, 3);
+
+    assertEquals(List.of("c11", "centre", "c12"), codes(nearest));
+  }
+
+  @Test
+  void test_nearest_returns_every_located_commons_when_k_is_large() {
+    load(block());
+
+    List<NearbyDiningCommons> nearest = diningCommonsLocationService.nearest(LAT, LON, 20);
+
+    assertEquals(10, nearest.size());
+    assertEquals("c11", nearest.get(0).getCommons().getCode());
+  }
+
+  @Test
+  void test_nearest_checks_every_commons_when_they_are_sparse() {
+    load(List.of(
+        commons("goleta", 34.4358, -119.8276),
+        commons("isla vista", 34.4133, -119.8610),
+        commons("santa barbara", 34.4208, -119.6982)));
+
+    List<NearbyDiningCommons> nearest = diningCommonsLocationService.nearest(34.4140, -119.8489, 2);
+
+    assertEquals(List.of("isla vista", "goleta"), codes(nearest));
+  }
+
+  @Test
+  void test_saved_moves_and_removed_drops_commons() {
+    load(block());
+
+    diningCommonsLocationService.saved(commons("c00", LAT + CELL / 8, LON));
+    diningCommonsLocationService.saved(commons("c22", null, null));
+    diningCommonsLocationService.saved(commons("c02", LAT, null));
+    diningCommonsLocationService.removed(commons("centre", null, null));
+    diningCommonsLocationService.removed(commons("nowhere", null, null));
+
+    List<NearbyDiningCommons> nearest = diningCommonsLocationService.nearest(LAT, LON, 20);
+
+    assertEquals(List.of("c11", "c00"), codes(nearest).subList(0, 2));
+    assertEquals(7, nearest.size());
+  }
+
+  @Test
+  void test_changes_to_a_saved_entity_do_not_reach_the_index() {
+    load(List.of());
+    UCSBDiningCommons ortega = commons("ortega", LAT, LON);
+    diningCommonsLocationService.saved(ortega);
+
+    ortega.setName("changed");
+    ortega.setLatitude(null);
+    ortega.setLongitude(LON + 10 * CELL);
+
+    assertEquals(List.of("ortega"), codes(diningCommonsLocationService.nearest(LAT, LON, 1)));
+    assertEquals("ortega", diningCommonsLocationService.nearest(LAT, LON, 1).get(0).getCommons().getName());
+    diningCommonsLocationService.removed(ortega);
+    assertEquals(List.of(), diningCommonsLocationService.nearest(LAT, LON, 1));
+  }
+
+  @Test
+  void test_refresh_keeps_the_index_after_writes_on_this_instance() {
+    load(List.of(commons("ortega", LAT, LON)));
+    diningCommonsLocationService.removed(commons("ortega", null, null));
+    diningCommonsLocationService.tableChanged(new TableChangedElsewhereEvent(UCSBDate.class));
+
+    diningCommonsLocationService.refresh();
+
+    assertEquals(List.of(), diningCommonsLocationService.nearest(LAT, LON, 1));
+    verify(ucsbDiningCommonsRepository, times(1)).findAllUncached();
+    verify(tableVersionService, times(2)).version(UCSBDiningCommons.class);
+  }
+
+  @Test
+  void test_refresh_rebuilds_after_a_write_on_another_instance() {
+    load(List.of(commons("ortega", LAT, LON)));
+    diningCommonsLocationService.removed(commons("ortega", null, null));
+    diningCommonsLocationService.tableChanged(new TableChangedElsewhereEvent(UCSBDiningCommons.class));
+
+    diningCommonsLocationService.refresh();
+    diningCommonsLocationService.refresh();
+
+    assertEquals(List.of("ortega"), codes(diningCommonsLocationService.nearest(LAT, LON, 1)));
+    verify(ucsbDiningCommonsRepository, times(2)).findAllUncached();
+  }
+
+  @Test
+  void test_changes_inside_a_transaction_wait_for_the_commit() {
+    load(List.of());
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      diningCommonsLocationService.saved(commons("ortega", LAT, LON));
+      assertEquals(List.of(), diningCommonsLocationService.nearest(LAT, LON, 1));
+
+      for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+        synchronization.afterCommit();
+      }
+      assertEquals(List.of("ortega"), codes(diningCommonsLocationService.nearest(LAT, LON, 1)));
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+  }
+
+  @Test
+  void test_onStartup_builds_the_index() {
+    when(ucsbDiningCommonsRepository.findAllUncached()).thenReturn(List.of(commons("ortega", LAT, LON)));
+
+    diningCommonsLocationService.onStartup();
+
+    assertEquals(List.of("ortega"), codes(diningCommonsLocationService.nearest(LAT, LON, 1)));
+  }
+
+  @Test
+  void test_distanceMeters_is_the_great_circle_distance() {
+    // one degree of latitude is about 111.2 km
+    assertEquals(111_195, DiningCommonsLocationService.distanceMeters(0, 0, 1, 0), 1);
+    assertEquals(0, DiningCommonsLocationService.distanceMeters(LAT, LON, LAT, LON), 0.001);
+  }
+}
@@ -0,0 +1,51 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+/**
+ * Checks that every second-level cache region Hibernate uses comes from
+ * application.conf with a size bound, rather than being created unbounded.
+ */
+@DataJpaTest
+@Import({ TableVersionService.class, SearchService.class, DiningCommonsLocationService.class })
+class HibernateCacheRegionTests {
+
+  @Autowired
+  EntityManagerFactory entityManagerFactory;
+
+  @Test
+  void test_every_region_is_configured_with_a_maximum_size() {
+    Set<String> regions = Set.of(
+        "ucsbdates",
+        "ucsbdiningcommons",
+        "ucsborgs",
+        "default-query-results-region",
+        "default-update-timestamps-region");
+    Set<String> used = Arrays.stream(entityManagerFactory.unwrap(SessionFactory.class)
+        .getStatistics().getSecondLevelCacheRegionNames()).collect(Collectors.toSet());
+    CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName()).getCacheManager();
+
+    assertTrue(regions.containsAll(used), used.toString());
+    for (String region : regions) {
+      Cache<?, ?> cache = cacheManager.getCache(region).unwrap(Cache.class);
+      assertTrue(cache.policy().eviction().isPresent(), region);
+    }
+  }
+}
@@ -0,0 +1,99 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Set;
+
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.metamodel.EntityType;
+import javax.persistence.metamodel.Metamodel;
+
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import edu.ucsb.cs156.example.entities.UCSBDate;
+import edu.ucsb.cs156.example.models.CacheRegionStats;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = HibernateCacheService.class)
+class HibernateCacheServiceTests {
+
+  @MockBean
+  EntityManagerFactory entityManagerFactory;
+
+  @Autowired
+  HibernateCacheService hibernateCacheService;
+
+  SessionFactory sessionFactory = mock(SessionFactory.class);
+
+  @BeforeEach
+  void unwrapSessionFactory() {
+    when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+  }
+
+  @Test
+  void statistics_lists_each_region_in_name_order() {
+    Statistics statistics = mock(Statistics.class);
+    CacheRegionStatistics dates = mock(CacheRegionStatistics.class);
+    CacheRegionStatistics orgs = mock(CacheRegionStatistics.class);
+    when(sessionFactory.getStatistics()).thenReturn(statistics);
+    when(statistics.getSecondLevelCacheRegionNames())
+        .thenReturn(new String[] { "ucsborgs", "gone", "ucsbdates" });
+    when(statistics.getCacheRegionStatistics("ucsbdates")).thenReturn(dates);
+    when(statistics.getCacheRegionStatistics("ucsborgs")).thenReturn(orgs);
+    when(dates.getHitCount()).thenReturn(5L);
+    when(dates.getMissCount()).thenReturn(2L);
+    when(dates.getPutCount()).thenReturn(3L);
+    when(orgs.getHitCount()).thenReturn(1L);
+
+    List<CacheRegionStats> result = hibernateCacheService.statistics();
+
+    assertEquals(List.of(
+        CacheRegionStats.builder().region("ucsbdates").hitCount(5).missCount(2).putCount(3).build(),
+        CacheRegionStats.builder().region("ucsborgs").hitCount(1).build()), result);
+  }
+
+  @Test
+  void evictAll_clears_every_region() {
+    Cache cache = mock(Cache.class);
+    when(sessionFactory.getCache()).thenReturn(cache);
+
+    hibernateCacheService.evictAll();
+
+    verify(cache, times(1)).evictAllRegions();
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void evict_clears_the_entities_of_a_table_and_every_query_result() {
+    Cache cache = mock(Cache.class);
+    Metamodel metamodel = mock(Metamodel.class);
+    EntityType<UCSBDate> dates = mock(EntityType.class);
+    when(sessionFactory.getCache()).thenReturn(cache);
+    when(entityManagerFactory.getMetamodel()).thenReturn(metamodel);
+    when(metamodel.getEntities()).thenReturn(Set.of(dates));
+    when(dates.getJavaType()).thenReturn(UCSBDate.class);
+
+    hibernateCacheService.evict(UCSBDate.class);
+    hibernateCacheService.evict(String.class);
+
+    verify(cache, times(1)).evictEntityData(UCSBDate.class);
+    verify(cache, never()).evictEntityData(String.class);
+    verify(cache, times(2)).evictDefaultQueryRegion();
+  }
+}
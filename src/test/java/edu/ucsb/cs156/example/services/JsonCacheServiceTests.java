@@ -0,0 +1,119 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import edu.ucsb.cs156.example.entities.Restaurant;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = { JsonCacheService.class, ObjectMapper.class, JsonCacheServiceTests.Caching.class })
+class JsonCacheServiceTests {
+
+  @Configuration
+  @EnableCaching
+  static class Caching {
+    @Bean
+    CacheManager cacheManager() {
+      return new ConcurrentMapCacheManager(JsonCacheService.CACHE);
+    }
+  }
+
+  @Autowired
+  ObjectMapper mapper;
+
+  @Autowired
+  JsonCacheService jsonCacheService;
+
+  @Test
+  void test_json_serializes_once_per_etag() throws Exception {
+    // arrange
+    List<Restaurant> restaurants = List.of(Restaurant.builder().id(1L).name("Freebirds").description("Burritos").build());
+    AtomicInteger reads = new AtomicInteger();
+
+    // act
+    byte[] first = jsonCacheService.json("\"Restaurant-1-1\"", () -> { reads.incrementAndGet(); return restaurants; });
+    byte[] second = jsonCacheService.json("\"Restaurant-1-1\"", () -> { reads.incrementAndGet(); return restaurants; });
+    jsonCacheService.json("\"Restaurant-1-2\"", () -> { reads.incrementAndGet(); return restaurants; });
+
+    // assert
+    assertArrayEquals(mapper.writeValueAsBytes(restaurants), first);
+    assertArrayEquals(first, second);
+    assertEquals(2, reads.get());
+  }
+
+  @Test
+  void test_evictAll_drops_every_cached_response() {
+    List<Restaurant> restaurants = List.of(Restaurant.builder().id(1L).name("Freebirds").description("Burritos").build());
+    AtomicInteger reads = new AtomicInteger();
+    jsonCacheService.json("\"Restaurant-2\"", () -> { reads.incrementAndGet(); return restaurants; });
+
+    jsonCacheService.evictAll();
+    jsonCacheService.json("\"Restaurant-2\"", () -> { reads.incrementAndGet(); return restaurants; });
+
+    assertEquals(2, reads.get());
+  }
+
+  @Test
+  void test_json_reports_serialization_failures() {
+    Object unserializable = new Object();
+
+    IllegalStateException e = assertThrows(IllegalStateException.class,
+        () -> jsonCacheService.json("\"Broken-1-1\"", () -> unserializable));
+
+    assertEquals("Could not serialize the response for \"Broken-1-1\"", e.getMessage());
+  }
+
+  @Test
+  void test_concurrent_misses_for_an_etag_serialize_once() throws Exception {
+    List<Restaurant> restaurants = List.of(Restaurant.builder().id(1L).name("Freebirds").description("Burritos").build());
+    AtomicInteger reads = new AtomicInteger();
+    CountDownLatch reading = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+
+    CompletableFuture<byte[]> first = CompletableFuture.supplyAsync(() -> jsonCacheService.json("\"Restaurant-3\"", () -> {
+      reads.incrementAndGet();
+      reading.countDown();
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return restaurants;
+    }));
+    reading.await();
+    Thread waiting = new Thread(() -> jsonCacheService.json("\"Restaurant-3\"", () -> {
+      reads.incrementAndGet();
+      return restaurants;
+    }));
+    waiting.start();
+    // until it is waiting for the first call, or has read the table itself
+    while (waiting.isAlive()
+        && waiting.getState() != Thread.State.BLOCKED && waiting.getState() != Thread.State.WAITING) {
+      Thread.onSpinWait();
+    }
+    release.countDown();
+    waiting.join();
+
+    assertArrayEquals(mapper.writeValueAsBytes(restaurants), first.get());
+    assertEquals(1, reads.get());
+  }
+}
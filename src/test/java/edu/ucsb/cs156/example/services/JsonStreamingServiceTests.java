@@ -0,0 +1,65 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.verify;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Stream;
+
+import javax.persistence.EntityManager;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import edu.ucsb.cs156.example.entities.Restaurant;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = { JsonStreamingService.class, ObjectMapper.class })
+class JsonStreamingServiceTests {
+
+  @MockBean
+  EntityManager entityManager;
+
+  @Autowired
+  ObjectMapper mapper;
+
+  @Autowired
+  JsonStreamingService jsonStreamingService;
+
+  @Test
+  void test_writeJsonArray_writes_every_row_and_detaches_it() throws Exception {
+    // arrange
+    Restaurant freebirds = Restaurant.builder().id(1L).name("Freebirds").description("Burritos").build();
+    Restaurant woodstocks = Restaurant.builder().id(2L).name("Woodstocks").description("Pizza").build();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    // act
+    jsonStreamingService.writeJsonArray(() -> Stream.of(freebirds, woodstocks), out);
+
+    // assert
+    String expectedJson = mapper.writeValueAsString(List.of(freebirds, woodstocks));
+    assertEquals(expectedJson, out.toString(StandardCharsets.UTF_8));
+    verify(entityManager).detach(freebirds);
+    verify(entityManager).detach(woodstocks);
+  }
+
+  @Test
+  void test_writeJsonArray_with_no_rows() throws Exception {
+    // arrange
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    // act
+    jsonStreamingService.writeJsonArray(() -> Stream.empty(), out);
+
+    // assert
+    assertEquals("[]", out.toString(StandardCharsets.UTF_8));
+  }
+}
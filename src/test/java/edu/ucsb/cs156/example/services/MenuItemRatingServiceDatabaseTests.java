@@ -0,0 +1,94 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import edu.ucsb.cs156.example.entities.MenuItemRatingSummary;
+import edu.ucsb.cs156.example.entities.MenuItemReview;
+import edu.ucsb.cs156.example.repositories.MenuItemRatingSummaryRepository;
+import edu.ucsb.cs156.example.repositories.MenuItemReviewRepository;
+
+/**
+ * Runs the review writes of MenuItemRatingService against the H2 schema,
+ * outside any test transaction, so each call commits or rolls back on its own.
+ */
+@DataJpaTest
+@Import({ MenuItemRatingService.class, TableVersionService.class, SearchService.class, DiningCommonsLocationService.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class MenuItemRatingServiceDatabaseTests {
+
+  @Autowired
+  MenuItemRatingService menuItemRatingService;
+
+  @Autowired
+  MenuItemReviewRepository reviewRepository;
+
+  @Autowired
+  MenuItemRatingSummaryRepository summaryRepository;
+
+  @AfterEach
+  void deleteRows() {
+    reviewRepository.deleteAll();
+    summaryRepository.deleteAll();
+  }
+
+  private MenuItemReview review(long itemId, int stars) {
+    return MenuItemReview.builder().itemId(itemId).stars(stars).reviewerEmail("a@ucsb.edu")
+        .dateReviewed(LocalDateTime.parse("2022-01-03T00:00:00")).comments("ok").build();
+  }
+
+  @Test
+  void test_the_first_review_of_an_item_creates_its_summary() {
+    menuItemRatingService.addReview(review(7L, 4));
+    menuItemRatingService.addReview(review(7L, 2));
+
+    assertEquals(MenuItemRatingSummary.builder().itemId(7L).reviewCount(2).starTotal(6).twoStars(1).fourStars(1).build(),
+        summaryRepository.findById(7L).orElseThrow());
+  }
+
+  @Test
+  void test_an_update_and_its_summary_change_commit_together() {
+    MenuItemReview saved = menuItemRatingService.addReview(review(7L, 4));
+
+    menuItemRatingService.updateReview(saved.getId(), review(8L, 5));
+
+    assertEquals(0, summaryRepository.findById(7L).orElseThrow().getReviewCount());
+    assertEquals(5, summaryRepository.findById(8L).orElseThrow().getStarTotal());
+    assertEquals(8L, reviewRepository.findById(saved.getId()).orElseThrow().getItemId());
+  }
+
+  @Test
+  void test_a_failed_update_leaves_the_summary_alone() {
+    MenuItemReview saved = menuItemRatingService.addReview(review(7L, 4));
+    // comments is a varchar(255), so the flush at commit fails
+    MenuItemReview invalid = review(8L, 5);
+    invalid.setComments("x".repeat(300));
+
+    assertThrows(RuntimeException.class, () -> menuItemRatingService.updateReview(saved.getId(), invalid));
+
+    assertEquals(4, summaryRepository.findById(7L).orElseThrow().getStarTotal());
+    assertTrue(summaryRepository.findById(8L).map(summary -> summary.getReviewCount() == 0).orElse(true));
+    assertEquals(7L, reviewRepository.findById(saved.getId()).orElseThrow().getItemId());
+  }
+
+  @Test
+  void test_removing_a_review_uncounts_it() {
+    MenuItemReview saved = menuItemRatingService.addReview(review(7L, 4));
+
+    menuItemRatingService.removeReview(saved.getId());
+
+    assertEquals(0, summaryRepository.findById(7L).orElseThrow().getReviewCount());
+    assertTrue(reviewRepository.findById(saved.getId()).isEmpty());
+  }
+}
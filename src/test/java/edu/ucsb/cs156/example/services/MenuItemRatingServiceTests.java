@@ -0,0 +1,283 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.endsWith;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import edu.ucsb.cs156.example.entities.MenuItemRatingSummary;
+import edu.ucsb.cs156.example.entities.MenuItemReview;
+import edu.ucsb.cs156.example.entities.UCSBDiningCommonsMenuItem;
+import edu.ucsb.cs156.example.errors.EntityNotFoundException;
+import edu.ucsb.cs156.example.models.RatedMenuItem;
+import edu.ucsb.cs156.example.repositories.MenuItemRatingSummaryRepository;
+import edu.ucsb.cs156.example.repositories.MenuItemReviewRepository;
+import edu.ucsb.cs156.example.repositories.MenuItemReviewRepository.StarCount;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = MenuItemRatingService.class)
+class MenuItemRatingServiceTests {
+
+  @MockBean
+  MenuItemRatingSummaryRepository summaryRepository;
+
+  @MockBean
+  MenuItemReviewRepository reviewRepository;
+
+  @MockBean
+  JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  MenuItemRatingService menuItemRatingService;
+
+  private MenuItemReview review(long itemId, int stars) {
+    return MenuItemReview.builder().itemId(itemId).stars(stars).build();
+  }
+
+  private StarCount starCount(long itemId, int stars, long reviews) {
+    return new StarCount() {
+      public long getItemId() { return itemId; }
+      public int getStars() { return stars; }
+      public long getReviews() { return reviews; }
+    };
+  }
+
+  @Test
+  void test_reviewAdded_creates_the_first_summary_of_an_item() {
+    when(summaryRepository.findForUpdate(eq(7L)))
+        .thenReturn(Optional.empty(), Optional.of(MenuItemRatingSummary.builder().itemId(7L).build()));
+
+    menuItemRatingService.reviewAdded(review(7L, 4));
+
+    verify(jdbcTemplate, times(1)).update(startsWith("merge into menuitemratingsummary"), eq(7L));
+    MenuItemRatingSummary expected = MenuItemRatingSummary.builder()
+        .itemId(7L).reviewCount(1).starTotal(4).fourStars(1).build();
+    verify(summaryRepository, times(1)).save(expected);
+  }
+
+  @Test
+  void test_reviewAdded_adds_to_an_existing_summary() {
+    MenuItemRatingSummary stored = MenuItemRatingSummary.builder()
+        .itemId(7L).reviewCount(2).starTotal(6).oneStar(1).fiveStars(1).build();
+    when(summaryRepository.findForUpdate(eq(7L))).thenReturn(Optional.of(stored));
+
+    menuItemRatingService.reviewAdded(review(7L, 5));
+
+    MenuItemRatingSummary expected = MenuItemRatingSummary.builder()
+        .itemId(7L).reviewCount(3).starTotal(11).oneStar(1).fiveStars(2).build();
+    verify(summaryRepository, times(1)).save(expected);
+    assertEquals(11.0 / 3, expected.getAverageStars());
+  }
+
+  @Test
+  void test_reviewRemoved_subtracts_from_the_summary() {
+    MenuItemRatingSummary stored = MenuItemRatingSummary.builder()
+        .itemId(7L).reviewCount(2).starTotal(5).twoStars(1).threeStars(1).build();
+    when(summaryRepository.findForUpdate(eq(7L))).thenReturn(Optional.of(stored));
+
+    menuItemRatingService.reviewRemoved(review(7L, 2));
+
+    MenuItemRatingSummary expected = MenuItemRatingSummary.builder()
+        .itemId(7L).reviewCount(1).starTotal(3).threeStars(1).build();
+    verify(summaryRepository, times(1)).save(expected);
+  }
+
+  @Test
+  void test_reviewChanged_moves_the_review_between_items() {
+    MenuItemRatingSummary oldItem = MenuItemRatingSummary.builder()
+        .itemId(7L).reviewCount(1).starTotal(1).oneStar(1).build();
+    MenuItemRatingSummary newItem = MenuItemRatingSummary.builder()
+        .itemId(8L).reviewCount(1).starTotal(2).twoStars(1).build();
+    when(summaryRepository.findForUpdate(eq(7L))).thenReturn(Optional.of(oldItem));
+    when(summaryRepository.findForUpdate(eq(8L))).thenReturn(Optional.of(newItem));
+
+    menuItemRatingService.reviewChanged(7L, 1, review(8L, 3));
+
+    verify(summaryRepository, times(1)).save(MenuItemRatingSummary.builder().itemId(7L).build());
+    verify(summaryRepository, times(1)).save(MenuItemRatingSummary.builder()
+        .itemId(8L).reviewCount(2).starTotal(5).twoStars(1).threeStars(1).build());
+  }
+
+  @Test
+  void test_reviewChanged_does_nothing_when_item_and_stars_are_unchanged() {
+    menuItemRatingService.reviewChanged(7L, 3, review(7L, 3));
+
+    verify(summaryRepository, times(0)).findForUpdate(anyLong());
+    verify(summaryRepository, times(0)).save(any());
+  }
+
+  @Test
+  void test_reviewChanged_when_only_the_stars_change() {
+    MenuItemRatingSummary stored = MenuItemRatingSummary.builder()
+        .itemId(7L).reviewCount(1).starTotal(3).threeStars(1).build();
+    when(summaryRepository.findForUpdate(eq(7L))).thenReturn(Optional.of(stored));
+
+    menuItemRatingService.reviewChanged(7L, 3, review(7L, 5));
+
+    assertEquals(MenuItemRatingSummary.builder()
+        .itemId(7L).reviewCount(1).starTotal(5).fiveStars(1).build(), stored);
+  }
+
+  @Test
+  void test_on_postgresql_the_first_summary_is_inserted_unless_it_exists() {
+    ReflectionTestUtils.setField(menuItemRatingService, "platform", "postgresql");
+    when(summaryRepository.findForUpdate(eq(7L)))
+        .thenReturn(Optional.empty(), Optional.of(MenuItemRatingSummary.builder().itemId(7L).build()));
+
+    try {
+      menuItemRatingService.reviewAdded(review(7L, 4));
+    } finally {
+      ReflectionTestUtils.setField(menuItemRatingService, "platform", "h2");
+    }
+
+    verify(jdbcTemplate, times(1)).update(endsWith("on conflict (item_id) do nothing"), eq(7L));
+  }
+
+  @Test
+  void test_stars_outside_one_to_five_count_but_stay_out_of_the_histogram() {
+    when(summaryRepository.findForUpdate(eq(7L)))
+        .thenReturn(Optional.empty(), Optional.of(MenuItemRatingSummary.builder().itemId(7L).build()));
+
+    menuItemRatingService.reviewAdded(review(7L, 0));
+
+    verify(summaryRepository, times(1)).save(MenuItemRatingSummary.builder().itemId(7L).reviewCount(1).build());
+  }
+
+  @Test
+  void test_addReview_saves_the_review_and_counts_it() {
+    MenuItemReview review = review(7L, 4);
+    MenuItemReview saved = MenuItemReview.builder().id(1L).itemId(7L).stars(4).build();
+    when(reviewRepository.save(eq(review))).thenReturn(saved);
+    when(summaryRepository.findForUpdate(eq(7L))).thenReturn(Optional.of(MenuItemRatingSummary.builder().itemId(7L).build()));
+
+    assertEquals(saved, menuItemRatingService.addReview(review));
+
+    verify(summaryRepository, times(1)).save(MenuItemRatingSummary.builder()
+        .itemId(7L).reviewCount(1).starTotal(4).fourStars(1).build());
+  }
+
+  @Test
+  void test_updateReview_copies_the_fields_and_moves_the_rating() {
+    LocalDateTime reviewed = LocalDateTime.parse("2022-01-03T00:00:00");
+    MenuItemReview stored = MenuItemReview.builder().id(1L).itemId(7L).stars(1).reviewerEmail("a@ucsb.edu").build();
+    MenuItemReview incoming = MenuItemReview.builder().itemId(8L).stars(3).reviewerEmail("b@ucsb.edu")
+        .dateReviewed(reviewed).comments("better").build();
+    when(reviewRepository.findForUpdate(eq(1L))).thenReturn(Optional.of(stored));
+    when(summaryRepository.findForUpdate(eq(7L))).thenReturn(Optional.of(MenuItemRatingSummary.builder()
+        .itemId(7L).reviewCount(1).starTotal(1).oneStar(1).build()));
+    when(summaryRepository.findForUpdate(eq(8L))).thenReturn(Optional.of(MenuItemRatingSummary.builder().itemId(8L).build()));
+
+    MenuItemReview updated = menuItemRatingService.updateReview(1L, incoming);
+
+    assertEquals(MenuItemReview.builder().id(1L).itemId(8L).stars(3).reviewerEmail("b@ucsb.edu")
+        .dateReviewed(reviewed).comments("better").build(), updated);
+    verify(reviewRepository, times(1)).save(stored);
+    verify(summaryRepository, times(1)).save(MenuItemRatingSummary.builder().itemId(7L).build());
+    verify(summaryRepository, times(1)).save(MenuItemRatingSummary.builder()
+        .itemId(8L).reviewCount(1).starTotal(3).threeStars(1).build());
+  }
+
+  @Test
+  void test_updateReview_of_a_missing_review_throws() {
+    when(reviewRepository.findForUpdate(eq(1L))).thenReturn(Optional.empty());
+
+    EntityNotFoundException e = assertThrows(EntityNotFoundException.class,
+        () -> menuItemRatingService.updateReview(1L, review(8L, 3)));
+
+    assertEquals("MenuItemReview with id 1 not found", e.getMessage());
+    verify(reviewRepository, times(0)).save(any());
+  }
+
+  @Test
+  void test_removeReview_deletes_the_review_and_uncounts_it() {
+    MenuItemReview stored = MenuItemReview.builder().id(1L).itemId(7L).stars(2).build();
+    when(reviewRepository.findForUpdate(eq(1L))).thenReturn(Optional.of(stored));
+    when(summaryRepository.findForUpdate(eq(7L))).thenReturn(Optional.of(MenuItemRatingSummary.builder()
+        .itemId(7L).reviewCount(1).starTotal(2).twoStars(1).build()));
+
+    menuItemRatingService.removeReview(1L);
+
+    verify(reviewRepository, times(1)).delete(stored);
+    verify(summaryRepository, times(1)).save(MenuItemRatingSummary.builder().itemId(7L).build());
+  }
+
+  @Test
+  void test_removeReview_of_a_missing_review_throws() {
+    when(reviewRepository.findForUpdate(eq(1L))).thenReturn(Optional.empty());
+
+    assertThrows(EntityNotFoundException.class, () -> menuItemRatingService.removeReview(1L));
+
+    verify(reviewRepository, times(0)).delete(any());
+  }
+
+  @Test
+  void test_summaryFor_returns_the_stored_summary() {
+    MenuItemRatingSummary stored = MenuItemRatingSummary.builder().itemId(7L).reviewCount(1).starTotal(4).build();
+    when(summaryRepository.findById(eq(7L))).thenReturn(Optional.of(stored));
+
+    assertEquals(stored, menuItemRatingService.summaryFor(7L));
+  }
+
+  @Test
+  void test_summaryFor_an_item_without_reviews_is_empty() {
+    when(summaryRepository.findById(eq(7L))).thenReturn(Optional.empty());
+
+    MenuItemRatingSummary summary = menuItemRatingService.summaryFor(7L);
+
+    assertEquals(MenuItemRatingSummary.builder().itemId(7L).build(), summary);
+    assertEquals(0.0, summary.getAverageStars());
+  }
+
+  @Test
+  void test_topRated_asks_for_n_items() {
+    UCSBDiningCommonsMenuItem item = UCSBDiningCommonsMenuItem.builder().id(7L).diningCommonsCode("ortega").build();
+    MenuItemRatingSummary rating = MenuItemRatingSummary.builder().itemId(7L).reviewCount(1).starTotal(5).build();
+    List<RatedMenuItem> top = List.of(new RatedMenuItem(item, rating));
+    when(summaryRepository.findTopRated(eq("ortega"), eq(PageRequest.of(0, 3)))).thenReturn(top);
+
+    assertEquals(top, menuItemRatingService.topRated("ortega", 3));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void test_rebuild_recomputes_every_summary() {
+    when(reviewRepository.countByItemIdAndStars()).thenReturn(List.of(
+        starCount(7L, 5, 2),
+        starCount(7L, 1, 1),
+        starCount(8L, 3, 4)));
+
+    int items = menuItemRatingService.rebuild();
+
+    assertEquals(2, items);
+    verify(summaryRepository, times(1)).deleteAll();
+    ArgumentCaptor<Iterable<MenuItemRatingSummary>> saved = ArgumentCaptor.forClass(Iterable.class);
+    verify(summaryRepository, times(1)).saveAll(saved.capture());
+    Set<MenuItemRatingSummary> expected = Set.of(
+        MenuItemRatingSummary.builder().itemId(7L).reviewCount(3).starTotal(11).oneStar(1).fiveStars(2).build(),
+        MenuItemRatingSummary.builder().itemId(8L).reviewCount(4).starTotal(12).threeStars(4).build());
+    assertEquals(expected, Set.copyOf((Collection<MenuItemRatingSummary>) saved.getValue()));
+  }
+}
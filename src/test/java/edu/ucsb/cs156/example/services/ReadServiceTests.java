@@ -0,0 +1,81 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+
+import javax.persistence.EntityManager;
+
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import edu.ucsb.cs156.example.entities.UCSBDate;
+import edu.ucsb.cs156.example.repositories.UCSBDateRepository;
+
+/**
+ * Runs against the H2 schema without the test-managed transaction that
+ * DataJpaTest adds, so each read opens its own transaction as it does
+ * when a controller calls it.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ ReadService.class, TableVersionService.class, SearchService.class, DiningCommonsLocationService.class })
+class ReadServiceTests {
+
+  @Autowired
+  ReadService readService;
+
+  @Autowired
+  UCSBDateRepository ucsbDateRepository;
+
+  @Autowired
+  EntityManager entityManager;
+
+  @AfterEach
+  void deleteDates() {
+    ucsbDateRepository.deleteAll();
+  }
+
+  @Test
+  void test_read_runs_in_a_read_only_session_that_never_flushes() {
+    // Spring restores the session's settings when the transaction ends, so
+    // they are checked inside it
+    boolean read = readService.read(() -> {
+      Session session = entityManager.unwrap(Session.class);
+      assertTrue(TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+      assertTrue(session.isDefaultReadOnly());
+      assertEquals(FlushMode.MANUAL, session.getHibernateFlushMode());
+      return true;
+    });
+
+    assertTrue(read);
+  }
+
+  @Test
+  void test_changes_to_entities_read_are_not_written_back() {
+    // arrange
+    UCSBDate saved = ucsbDateRepository.save(UCSBDate.builder()
+        .quarterYYYYQ("20222").name("firstDayOfClasses")
+        .localDateTime(LocalDateTime.parse("2022-03-28T00:00:00")).build());
+
+    // act
+    UCSBDate read = readService.read(() -> {
+      UCSBDate date = ucsbDateRepository.findById(saved.getId()).orElseThrow();
+      date.setName("changed");
+      return date;
+    });
+
+    // assert
+    assertEquals("changed", read.getName());
+    assertEquals("firstDayOfClasses", ucsbDateRepository.findById(saved.getId()).orElseThrow().getName());
+  }
+}
@@ -0,0 +1,185 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import edu.ucsb.cs156.example.entities.Restaurant;
+import edu.ucsb.cs156.example.entities.UCSBDate;
+import edu.ucsb.cs156.example.entities.UCSBDiningCommonsMenuItem;
+import edu.ucsb.cs156.example.entities.UCSBOrganization;
+import edu.ucsb.cs156.example.models.SearchHit;
+import edu.ucsb.cs156.example.models.TableChangedElsewhereEvent;
+import edu.ucsb.cs156.example.repositories.RestaurantRepository;
+import edu.ucsb.cs156.example.repositories.UCSBDiningCommonsMenuItemRepository;
+import edu.ucsb.cs156.example.repositories.UCSBOrganizationRepository;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = SearchService.class)
+class SearchServiceTests {
+
+  @MockBean
+  RestaurantRepository restaurantRepository;
+
+  @MockBean
+  UCSBDiningCommonsMenuItemRepository menuItemRepository;
+
+  @MockBean
+  UCSBOrganizationRepository organizationRepository;
+
+  @MockBean
+  TableVersionService tableVersionService;
+
+  @Autowired
+  SearchService searchService;
+
+  Restaurant freebirds = Restaurant.builder().id(1L).name("Freebirds").description("Burritos and bowls").build();
+  Restaurant burger = Restaurant.builder().id(2L).name("Habit Burger").description("Burgers").build();
+  UCSBDiningCommonsMenuItem pasta = UCSBDiningCommonsMenuItem.builder()
+      .id(3L).diningCommonsCode("ortega").name("Pasta Bar").station("Entrees").build();
+  UCSBOrganization krc = UCSBOrganization.builder()
+      .orgCode("KRC").orgTranslationShort("KOREAN RADIO CL").orgTranslation("KOREAN RADIO CLUB").build();
+
+  SearchHit freebirdsHit = new SearchHit(SearchService.RESTAURANT, "1", "Freebirds", "Burritos and bowls");
+  SearchHit burgerHit = new SearchHit(SearchService.RESTAURANT, "2", "Habit Burger", "Burgers");
+  SearchHit pastaHit = new SearchHit(SearchService.MENU_ITEM, "3", "Pasta Bar", "Entrees at ortega");
+  SearchHit krcHit = new SearchHit(SearchService.ORGANIZATION, "KRC", "KOREAN RADIO CL", "KOREAN RADIO CLUB");
+
+  @BeforeEach
+  void loadIndex() {
+    when(restaurantRepository.findAll()).thenReturn(List.of(freebirds, burger));
+    when(menuItemRepository.findAll()).thenReturn(List.of(pasta));
+    when(organizationRepository.findAllUncached()).thenReturn(List.of(krc));
+    assertEquals(4, searchService.rebuild());
+  }
+
+  @Test
+  void test_search_matches_words_as_prefixes() {
+    assertEquals(List.of(freebirdsHit, burgerHit), searchService.search("bur", 10));
+    assertEquals(List.of(pastaHit), searchService.search("ent", 10));
+    assertEquals(List.of(krcHit), searchService.search("Korean rad", 10));
+    assertEquals(List.of(krcHit), searchService.search("krc", 10));
+  }
+
+  @Test
+  void test_search_ranks_whole_word_matches_first() {
+    searchService.indexed(Restaurant.builder().id(5L).name("Aardvark").description("Burgerville").build());
+
+    List<SearchHit> hits = searchService.search("burger", 10);
+
+    assertEquals(List.of(burgerHit, new SearchHit(SearchService.RESTAURANT, "5", "Aardvark", "Burgerville")), hits);
+  }
+
+  @Test
+  void test_search_requires_every_word_to_match() {
+    assertEquals(List.of(freebirdsHit), searchService.search("burritos bowls", 10));
+    assertEquals(List.of(), searchService.search("burritos pasta", 10));
+    assertEquals(List.of(), searchService.search("sushi", 10));
+    assertEquals(List.of(), searchService.search(" -- ", 10));
+  }
+
+  @Test
+  void test_search_applies_the_limit() {
+    assertEquals(List.of(freebirdsHit), searchService.search("b", 1));
+  }
+
+  @Test
+  void test_indexed_replaces_the_old_terms_of_an_entity() {
+    Restaurant renamed = Restaurant.builder().id(1L).name("Freebirds").description("Tacos").build();
+
+    searchService.indexed(renamed);
+
+    assertEquals(List.of(burgerHit), searchService.search("bur", 10));
+    assertEquals(List.of(new SearchHit(SearchService.RESTAURANT, "1", "Freebirds", "Tacos")),
+        searchService.search("tac", 10));
+  }
+
+  @Test
+  void test_removed_drops_an_entity_from_the_index() {
+    UCSBDiningCommonsMenuItem salad = UCSBDiningCommonsMenuItem.builder()
+        .id(4L).diningCommonsCode("dlg").name("Pasta Salad").station("Salads").build();
+    searchService.indexed(salad);
+
+    searchService.removed(pasta);
+    searchService.removed(pasta);
+
+    assertEquals(List.of(new SearchHit(SearchService.MENU_ITEM, "4", "Pasta Salad", "Salads at dlg")),
+        searchService.search("pasta", 10));
+    assertEquals(List.of(), searchService.search("entrees", 10));
+  }
+
+  @Test
+  void test_onStartup_builds_the_index() {
+    searchService.removed(krc);
+
+    searchService.onStartup();
+
+    assertEquals(List.of(krcHit), searchService.search("krc", 10));
+  }
+
+  @Test
+  void test_other_entities_and_missing_fields_are_ignored() {
+    searchService.indexed("not an entity");
+    searchService.removed("not an entity");
+    searchService.indexed(Restaurant.builder().id(9L).name("Nameless").build());
+
+    assertEquals(List.of(new SearchHit(SearchService.RESTAURANT, "9", "Nameless", null)),
+        searchService.search("nameless", 10));
+    assertEquals(Set.of(), SearchService.terms(null));
+    assertEquals(Set.of("krc"), SearchService.terms(" -KRC"));
+  }
+
+  @Test
+  void test_changes_inside_a_transaction_wait_for_the_commit() {
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      searchService.removed(krc);
+      assertEquals(List.of(krcHit), searchService.search("krc", 10));
+
+      for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+        synchronization.afterCommit();
+      }
+      assertEquals(List.of(), searchService.search("krc", 10));
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+  }
+
+  @Test
+  void test_refresh_keeps_the_index_after_writes_on_this_instance() {
+    searchService.removed(krc);
+    searchService.tableChanged(new TableChangedElsewhereEvent(UCSBDate.class));
+
+    searchService.refresh();
+
+    assertEquals(List.of(), searchService.search("krc", 10));
+    verify(organizationRepository, times(1)).findAllUncached();
+    verify(tableVersionService, times(2)).version(UCSBOrganization.class);
+  }
+
+  @Test
+  void test_refresh_rebuilds_after_a_write_on_another_instance() {
+    searchService.removed(krc);
+    searchService.tableChanged(new TableChangedElsewhereEvent(UCSBOrganization.class));
+
+    searchService.refresh();
+    searchService.refresh();
+
+    assertEquals(List.of(krcHit), searchService.search("krc", 10));
+    verify(organizationRepository, times(2)).findAllUncached();
+  }
+}
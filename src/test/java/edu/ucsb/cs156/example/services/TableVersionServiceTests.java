@@ -0,0 +1,223 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import edu.ucsb.cs156.example.entities.Restaurant;
+import edu.ucsb.cs156.example.entities.UCSBDate;
+import edu.ucsb.cs156.example.models.TableChangedElsewhereEvent;
+import edu.ucsb.cs156.example.repositories.UCSBDateRepository;
+
+@DataJpaTest
+@Import({ TableVersionService.class, HibernateCacheService.class, SearchService.class,
+    DiningCommonsLocationService.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@RecordApplicationEvents
+class TableVersionServiceTests {
+
+  @Autowired
+  TableVersionService tableVersionService;
+
+  @Autowired
+  UCSBDateRepository ucsbDateRepository;
+
+  @Autowired
+  JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  PlatformTransactionManager transactionManager;
+
+  @SpyBean
+  HibernateCacheService hibernateCacheService;
+
+  @Autowired
+  ApplicationEvents events;
+
+  private List<TableChangedElsewhereEvent> changedElsewhere() {
+    return events.stream(TableChangedElsewhereEvent.class).collect(Collectors.toList());
+  }
+
+  private void reset() {
+    jdbcTemplate.update("update table_versions set version = 0");
+    jdbcTemplate.update("delete from table_versions where table_name = 'TableVersionServiceTests'");
+    ((Map<?, ?>) ReflectionTestUtils.getField(tableVersionService, "reflected")).clear();
+    clearInvocations(hibernateCacheService);
+  }
+
+  // What another instance's write looks like from here: the rows and the
+  // counter change in the database, and nothing passes through Hibernate
+  private void writeOnAnotherInstance(String name) {
+    jdbcTemplate.update("update ucsbdates set name = ?", name);
+    jdbcTemplate.update("update table_versions set version = version + 1 where table_name = 'UCSBDate'");
+  }
+
+  private List<String> names() {
+    return StreamSupport.stream(ucsbDateRepository.findAll().spliterator(), false)
+        .map(UCSBDate::getName)
+        .collect(Collectors.toList());
+  }
+
+  @Test
+  void test_the_startup_script_seeds_every_table_at_zero() {
+    reset();
+    assertEquals(0, tableVersionService.version(UCSBDate.class));
+    assertEquals(7, jdbcTemplate.queryForObject("select count(*) from table_versions", Integer.class));
+  }
+
+  @Test
+  void test_bump_outside_a_transaction_changes_the_etag_of_that_table_only() {
+    reset();
+    String datesBefore = tableVersionService.etag(UCSBDate.class);
+    String restaurantsBefore = tableVersionService.etag(Restaurant.class);
+
+    tableVersionService.bump(UCSBDate.class);
+
+    assertEquals(1, tableVersionService.version(UCSBDate.class));
+    assertNotEquals(datesBefore, tableVersionService.etag(UCSBDate.class));
+    assertEquals(restaurantsBefore, tableVersionService.etag(Restaurant.class));
+  }
+
+  @Test
+  void test_bumpAll_changes_every_etag() {
+    reset();
+    tableVersionService.bumpAll();
+
+    assertEquals(1, tableVersionService.version(UCSBDate.class));
+    assertEquals(1, tableVersionService.version(Restaurant.class));
+  }
+
+  @Test
+  void test_bump_adds_a_row_for_a_table_that_was_not_seeded() {
+    reset();
+    assertEquals(0, tableVersionService.version(TableVersionServiceTests.class));
+
+    tableVersionService.bump(TableVersionServiceTests.class);
+    tableVersionService.bump(TableVersionServiceTests.class);
+
+    assertEquals(2, tableVersionService.version(TableVersionServiceTests.class));
+  }
+
+  @Test
+  void test_a_write_bumps_the_version_once_per_transaction_and_only_on_commit() {
+    reset();
+    TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+    transaction.executeWithoutResult(status -> {
+      ucsbDateRepository.save(UCSBDate.builder().name("a").quarterYYYYQ("20221").build());
+      ucsbDateRepository.save(UCSBDate.builder().name("b").quarterYYYYQ("20221").build());
+    });
+    assertEquals(1, tableVersionService.version(UCSBDate.class));
+
+    transaction.executeWithoutResult(status -> {
+      ucsbDateRepository.save(UCSBDate.builder().name("c").quarterYYYYQ("20221").build());
+      status.flush();
+      status.setRollbackOnly();
+    });
+    assertEquals(1, tableVersionService.version(UCSBDate.class));
+
+    ucsbDateRepository.deleteAll();
+  }
+
+  @Test
+  void test_etags_are_weak_and_include_the_version_and_id() {
+    reset();
+    assertEquals("W/\"UCSBDate-0\"", tableVersionService.etag(UCSBDate.class));
+    assertEquals("W/\"UCSBDate-0-7\"", tableVersionService.etag(UCSBDate.class, 7L));
+  }
+
+  @Test
+  void test_reading_a_version_bumped_elsewhere_evicts_the_cached_rows() {
+    reset();
+    ucsbDateRepository.save(UCSBDate.builder().name("a").quarterYYYYQ("20221").build());
+    tableVersionService.version(UCSBDate.class);
+    assertEquals(List.of("a"), names());
+
+    writeOnAnotherInstance("b");
+    assertEquals(List.of("a"), names());
+
+    assertEquals(2, tableVersionService.version(UCSBDate.class));
+    assertEquals(List.of("b"), names());
+
+    ucsbDateRepository.deleteAll();
+  }
+
+  @Test
+  void test_the_first_read_of_a_version_evicts_but_announces_nothing() {
+    reset();
+    tableVersionService.version(UCSBDate.class);
+
+    verify(hibernateCacheService, times(1)).evict(UCSBDate.class);
+    assertEquals(List.of(), changedElsewhere());
+  }
+
+  @Test
+  void test_checkForChanges_evicts_the_tables_bumped_elsewhere() {
+    reset();
+    tableVersionService.version(UCSBDate.class);
+    tableVersionService.version(Restaurant.class);
+    clearInvocations(hibernateCacheService);
+
+    jdbcTemplate.update("update table_versions set version = version + 1 where table_name = 'UCSBDate'");
+    tableVersionService.checkForChanges();
+    tableVersionService.checkForChanges();
+
+    verify(hibernateCacheService, times(1)).evict(UCSBDate.class);
+    verify(hibernateCacheService, never()).evict(Restaurant.class);
+    assertEquals(List.of(new TableChangedElsewhereEvent(UCSBDate.class)), changedElsewhere());
+  }
+
+  @Test
+  void test_writes_on_this_instance_evict_nothing() {
+    reset();
+    tableVersionService.version(UCSBDate.class);
+    clearInvocations(hibernateCacheService);
+    TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+    transaction.executeWithoutResult(status ->
+        ucsbDateRepository.save(UCSBDate.builder().name("a").quarterYYYYQ("20221").build()));
+    tableVersionService.bump(UCSBDate.class);
+
+    assertEquals(2, tableVersionService.version(UCSBDate.class));
+    verify(hibernateCacheService, never()).evict(any());
+    assertEquals(List.of(), changedElsewhere());
+
+    ucsbDateRepository.deleteAll();
+  }
+
+  @Test
+  void test_an_older_version_read_after_a_newer_one_evicts_nothing() {
+    reset();
+    jdbcTemplate.update("update table_versions set version = 5 where table_name = 'UCSBDate'");
+    tableVersionService.version(UCSBDate.class);
+    clearInvocations(hibernateCacheService);
+
+    jdbcTemplate.update("update table_versions set version = 4 where table_name = 'UCSBDate'");
+    tableVersionService.version(UCSBDate.class);
+
+    verify(hibernateCacheService, never()).evict(any());
+  }
+}
@@ -1,11 +1,19 @@
 package edu.ucsb.cs156.example.testconfig;
 
+import javax.sql.DataSource;
+
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
 
 
+import edu.ucsb.cs156.example.services.AdminRoleService;
+import edu.ucsb.cs156.example.services.BatchService;
 import edu.ucsb.cs156.example.services.CurrentUserService;
 import edu.ucsb.cs156.example.services.GrantedAuthoritiesService;
+import edu.ucsb.cs156.example.services.TableVersionService;
 
 @TestConfiguration
 public class TestConfig {
@@ -20,4 +28,27 @@ public class TestConfig {
         return new GrantedAuthoritiesService();
     }
 
+    @Bean
+    public AdminRoleService adminRoleService() {
+        return new AdminRoleService();
+    }
+
+    @Bean
+    public TableVersionService tableVersionService() {
+        // the ETags are read from table_versions, so the controller tests
+        // get a small database holding just that table
+        DataSource dataSource = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        new JdbcTemplate(dataSource).execute(
+                "create table table_versions (table_name varchar(255) primary key, version bigint not null)");
+        return new TableVersionService(dataSource);
+    }
+
+    @Bean
+    public BatchService batchService() {
+        return new BatchService();
+    }
+
 }